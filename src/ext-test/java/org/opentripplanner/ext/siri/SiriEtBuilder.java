@@ -60,6 +60,11 @@ public class SiriEtBuilder {
     return this;
   }
 
+  public SiriEtBuilder withIsCompleteStopSequence(boolean isCompleteStopSequence) {
+    evj.setIsCompleteStopSequence(isCompleteStopSequence);
+    return this;
+  }
+
   public SiriEtBuilder withIsExtraJourney(boolean isExtraJourney) {
     evj.setExtraJourney(isExtraJourney);
     return this;
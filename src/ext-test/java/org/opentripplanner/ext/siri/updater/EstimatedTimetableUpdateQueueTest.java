@@ -0,0 +1,104 @@
+package org.opentripplanner.ext.siri.updater;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.DateTimeHelper;
+import org.opentripplanner._support.time.ZoneIds;
+import org.opentripplanner.ext.siri.SiriEtBuilder;
+import org.opentripplanner.updater.GraphWriterRunnable;
+import org.opentripplanner.updater.UpdateQueueParameters;
+import uk.org.siri.siri20.EstimatedTimetableDeliveryStructure;
+import uk.org.siri.siri20.EstimatedVehicleJourney;
+
+class EstimatedTimetableUpdateQueueTest {
+
+  private static final DateTimeHelper DATE_TIME_HELPER = new DateTimeHelper(
+    ZoneIds.OSLO,
+    LocalDate.of(2024, 5, 8)
+  );
+
+  private final List<GraphWriterRunnable> submitted = new ArrayList<>();
+  private final List<EstimatedVehicleJourney> applied = new ArrayList<>();
+
+  private final EstimatedTimetableUpdateQueue queue = new EstimatedTimetableUpdateQueue(
+    "test",
+    EstimatedTimetableUpdateQueueTest.class,
+    UpdateQueueParameters.DEFAULT,
+    runnable -> {
+      submitted.add(runnable);
+      return CompletableFuture.completedFuture(null);
+    },
+    (deliveries, context) ->
+      deliveries
+        .stream()
+        .flatMap(delivery -> delivery.getEstimatedJourneyVersionFrames().stream())
+        .forEach(frame -> applied.addAll(frame.getEstimatedVehicleJourneies()))
+  );
+
+  @Test
+  void replaceJourneyWithCompleteStopSequence() throws InterruptedException {
+    var first = journey("J1", true);
+    var second = journey("J1", true);
+
+    queue.offer(first);
+    queue.offer(second);
+    applySubmitted();
+
+    assertEquals(List.of(journeyOf(second)), applied);
+  }
+
+  @Test
+  void keepJourneyFollowedByPartialJourney() throws InterruptedException {
+    var complete = journey("J1", true);
+    var partial = journey("J1", false);
+
+    queue.offer(complete);
+    queue.offer(partial);
+    applySubmitted();
+
+    assertEquals(List.of(journeyOf(complete), journeyOf(partial)), applied);
+  }
+
+  @Test
+  void keepAllPartialJourneys() throws InterruptedException {
+    var first = journey("J1", false);
+    var second = journey("J1", false);
+
+    queue.offer(first);
+    queue.offer(second);
+    applySubmitted();
+
+    assertEquals(List.of(journeyOf(first), journeyOf(second)), applied);
+  }
+
+  private static List<EstimatedTimetableDeliveryStructure> journey(
+    String datedVehicleJourneyRef,
+    boolean isCompleteStopSequence
+  ) {
+    return new SiriEtBuilder(DATE_TIME_HELPER)
+      .withDatedVehicleJourneyRef(datedVehicleJourneyRef)
+      .withIsCompleteStopSequence(isCompleteStopSequence)
+      .buildEstimatedTimetableDeliveries();
+  }
+
+  private static EstimatedVehicleJourney journeyOf(
+    List<EstimatedTimetableDeliveryStructure> deliveries
+  ) {
+    return deliveries
+      .getFirst()
+      .getEstimatedJourneyVersionFrames()
+      .getFirst()
+      .getEstimatedVehicleJourneies()
+      .getFirst();
+  }
+
+  private void applySubmitted() {
+    assertEquals(1, submitted.size());
+    submitted.removeFirst().run(null);
+  }
+}
@@ -1,7 +1,10 @@
 package org.opentripplanner.ext.siri.updater;
 
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Future;
 import java.util.function.Consumer;
+import org.opentripplanner.updater.GraphUpdaterMetrics;
+import org.opentripplanner.updater.UpdateQueueParameters;
 import org.opentripplanner.updater.spi.UpdateResult;
 import org.opentripplanner.updater.spi.WriteToGraphCallback;
 import org.opentripplanner.updater.trip.UpdateIncrementality;
@@ -9,22 +12,38 @@ import uk.org.siri.siri20.ServiceDelivery;
 
 /**
  * Apply asynchronously estimated timetable updates in the graph-writer thread and forward the
- * result to an update result consumer.
+ * result to an update result consumer. Journeys received while the graph writer is busy are
+ * coalesced, see {@link EstimatedTimetableUpdateQueue}.
  */
 public class AsyncEstimatedTimetableProcessor {
 
-  private final EstimatedTimetableHandler estimatedTimetableHandler;
-  private final WriteToGraphCallback saveResultOnGraph;
-  private final Consumer<UpdateResult> updateResultConsumer;
+  private final EstimatedTimetableUpdateQueue updateQueue;
+  private final GraphUpdaterMetrics metrics;
 
   public AsyncEstimatedTimetableProcessor(
+    String configRef,
+    Class<?> updaterType,
+    UpdateQueueParameters updateQueueParameters,
     EstimatedTimetableHandler estimatedTimetableHandler,
     WriteToGraphCallback saveResultOnGraph,
     Consumer<UpdateResult> updateResultConsumer
   ) {
-    this.estimatedTimetableHandler = estimatedTimetableHandler;
-    this.saveResultOnGraph = saveResultOnGraph;
-    this.updateResultConsumer = updateResultConsumer;
+    this.updateQueue =
+      new EstimatedTimetableUpdateQueue(
+        configRef,
+        updaterType,
+        updateQueueParameters,
+        saveResultOnGraph,
+        (deliveries, context) ->
+          updateResultConsumer.accept(
+            estimatedTimetableHandler.applyUpdate(
+              deliveries,
+              UpdateIncrementality.DIFFERENTIAL,
+              context
+            )
+          )
+      );
+    this.metrics = GraphUpdaterMetrics.of(configRef, updaterType);
   }
 
   /**
@@ -33,14 +52,21 @@ public class AsyncEstimatedTimetableProcessor {
    * @return a future indicating when the changes are applied.
    */
   public Future<?> processSiriData(ServiceDelivery serviceDelivery) {
-    return saveResultOnGraph.execute(context ->
-      updateResultConsumer.accept(
-        estimatedTimetableHandler.applyUpdate(
-          serviceDelivery.getEstimatedTimetableDeliveries(),
-          UpdateIncrementality.DIFFERENTIAL,
-          context
-        )
-      )
-    );
+    if (serviceDelivery.getResponseTimestamp() != null) {
+      metrics.recordReceiveLag(serviceDelivery.getResponseTimestamp().toInstant());
+    }
+    try {
+      return updateQueue.offer(serviceDelivery.getEstimatedTimetableDeliveries());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return CompletableFuture.completedFuture(null);
+    }
+  }
+
+  /**
+   * Remove the metrics of the update queue, when the updater is torn down.
+   */
+  public void close() {
+    updateQueue.close();
   }
 }
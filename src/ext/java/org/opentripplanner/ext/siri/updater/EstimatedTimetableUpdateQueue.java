@@ -0,0 +1,124 @@
+package org.opentripplanner.ext.siri.updater;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Future;
+import java.util.function.BiConsumer;
+import javax.annotation.Nullable;
+import org.opentripplanner.updater.CoalescingUpdateQueue;
+import org.opentripplanner.updater.RealTimeUpdateContext;
+import org.opentripplanner.updater.UpdateQueueParameters;
+import org.opentripplanner.updater.spi.WriteToGraphCallback;
+import uk.org.siri.siri20.EstimatedTimetableDeliveryStructure;
+import uk.org.siri.siri20.EstimatedVehicleJourney;
+import uk.org.siri.siri20.EstimatedVersionFrameStructure;
+
+/**
+ * Collects the estimated vehicle journeys of streamed SIRI-ET messages until the graph writer
+ * thread is ready for them.
+ * <p>
+ * A journey is only replaced by a later version if the later version has a complete stop
+ * sequence. A journey without a complete stop sequence may leave out calls, for example the
+ * recorded calls at the start of the journey, and the times already applied for those stops are
+ * then kept. Dropping the earlier version would lose them, so such journeys are applied in the
+ * order they are received.
+ *
+ * @see CoalescingUpdateQueue
+ */
+public class EstimatedTimetableUpdateQueue {
+
+  private final CoalescingUpdateQueue<EstimatedVehicleJourney> queue;
+
+  /**
+   * @param name    the config reference of the updater, see {@link CoalescingUpdateQueue}
+   * @param applier applies the collected journeys in the graph writer thread, they are passed on
+   *                in a single delivery
+   */
+  public EstimatedTimetableUpdateQueue(
+    @Nullable String name,
+    Class<?> updaterType,
+    UpdateQueueParameters parameters,
+    WriteToGraphCallback writeToGraphCallback,
+    BiConsumer<List<EstimatedTimetableDeliveryStructure>, RealTimeUpdateContext> applier
+  ) {
+    this.queue =
+      new CoalescingUpdateQueue<>(
+        name,
+        updaterType,
+        parameters,
+        EstimatedTimetableUpdateQueue::journeyKey,
+        writeToGraphCallback,
+        (journeys, fullDataset, context) -> applier.accept(List.of(delivery(journeys)), context)
+      );
+  }
+
+  /**
+   * Add the journeys of the deliveries to the queue.
+   *
+   * @return a future which is completed when the journeys have been applied
+   */
+  public Future<?> offer(List<EstimatedTimetableDeliveryStructure> deliveries)
+    throws InterruptedException {
+    List<EstimatedVehicleJourney> journeys = new ArrayList<>();
+    for (var delivery : deliveries) {
+      for (var frame : delivery.getEstimatedJourneyVersionFrames()) {
+        journeys.addAll(frame.getEstimatedVehicleJourneies());
+      }
+    }
+    return queue.offer(journeys, false);
+  }
+
+  /**
+   * @see CoalescingUpdateQueue#close()
+   */
+  public void close() {
+    queue.close();
+  }
+
+  private static EstimatedTimetableDeliveryStructure delivery(
+    List<EstimatedVehicleJourney> journeys
+  ) {
+    var frame = new EstimatedVersionFrameStructure();
+    frame.getEstimatedVehicleJourneies().addAll(journeys);
+    var delivery = new EstimatedTimetableDeliveryStructure();
+    delivery.getEstimatedJourneyVersionFrames().add(frame);
+    return delivery;
+  }
+
+  /**
+   * The references used to identify the journey, or null if the journey should not replace an
+   * earlier version of it. Journeys without any of the references are never coalesced.
+   */
+  @Nullable
+  private static Object journeyKey(EstimatedVehicleJourney journey) {
+    if (!Boolean.TRUE.equals(journey.isIsCompleteStopSequence())) {
+      return null;
+    }
+    var framedRef = journey.getFramedVehicleJourneyRef();
+    var datedRef = journey.getDatedVehicleJourneyRef();
+    var key = new JourneyKey(
+      framedRef == null || framedRef.getDataFrameRef() == null
+        ? null
+        : framedRef.getDataFrameRef().getValue(),
+      framedRef == null ? null : framedRef.getDatedVehicleJourneyRef(),
+      datedRef == null ? null : datedRef.getValue(),
+      journey.getEstimatedVehicleJourneyCode()
+    );
+    return key.isEmpty() ? null : key;
+  }
+
+  private record JourneyKey(
+    String dataFrameRef,
+    String framedDatedVehicleJourneyRef,
+    String datedVehicleJourneyRef,
+    String estimatedVehicleJourneyCode
+  ) {
+    boolean isEmpty() {
+      return (
+        framedDatedVehicleJourneyRef == null &&
+        datedVehicleJourneyRef == null &&
+        estimatedVehicleJourneyCode == null
+      );
+    }
+  }
+}
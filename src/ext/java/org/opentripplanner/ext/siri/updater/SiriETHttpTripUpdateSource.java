@@ -9,6 +9,7 @@ import java.util.Optional;
 import java.util.UUID;
 import javax.annotation.Nullable;
 import org.opentripplanner.framework.io.OtpHttpClientException;
+import org.opentripplanner.updater.GraphUpdaterMetrics;
 import org.opentripplanner.updater.spi.HttpHeaders;
 import org.opentripplanner.updater.trip.UpdateIncrementality;
 import org.slf4j.Logger;
@@ -28,6 +29,7 @@ public class SiriETHttpTripUpdateSource implements EstimatedTimetableSource {
 
   private final SiriLoader siriLoader;
   private final String requestorRef;
+  private final GraphUpdaterMetrics metrics;
 
   /**
    * The incrementality of the last received collection of updates.
@@ -44,7 +46,8 @@ public class SiriETHttpTripUpdateSource implements EstimatedTimetableSource {
         ? "otp-" + UUID.randomUUID()
         : parameters.requestorRef();
 
-    this.siriLoader = createLoader(url, parameters);
+    this.metrics = GraphUpdaterMetrics.of(parameters.configRef(), SiriETUpdater.class);
+    this.siriLoader = createLoader(url, parameters, metrics);
   }
 
   @Override
@@ -62,6 +65,7 @@ public class SiriETHttpTripUpdateSource implements EstimatedTimetableSource {
         return Optional.empty();
       }
       lastTimestamp = serviceDelivery.getResponseTimestamp();
+      metrics.recordReceiveLag(lastTimestamp.toInstant());
 
       //All subsequent requests will return changes since last request
       updateIncrementality = DIFFERENTIAL;
@@ -90,7 +94,11 @@ public class SiriETHttpTripUpdateSource implements EstimatedTimetableSource {
     return "SiriETHttpTripUpdateSource(" + url + ")";
   }
 
-  private static SiriLoader createLoader(String url, Parameters parameters) {
+  private static SiriLoader createLoader(
+    String url,
+    Parameters parameters,
+    GraphUpdaterMetrics metrics
+  ) {
     // Load real-time updates from a file.
     if (SiriFileLoader.matchesUrl(url)) {
       return new SiriFileLoader(url);
@@ -101,12 +109,15 @@ public class SiriETHttpTripUpdateSource implements EstimatedTimetableSource {
         url,
         parameters.timeout(),
         parameters.httpRequestHeaders(),
-        parameters.previewInterval()
+        parameters.previewInterval(),
+        metrics
       );
     }
   }
 
   public interface Parameters {
+    String configRef();
+
     String url();
 
     String requestorRef();
@@ -1,10 +1,13 @@
 package org.opentripplanner.ext.siri.updater;
 
+import com.google.common.io.CountingInputStream;
 import jakarta.xml.bind.JAXBException;
 import java.time.Duration;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 import org.opentripplanner.framework.io.OtpHttpClient;
 import org.opentripplanner.framework.io.OtpHttpClientFactory;
+import org.opentripplanner.updater.GraphUpdaterMetrics;
 import org.opentripplanner.updater.spi.HttpHeaders;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -21,21 +24,29 @@ public class SiriHttpLoader implements SiriLoader {
   private final Duration timeout;
   private final Duration previewInterval;
   private final OtpHttpClient otpHttpClient;
+  private final GraphUpdaterMetrics metrics;
 
-  public SiriHttpLoader(String url, Duration timeout, HttpHeaders requestHeaders) {
-    this(url, timeout, requestHeaders, null);
+  public SiriHttpLoader(
+    String url,
+    Duration timeout,
+    HttpHeaders requestHeaders,
+    GraphUpdaterMetrics metrics
+  ) {
+    this(url, timeout, requestHeaders, null, metrics);
   }
 
   public SiriHttpLoader(
     String url,
     Duration timeout,
     HttpHeaders requestHeaders,
-    Duration previewInterval
+    Duration previewInterval,
+    GraphUpdaterMetrics metrics
   ) {
     this.url = url;
     this.timeout = timeout;
     this.requestHeaders = requestHeaders;
     this.previewInterval = previewInterval;
+    this.metrics = metrics;
     this.otpHttpClient = new OtpHttpClientFactory(timeout, timeout).create(LOG);
   }
 
@@ -76,8 +87,12 @@ public class SiriHttpLoader implements SiriLoader {
         requestHeaders.asMap(),
         is -> {
           requestTimer.responseFetched();
-          Siri siri = SiriHelper.unmarshal(is);
+          var countingStream = new CountingInputStream(is);
+          Siri siri = SiriHelper.unmarshal(countingStream);
           requestTimer.responseUnmarshalled();
+          metrics.recordFetch(TimeUnit.MILLISECONDS.toNanos(requestTimer.fetching()));
+          metrics.recordParse(TimeUnit.MILLISECONDS.toNanos(requestTimer.unmarshalling()));
+          metrics.recordPayload(countingStream.getCount());
           return Optional.of(siri);
         }
       );
@@ -11,6 +11,7 @@ import org.opentripplanner.framework.retry.OtpRetryBuilder;
 import org.opentripplanner.routing.impl.TransitAlertServiceImpl;
 import org.opentripplanner.routing.services.TransitAlertService;
 import org.opentripplanner.transit.service.TransitModel;
+import org.opentripplanner.updater.GraphUpdaterMetrics;
 import org.opentripplanner.updater.alert.TransitAlertProvider;
 import org.opentripplanner.updater.spi.PollingGraphUpdater;
 import org.opentripplanner.updater.spi.WriteToGraphCallback;
@@ -42,6 +43,7 @@ public class SiriSXUpdater extends PollingGraphUpdater implements TransitAlertPr
   private int retryCount = 0;
   private final SiriHttpLoader siriHttpLoader;
   private final OtpRetry retry;
+  private final GraphUpdaterMetrics metrics;
 
   public SiriSXUpdater(SiriSXUpdaterParameters config, TransitModel transitModel) {
     super(config);
@@ -59,7 +61,8 @@ public class SiriSXUpdater extends PollingGraphUpdater implements TransitAlertPr
     this.transitAlertService = new TransitAlertServiceImpl(transitModel);
     this.updateHandler =
       new SiriAlertsUpdateHandler(config.feedId(), transitAlertService, config.earlyStart());
-    siriHttpLoader = new SiriHttpLoader(url, config.timeout(), config.requestHeaders());
+    this.metrics = GraphUpdaterMetrics.of(config.configRef(), SiriSXUpdater.class);
+    siriHttpLoader = new SiriHttpLoader(url, config.timeout(), config.requestHeaders(), metrics);
 
     retry =
       new OtpRetryBuilder()
@@ -172,6 +175,7 @@ public class SiriSXUpdater extends PollingGraphUpdater implements TransitAlertPr
       }
 
       lastTimestamp = responseTimestamp;
+      metrics.recordReceiveLag(responseTimestamp.toInstant());
       return siri;
     } catch (OtpHttpClientException e) {
       LOG.info(
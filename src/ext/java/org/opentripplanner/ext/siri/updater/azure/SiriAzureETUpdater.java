@@ -16,8 +16,12 @@ import java.util.function.Consumer;
 import javax.xml.stream.XMLStreamException;
 import org.apache.hc.core5.net.URIBuilder;
 import org.opentripplanner.ext.siri.SiriTimetableSnapshotSource;
+import org.opentripplanner.ext.siri.updater.EstimatedTimetableUpdateQueue;
+import org.opentripplanner.updater.RealTimeUpdateContext;
+import org.opentripplanner.updater.UpdateQueueParameters;
 import org.opentripplanner.updater.spi.ResultLogger;
 import org.opentripplanner.updater.spi.UpdateResult;
+import org.opentripplanner.updater.spi.WriteToGraphCallback;
 import org.opentripplanner.updater.trip.UpdateIncrementality;
 import org.opentripplanner.updater.trip.metrics.TripUpdateMetrics;
 import org.rutebanken.siri20.util.SiriXml;
@@ -36,6 +40,9 @@ public class SiriAzureETUpdater extends AbstractAzureSiriUpdater {
   private final SiriTimetableSnapshotSource snapshotSource;
 
   private final Consumer<UpdateResult> recordMetrics;
+  private final UpdateQueueParameters updateQueueParameters;
+
+  private EstimatedTimetableUpdateQueue updateQueue;
 
   public SiriAzureETUpdater(
     SiriAzureETUpdaterParameters config,
@@ -45,6 +52,27 @@ public class SiriAzureETUpdater extends AbstractAzureSiriUpdater {
     this.fromDateTime = config.getFromDateTime();
     this.snapshotSource = snapshotSource;
     this.recordMetrics = TripUpdateMetrics.streaming(config);
+    this.updateQueueParameters = config.getUpdateQueue();
+  }
+
+  @Override
+  public void setup(WriteToGraphCallback writeToGraphCallback) {
+    super.setup(writeToGraphCallback);
+    this.updateQueue =
+      new EstimatedTimetableUpdateQueue(
+        getConfigRef(),
+        SiriAzureETUpdater.class,
+        updateQueueParameters,
+        writeToGraphCallback,
+        this::applyUpdates
+      );
+  }
+
+  @Override
+  public void teardown() {
+    if (updateQueue != null) {
+      updateQueue.close();
+    }
   }
 
   @Override
@@ -59,10 +87,12 @@ public class SiriAzureETUpdater extends AbstractAzureSiriUpdater {
     try {
       var updates = parseSiriEt(message.getBody().toString(), message.getMessageId());
       if (!updates.isEmpty()) {
-        processMessage(updates);
+        updateQueue.offer(updates);
       }
     } catch (JAXBException | XMLStreamException e) {
       LOG.error(e.getLocalizedMessage(), e);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
     }
   }
 
@@ -96,17 +126,22 @@ public class SiriAzureETUpdater extends AbstractAzureSiriUpdater {
   }
 
   private Future<?> processMessage(List<EstimatedTimetableDeliveryStructure> updates) {
-    return super.saveResultOnGraph.execute(context -> {
-      var result = snapshotSource.applyEstimatedTimetable(
-        fuzzyTripMatching() ? context.siriFuzzyTripMatcher() : null,
-        context.entityResolver(feedId),
-        feedId,
-        UpdateIncrementality.DIFFERENTIAL,
-        updates
-      );
-      ResultLogger.logUpdateResultErrors(feedId, "siri-et", result);
-      recordMetrics.accept(result);
-    });
+    return super.saveResultOnGraph.execute(context -> applyUpdates(updates, context));
+  }
+
+  private void applyUpdates(
+    List<EstimatedTimetableDeliveryStructure> updates,
+    RealTimeUpdateContext context
+  ) {
+    var result = snapshotSource.applyEstimatedTimetable(
+      fuzzyTripMatching() ? context.siriFuzzyTripMatcher() : null,
+      context.entityResolver(feedId),
+      feedId,
+      UpdateIncrementality.DIFFERENTIAL,
+      updates
+    );
+    ResultLogger.logUpdateResultErrors(feedId, "siri-et", result);
+    recordMetrics.accept(result);
   }
 
   private void processHistory(ServiceDelivery siri) {
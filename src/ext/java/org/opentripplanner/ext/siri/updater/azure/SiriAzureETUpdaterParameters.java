@@ -2,6 +2,7 @@ package org.opentripplanner.ext.siri.updater.azure;
 
 import com.azure.core.amqp.implementation.ConnectionStringProperties;
 import java.time.LocalDate;
+import org.opentripplanner.updater.UpdateQueueParameters;
 import org.opentripplanner.updater.trip.UrlUpdaterParameters;
 
 public class SiriAzureETUpdaterParameters
@@ -9,6 +10,7 @@ public class SiriAzureETUpdaterParameters
   implements UrlUpdaterParameters {
 
   private LocalDate fromDateTime;
+  private UpdateQueueParameters updateQueue = UpdateQueueParameters.DEFAULT;
 
   public SiriAzureETUpdaterParameters() {
     super("siri-azure-et-updater");
@@ -22,6 +24,14 @@ public class SiriAzureETUpdaterParameters
     this.fromDateTime = fromDateTime;
   }
 
+  public UpdateQueueParameters getUpdateQueue() {
+    return updateQueue;
+  }
+
+  public void setUpdateQueue(UpdateQueueParameters updateQueue) {
+    this.updateQueue = updateQueue;
+  }
+
   @Override
   public String url() {
     var url = getServiceBusUrl();
@@ -5,6 +5,7 @@ import org.opentripplanner.ext.siri.SiriTimetableSnapshotSource;
 import org.opentripplanner.ext.siri.updater.AsyncEstimatedTimetableProcessor;
 import org.opentripplanner.ext.siri.updater.AsyncEstimatedTimetableSource;
 import org.opentripplanner.ext.siri.updater.EstimatedTimetableHandler;
+import org.opentripplanner.updater.UpdateQueueParameters;
 import org.opentripplanner.updater.spi.GraphUpdater;
 import org.opentripplanner.updater.spi.UpdateResult;
 import org.opentripplanner.updater.spi.WriteToGraphCallback;
@@ -21,7 +22,9 @@ public class SiriETGooglePubsubUpdater implements GraphUpdater {
   private final AsyncEstimatedTimetableSource asyncEstimatedTimetableSource;
   private final EstimatedTimetableHandler estimatedTimetableHandler;
   private final Consumer<UpdateResult> updateResultConsumer;
+  private final UpdateQueueParameters updateQueueParameters;
   private WriteToGraphCallback saveResultOnGraph;
+  private AsyncEstimatedTimetableProcessor asyncEstimatedTimetableProcessor;
 
   public SiriETGooglePubsubUpdater(
     SiriETGooglePubsubUpdaterParameters config,
@@ -47,6 +50,7 @@ public class SiriETGooglePubsubUpdater implements GraphUpdater {
       );
 
     updateResultConsumer = TripUpdateMetrics.streaming(config);
+    updateQueueParameters = config.updateQueue();
   }
 
   @Override
@@ -56,14 +60,25 @@ public class SiriETGooglePubsubUpdater implements GraphUpdater {
 
   @Override
   public void run() {
-    AsyncEstimatedTimetableProcessor asyncEstimatedTimetableProcessor = new AsyncEstimatedTimetableProcessor(
-      estimatedTimetableHandler,
-      saveResultOnGraph,
-      updateResultConsumer
-    );
+    asyncEstimatedTimetableProcessor =
+      new AsyncEstimatedTimetableProcessor(
+        configRef,
+        SiriETGooglePubsubUpdater.class,
+        updateQueueParameters,
+        estimatedTimetableHandler,
+        saveResultOnGraph,
+        updateResultConsumer
+      );
     asyncEstimatedTimetableSource.start(asyncEstimatedTimetableProcessor::processSiriData);
   }
 
+  @Override
+  public void teardown() {
+    if (asyncEstimatedTimetableProcessor != null) {
+      asyncEstimatedTimetableProcessor.close();
+    }
+  }
+
   @Override
   public boolean isPrimed() {
     return asyncEstimatedTimetableSource.isPrimed();
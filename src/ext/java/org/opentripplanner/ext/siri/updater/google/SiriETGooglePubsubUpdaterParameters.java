@@ -5,6 +5,7 @@ import java.util.Objects;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import org.opentripplanner.framework.tostring.ToStringBuilder;
+import org.opentripplanner.updater.UpdateQueueParameters;
 import org.opentripplanner.updater.trip.UrlUpdaterParameters;
 
 public record SiriETGooglePubsubUpdaterParameters(
@@ -16,7 +17,8 @@ public record SiriETGooglePubsubUpdaterParameters(
   @Nullable String dataInitializationUrl,
   Duration reconnectPeriod,
   Duration initialGetDataTimeout,
-  boolean fuzzyTripMatching
+  boolean fuzzyTripMatching,
+  UpdateQueueParameters updateQueue
 )
   implements UrlUpdaterParameters {
   public static Duration RECONNECT_PERIOD = Duration.ofSeconds(30);
@@ -29,6 +31,7 @@ public record SiriETGooglePubsubUpdaterParameters(
     Objects.requireNonNull(reconnectPeriod);
     Objects.requireNonNull(initialGetDataTimeout);
     Objects.requireNonNull(reconnectPeriod);
+    Objects.requireNonNull(updateQueue);
   }
 
   @Override
@@ -44,6 +47,7 @@ public record SiriETGooglePubsubUpdaterParameters(
       .addDuration("initialGetDataTimeout", initialGetDataTimeout, INITIAL_GET_DATA_TIMEOUT)
       .addBoolIfTrue("fuzzyTripMatching", fuzzyTripMatching)
       .addObj("dataInitializationUrl", dataInitializationUrl, null)
+      .addObj("updateQueue", updateQueue, UpdateQueueParameters.DEFAULT)
       .toString();
   }
 
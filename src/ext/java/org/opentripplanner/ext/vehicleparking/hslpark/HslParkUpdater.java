@@ -4,6 +4,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
 import org.opentripplanner.framework.io.JsonDataListDownloader;
+import org.opentripplanner.framework.io.OtpHttpClientException;
 import org.opentripplanner.framework.io.OtpHttpClientFactory;
 import org.opentripplanner.model.calendar.openinghours.OpeningHoursCalendarService;
 import org.opentripplanner.routing.vehicle_parking.VehicleParking;
@@ -29,7 +30,7 @@ public class HslParkUpdater implements DataSource<VehicleParking> {
   private final HslFacilitiesDownloader facilitiesDownloader;
   private final int facilitiesFrequencySec;
   private final HslHubsDownloader hubsDownloader;
-  private final JsonDataListDownloader utilizationsDownloader;
+  private final JsonDataListDownloader<HslParkPatch> utilizationsDownloader;
   private final HslParkToVehicleParkingMapper vehicleParkingMapper;
   private final HslHubToVehicleParkingGroupMapper vehicleParkingGroupMapper;
   private final HslParkUtilizationToPatchMapper parkPatchMapper;
@@ -78,7 +79,8 @@ public class HslParkUpdater implements DataSource<VehicleParking> {
    * Update the data from the sources. It first fetches parks from the facilities URL and park
    * groups from hubs URL and then real-time updates from utilizations URL. If facilitiesFrequencySec
    * is configured to be over 0, it also occasionally retches the parks as new parks might have been
-   * added or the state of the old parks might have changed.
+   * added or the state of the old parks might have changed. The utilizations of parks which were
+   * fetched before are only applied again if they have been modified since the last update.
    *
    * @return true if there might have been changes
    */
@@ -99,7 +101,22 @@ public class HslParkUpdater implements DataSource<VehicleParking> {
       hubForPark = this.hubForPark;
     }
     if (parks != null) {
-      List<HslParkPatch> utilizations = utilizationsDownloader.download();
+      List<HslParkPatch> utilizations;
+      if (parks == this.parks) {
+        // The current parks already have the last utilizations, skip them if nothing has changed
+        try {
+          var modified = utilizationsDownloader.downloadIfModified();
+          if (modified.isEmpty()) {
+            return false;
+          }
+          utilizations = modified.get();
+        } catch (OtpHttpClientException e) {
+          LOG.warn("Failed to get park utilizations", e);
+          utilizations = null;
+        }
+      } else {
+        utilizations = utilizationsDownloader.download();
+      }
       if (utilizations != null) {
         Map<FeedScopedId, List<HslParkPatch>> patches = utilizations
           .stream()
@@ -43,24 +43,33 @@ public class SiriFmDatasource implements DataSource<AvailabiltyUpdate> {
       .toString();
   }
 
+  /**
+   * Fetch the availabilities, unless they have not been modified since the last update.
+   *
+   * @return true if there are new availabilities
+   */
   @Override
   public boolean update() {
-    updates =
-      httpClient.getAndMap(
-        params.url(),
-        headers,
-        resp -> {
-          var siri = SiriXml.parseXml(resp);
+    var result = httpClient.getAndMapIfModified(
+      params.url(),
+      headers,
+      resp -> {
+        var siri = SiriXml.parseXml(resp);
 
-          return Stream
-            .ofNullable(siri.getServiceDelivery())
-            .flatMap(sd -> sd.getFacilityMonitoringDeliveries().stream())
-            .flatMap(d -> d.getFacilityConditions().stream())
-            .filter(this::conformsToItalianProfile)
-            .map(this::mapToUpdate)
-            .toList();
-        }
-      );
+        return Stream
+          .ofNullable(siri.getServiceDelivery())
+          .flatMap(sd -> sd.getFacilityMonitoringDeliveries().stream())
+          .flatMap(d -> d.getFacilityConditions().stream())
+          .filter(this::conformsToItalianProfile)
+          .map(this::mapToUpdate)
+          .toList();
+      }
+    );
+    if (result.isEmpty()) {
+      LOG.debug("SIRI-FM data from {} has not been modified", params.url());
+      return false;
+    }
+    updates = result.get();
     return true;
   }
 
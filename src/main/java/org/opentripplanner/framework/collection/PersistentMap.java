@@ -0,0 +1,415 @@
+package org.opentripplanner.framework.collection;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Predicate;
+import javax.annotation.Nullable;
+
+/**
+ * An immutable hash map where adding or removing an entry returns a new map, sharing all the
+ * unchanged parts with the original. This is a hash array mapped trie (HAMT): the entries are
+ * stored in a tree of nodes with up to 32 children each, picked by 5 bits of the hash code at
+ * each level. Adding or removing an entry copies only the nodes on the path to the entry, so the
+ * cost is proportional to the depth of the tree, not to the size of the map.
+ * <p>
+ * Use this instead of copying a big map, for example with {@link java.util.Map#copyOf}, each time
+ * a read-only version is published while only a few entries change in between.
+ * <p>
+ * The map implements the read-only part of the {@link java.util.Map} interface. Null keys and
+ * values are not allowed. The iteration order is unspecified, but stable for a given map.
+ */
+public final class PersistentMap<K, V> extends AbstractMap<K, V> {
+
+  private static final int BITS = 5;
+  private static final int MASK = (1 << BITS) - 1;
+
+  /** The 7 levels of bitmap nodes needed to use all 32 bits of the hash, plus a collision node */
+  private static final int MAX_DEPTH = 8;
+
+  private static final BitmapNode EMPTY_NODE = new BitmapNode(0, new Object[0]);
+  private static final PersistentMap<?, ?> EMPTY = new PersistentMap<>(EMPTY_NODE, 0);
+
+  private final Node root;
+  private final int size;
+
+  private PersistentMap(Node root, int size) {
+    this.root = root;
+    this.size = size;
+  }
+
+  @SuppressWarnings("unchecked")
+  public static <K, V> PersistentMap<K, V> of() {
+    return (PersistentMap<K, V>) EMPTY;
+  }
+
+  /**
+   * @return a map with the given entry added, or replacing the existing entry for the key. The
+   * same map is returned if it already contains the same value instance for the key.
+   */
+  public PersistentMap<K, V> with(K key, V value) {
+    Objects.requireNonNull(key);
+    Objects.requireNonNull(value);
+    int hash = hash(key);
+    var existing = root.find(key, hash, 0);
+    if (existing != null && existing.getValue() == value) {
+      return this;
+    }
+    var newRoot = root.with(new Leaf<>(key, value, hash), 0);
+    return new PersistentMap<>(newRoot, existing == null ? size + 1 : size);
+  }
+
+  /**
+   * @return a map without the entry for the given key, or the same map if there is no such entry
+   */
+  public PersistentMap<K, V> without(Object key) {
+    int hash = hash(key);
+    if (root.find(key, hash, 0) == null) {
+      return this;
+    }
+    var newRoot = root.without(key, hash, 0);
+    return new PersistentMap<>(newRoot == null ? EMPTY_NODE : newRoot, size - 1);
+  }
+
+  /**
+   * @return a map without the entries for the keys matching the predicate. This needs to visit
+   * all entries, so the cost is proportional to the size of the map.
+   */
+  public PersistentMap<K, V> withoutKeys(Predicate<? super K> predicate) {
+    List<K> keys = new ArrayList<>();
+    for (K key : keySet()) {
+      if (predicate.test(key)) {
+        keys.add(key);
+      }
+    }
+    var result = this;
+    for (K key : keys) {
+      result = result.without(key);
+    }
+    return result;
+  }
+
+  @Override
+  @Nullable
+  public V get(Object key) {
+    if (key == null) {
+      return null;
+    }
+    Leaf<K, V> leaf = root.find(key, hash(key), 0);
+    return leaf == null ? null : leaf.getValue();
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    return key != null && root.find(key, hash(key), 0) != null;
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  @Override
+  public Set<Entry<K, V>> entrySet() {
+    return new AbstractSet<>() {
+      @Override
+      public Iterator<Entry<K, V>> iterator() {
+        return new EntryIterator<>(root);
+      }
+
+      @Override
+      public int size() {
+        return size;
+      }
+    };
+  }
+
+  private static int hash(Object key) {
+    return key.hashCode();
+  }
+
+  /** The bit for the 5 bits of the hash used at the given level, in the bitmap of a node */
+  private static int bit(int hash, int shift) {
+    return 1 << ((hash >>> shift) & MASK);
+  }
+
+  /**
+   * A node of the trie. The children are leaves or other nodes.
+   */
+  private abstract static sealed class Node permits BitmapNode, CollisionNode {
+
+    @Nullable
+    abstract <K, V> Leaf<K, V> find(Object key, int hash, int shift);
+
+    abstract Node with(Leaf<?, ?> leaf, int shift);
+
+    /**
+     * @return the node without the key, or null if the node would be empty. The caller must
+     * check that the key exists.
+     */
+    @Nullable
+    abstract Node without(Object key, int hash, int shift);
+
+    abstract Object[] children();
+
+    /**
+     * @return the leaf if this is the only child of the node, the node can then be replaced by
+     * the leaf in its parent.
+     */
+    @Nullable
+    Leaf<?, ?> singleLeaf() {
+      var children = children();
+      return children.length == 1 && children[0] instanceof Leaf<?, ?> leaf ? leaf : null;
+    }
+  }
+
+  /**
+   * A node with one slot for each bit set in the bitmap, in the order of the bits.
+   */
+  private static final class BitmapNode extends Node {
+
+    private final int bitmap;
+    private final Object[] children;
+
+    private BitmapNode(int bitmap, Object[] children) {
+      this.bitmap = bitmap;
+      this.children = children;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    <K, V> Leaf<K, V> find(Object key, int hash, int shift) {
+      int bit = bit(hash, shift);
+      if ((bitmap & bit) == 0) {
+        return null;
+      }
+      Object child = children[index(bit)];
+      if (child instanceof Leaf<?, ?> leaf) {
+        return leaf.matches(key, hash) ? (Leaf<K, V>) leaf : null;
+      }
+      return ((Node) child).find(key, hash, shift + BITS);
+    }
+
+    @Override
+    Node with(Leaf<?, ?> leaf, int shift) {
+      int bit = bit(leaf.hash, shift);
+      int index = index(bit);
+      if ((bitmap & bit) == 0) {
+        var newChildren = new Object[children.length + 1];
+        System.arraycopy(children, 0, newChildren, 0, index);
+        newChildren[index] = leaf;
+        System.arraycopy(children, index, newChildren, index + 1, children.length - index);
+        return new BitmapNode(bitmap | bit, newChildren);
+      }
+      Object child = children[index];
+      Object newChild;
+      if (child instanceof Leaf<?, ?> existing) {
+        newChild =
+          existing.matches(leaf.getKey(), leaf.hash) ? leaf : merge(existing, leaf, shift + BITS);
+      } else {
+        newChild = ((Node) child).with(leaf, shift + BITS);
+      }
+      return replace(index, newChild);
+    }
+
+    @Override
+    Node without(Object key, int hash, int shift) {
+      int bit = bit(hash, shift);
+      int index = index(bit);
+      Object child = children[index];
+      if (child instanceof Node node) {
+        var newNode = node.without(key, hash, shift + BITS);
+        if (newNode != null) {
+          var leaf = newNode.singleLeaf();
+          return replace(index, leaf == null ? newNode : leaf);
+        }
+      }
+      if (children.length == 1) {
+        return null;
+      }
+      var newChildren = new Object[children.length - 1];
+      System.arraycopy(children, 0, newChildren, 0, index);
+      System.arraycopy(children, index + 1, newChildren, index, newChildren.length - index);
+      return new BitmapNode(bitmap & ~bit, newChildren);
+    }
+
+    @Override
+    Object[] children() {
+      return children;
+    }
+
+    private int index(int bit) {
+      return Integer.bitCount(bitmap & (bit - 1));
+    }
+
+    private BitmapNode replace(int index, Object child) {
+      var newChildren = children.clone();
+      newChildren[index] = child;
+      return new BitmapNode(bitmap, newChildren);
+    }
+
+    /**
+     * Create a node holding two leaves with different keys, which share the same slot in the
+     * parent node.
+     */
+    private static Node merge(Leaf<?, ?> a, Leaf<?, ?> b, int shift) {
+      if (a.hash == b.hash) {
+        return new CollisionNode(a.hash, new Object[] { a, b });
+      }
+      int bitA = bit(a.hash, shift);
+      int bitB = bit(b.hash, shift);
+      if (bitA == bitB) {
+        return new BitmapNode(bitA, new Object[] { merge(a, b, shift + BITS) });
+      }
+      var children = Integer.compareUnsigned(bitA, bitB) < 0
+        ? new Object[] { a, b }
+        : new Object[] { b, a };
+      return new BitmapNode(bitA | bitB, children);
+    }
+  }
+
+  /**
+   * A node with the leaves for keys with the same hash code.
+   */
+  private static final class CollisionNode extends Node {
+
+    private final int hash;
+    private final Object[] leaves;
+
+    private CollisionNode(int hash, Object[] leaves) {
+      this.hash = hash;
+      this.leaves = leaves;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    <K, V> Leaf<K, V> find(Object key, int hash, int shift) {
+      if (hash != this.hash) {
+        return null;
+      }
+      int index = indexOf(key);
+      return index == leaves.length ? null : (Leaf<K, V>) leaves[index];
+    }
+
+    @Override
+    Node with(Leaf<?, ?> leaf, int shift) {
+      if (leaf.hash != hash) {
+        // The new key ends up in a sibling of this node, in a new node at the same level
+        return new BitmapNode(bit(hash, shift), new Object[] { this }).with(leaf, shift);
+      }
+      int index = indexOf(leaf.getKey());
+      Object[] newLeaves;
+      if (index == leaves.length) {
+        newLeaves = new Object[leaves.length + 1];
+        System.arraycopy(leaves, 0, newLeaves, 0, leaves.length);
+      } else {
+        newLeaves = leaves.clone();
+      }
+      newLeaves[index] = leaf;
+      return new CollisionNode(hash, newLeaves);
+    }
+
+    @Override
+    Node without(Object key, int hash, int shift) {
+      if (leaves.length == 1) {
+        return null;
+      }
+      int index = indexOf(key);
+      var newLeaves = new Object[leaves.length - 1];
+      System.arraycopy(leaves, 0, newLeaves, 0, index);
+      System.arraycopy(leaves, index + 1, newLeaves, index, newLeaves.length - index);
+      return new CollisionNode(hash, newLeaves);
+    }
+
+    @Override
+    Object[] children() {
+      return leaves;
+    }
+
+    /**
+     * @return the index of the leaf for the key, or the number of leaves if it is not found
+     */
+    private int indexOf(Object key) {
+      int i = 0;
+      while (i < leaves.length && !((Leaf<?, ?>) leaves[i]).getKey().equals(key)) {
+        ++i;
+      }
+      return i;
+    }
+  }
+
+  private static final class Leaf<K, V> extends SimpleImmutableEntry<K, V> {
+
+    private final int hash;
+
+    private Leaf(K key, V value, int hash) {
+      super(key, value);
+      this.hash = hash;
+    }
+
+    private boolean matches(Object key, int hash) {
+      return this.hash == hash && getKey().equals(key);
+    }
+  }
+
+  /**
+   * Depth-first iteration over the leaves of the trie.
+   */
+  private static final class EntryIterator<K, V> implements Iterator<Entry<K, V>> {
+
+    private final Object[][] stack = new Object[MAX_DEPTH][];
+    private final int[] positions = new int[MAX_DEPTH];
+    private int depth = 0;
+    private Leaf<K, V> next;
+
+    private EntryIterator(Node root) {
+      stack[0] = root.children();
+      advance();
+    }
+
+    @Override
+    public boolean hasNext() {
+      return next != null;
+    }
+
+    @Override
+    public Entry<K, V> next() {
+      if (next == null) {
+        throw new NoSuchElementException();
+      }
+      var result = next;
+      advance();
+      return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void advance() {
+      next = null;
+      while (depth >= 0) {
+        Object[] children = stack[depth];
+        if (positions[depth] == children.length) {
+          --depth;
+          continue;
+        }
+        Object child = children[positions[depth]++];
+        if (child instanceof Leaf<?, ?> leaf) {
+          next = (Leaf<K, V>) leaf;
+          return;
+        }
+        ++depth;
+        stack[depth] = ((Node) child).children();
+        positions[depth] = 0;
+      }
+    }
+  }
+}
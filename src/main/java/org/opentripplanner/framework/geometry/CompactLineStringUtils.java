@@ -146,24 +146,22 @@ public final class CompactLineStringUtils {
     double y0 = reverse ? yb : ya;
     double x1 = reverse ? xa : xb;
     double y1 = reverse ? ya : yb;
-    c[0] = new Coordinate(x0, y0);
+    // The points are stored in the direction of the forward edge, fill the array from the end
+    // instead of reversing the line string afterwards.
+    c[index(0, size, reverse)] = new Coordinate(x0, y0);
     if (coords != null) {
       int oix = IntUtils.round(x0 * FIXED_FLOAT_MULT);
       int oiy = IntUtils.round(y0 * FIXED_FLOAT_MULT);
-      for (int i = 1; i < c.length - 1; i++) {
+      for (int i = 1; i < size - 1; i++) {
         int ix = oix + coords[(i - 1) * 2];
         int iy = oiy + coords[(i - 1) * 2 + 1];
-        c[i] = new Coordinate(ix / FIXED_FLOAT_MULT, iy / FIXED_FLOAT_MULT);
+        c[index(i, size, reverse)] = new Coordinate(ix / FIXED_FLOAT_MULT, iy / FIXED_FLOAT_MULT);
         oix = ix;
         oiy = iy;
       }
     }
-    c[c.length - 1] = new Coordinate(x1, y1);
-    LineString out = GeometryUtils.makeLineString(c);
-    if (reverse) {
-      out = out.reverse();
-    }
-    return out;
+    c[index(size - 1, size, reverse)] = new Coordinate(x1, y1);
+    return GeometryUtils.makeLineString(c);
   }
 
   /**
@@ -175,4 +173,8 @@ public final class CompactLineStringUtils {
     LineString lineString = uncompactLineString(0.0, 0.0, 0.0, 0.0, packedCoords, reverse);
     return GeometryUtils.removeStartEndCoordinatesFromLineString(lineString);
   }
+
+  private static int index(int i, int size, boolean reverse) {
+    return reverse ? size - 1 - i : i;
+  }
 }
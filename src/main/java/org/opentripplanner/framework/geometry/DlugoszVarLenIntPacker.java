@@ -1,8 +1,6 @@
 package org.opentripplanner.framework.geometry;
 
 import java.io.ByteArrayOutputStream;
-import java.util.ArrayList;
-import java.util.List;
 
 /**
  * Variable-length integer encoding. This optimize integer storage when most of the values are
@@ -65,35 +63,34 @@ public class DlugoszVarLenIntPacker {
     if (arr == null) {
       return null;
     }
-    List<Integer> retval = new ArrayList<>(arr.length);
+    // The length of each value is given by its first byte, so count them before decoding to
+    // avoid boxing the values in a temporary list.
+    int[] retval = new int[count(arr)];
     int i = 0;
+    int n = 0;
     while (i < arr.length) {
       int v1 = arr[i] & 0xFF;
       i++;
       if ((v1 & 0x80) == 0x00) {
         // 0xxx xxxx -> 7 bits value
-        int sv = (v1 & 0x7F) - 64;
-        retval.add(sv);
+        retval[n++] = (v1 & 0x7F) - 64;
       } else if ((v1 & 0xC0) == 0x80) {
         // 10xx xxxx + 8 -> 14 bits value
-        int sv = ((v1 & 0x3F) << 8) + (arr[i] & 0xFF) - 8192;
+        retval[n++] = ((v1 & 0x3F) << 8) + (arr[i] & 0xFF) - 8192;
         i++;
-        retval.add(sv);
       } else if ((v1 & 0xE0) == 0xC0) {
         // 110 xxxx + 2x8 -> 21 bits value
-        int sv = ((v1 & 0x1F) << 16) + ((arr[i] & 0xFF) << 8) + (arr[i + 1] & 0xFF) - 1048576;
+        retval[n++] = ((v1 & 0x1F) << 16) + ((arr[i] & 0xFF) << 8) + (arr[i + 1] & 0xFF) - 1048576;
         i += 2;
-        retval.add(sv);
       } else if ((v1 & 0xF8) == 0xE0) {
         // 1110 0xxx + 3x8 -> 27 bits value
-        int sv =
+        retval[n++] =
           ((v1 & 0x1F) << 24) +
           ((arr[i] & 0xFF) << 16) +
           ((arr[i + 1] & 0xFF) << 8) +
           (arr[i + 2] & 0xFF) -
           67108864;
         i += 3;
-        retval.add(sv);
       } else {
         // 1110 1xxx + 4x8 -> 35 bits value
         long sv =
@@ -104,14 +101,33 @@ public class DlugoszVarLenIntPacker {
           (arr[i + 3] & 0xFF) -
           2147483648L;
         i += 4;
-        retval.add((int) sv);
+        retval[n++] = (int) sv;
       }
     }
-    int[] bufret = new int[retval.size()];
-    i = 0;
-    for (int v : retval) {
-      bufret[i++] = v;
+    return retval;
+  }
+
+  /**
+   * Count the number of packed values, without decoding them.
+   */
+  private static int count(byte[] arr) {
+    int count = 0;
+    int i = 0;
+    while (i < arr.length) {
+      int v1 = arr[i] & 0xFF;
+      if ((v1 & 0x80) == 0x00) {
+        i += 1;
+      } else if ((v1 & 0xC0) == 0x80) {
+        i += 2;
+      } else if ((v1 & 0xE0) == 0xC0) {
+        i += 3;
+      } else if ((v1 & 0xF8) == 0xE0) {
+        i += 4;
+      } else {
+        i += 5;
+      }
+      count++;
     }
-    return bufret;
+    return count;
   }
 }
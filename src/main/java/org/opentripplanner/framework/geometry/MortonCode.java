@@ -0,0 +1,45 @@
+package org.opentripplanner.framework.geometry;
+
+/**
+ * Morton code (Z-order curve) for WGS84 coordinates. Sorting by the code keeps coordinates which
+ * are close to each other mostly close in the sorted order. This is used to store objects in
+ * spatial order, so objects used together during a search are also close in memory.
+ * <p>
+ * The longitude and latitude are quantized to 31 bits each and interleaved, the longitude in the
+ * even bits. The resolution is better than 2 cm, and the code is never negative.
+ */
+public final class MortonCode {
+
+  private static final int BITS = 31;
+  private static final double SCALE = (1L << BITS) - 1;
+
+  private MortonCode() {}
+
+  public static long of(double lon, double lat) {
+    return interleave(quantize(lon, -180, 180)) | (interleave(quantize(lat, -90, 90)) << 1);
+  }
+
+  private static long quantize(double value, double min, double max) {
+    double normalized = (value - min) / (max - min);
+    if (!(normalized > 0)) {
+      return 0;
+    }
+    if (normalized >= 1) {
+      return (long) SCALE;
+    }
+    return (long) (normalized * SCALE);
+  }
+
+  /**
+   * Spread the lower 32 bits of the value to the even bits of the result.
+   */
+  private static long interleave(long value) {
+    long x = value & 0xFFFFFFFFL;
+    x = (x | (x << 16)) & 0x0000FFFF0000FFFFL;
+    x = (x | (x << 8)) & 0x00FF00FF00FF00FFL;
+    x = (x | (x << 4)) & 0x0F0F0F0F0F0F0F0FL;
+    x = (x | (x << 2)) & 0x3333333333333333L;
+    x = (x | (x << 1)) & 0x5555555555555555L;
+    return x;
+  }
+}
@@ -10,6 +10,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.function.Function;
 import javax.annotation.Nonnull;
 import org.slf4j.Logger;
@@ -75,6 +76,18 @@ public class JsonDataListDownloader<T> {
     }
   }
 
+  /**
+   * Download and parse the list with a conditional request, see
+   * {@link OtpHttpClient#getAndMapIfModified(URI, Map, OtpHttpClient.ResponseMapper)}.
+   *
+   * @return the parsed list, or an empty optional if the data has not been modified since the
+   * last call
+   * @throws OtpHttpClientException if the data could not be downloaded or parsed
+   */
+  public Optional<List<T>> downloadIfModified() {
+    return otpHttpClient.getAndMapIfModified(URI.create(url), headers, this::parseJSON);
+  }
+
   private static String convertStreamToString(java.io.InputStream is) {
     try (java.util.Scanner scanner = new java.util.Scanner(is).useDelimiter("\\A")) {
       return scanner.hasNext() ? scanner.next() : "";
@@ -16,7 +16,9 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
+import javax.annotation.Nullable;
 import org.apache.hc.client5.http.classic.methods.HttpGet;
 import org.apache.hc.client5.http.classic.methods.HttpHead;
 import org.apache.hc.client5.http.classic.methods.HttpPost;
@@ -30,6 +32,7 @@ import org.apache.hc.core5.http.Header;
 import org.apache.hc.core5.http.HttpEntity;
 import org.apache.hc.core5.http.HttpHeaders;
 import org.apache.hc.core5.http.HttpResponse;
+import org.apache.hc.core5.http.HttpStatus;
 import org.apache.hc.core5.http.io.HttpClientResponseHandler;
 import org.apache.hc.core5.http.io.entity.StringEntity;
 import org.apache.hc.core5.util.Timeout;
@@ -50,6 +53,11 @@ import org.slf4j.Logger;
  * method {@link #getAsInputStream} gives access to an input stream on the body response but
  * requires the caller to close this stream. For most use cases, this method is not recommended.
  *
+ * <h3>Conditional requests</h3>
+ * The method {@link #getAndMapIfModified} only downloads and maps a resource if it has changed
+ * since it was last fetched by this client. Polling updaters should use it, so unchanged feeds
+ * are neither parsed nor applied again.
+ *
  * <h3>Thread-safety</h3>
  * Instances of this class are thread-safe.
  */
@@ -59,6 +67,11 @@ public class OtpHttpClient {
 
   private final Logger log;
 
+  /**
+   * The validators of the last response for each URI fetched with {@link #getAndMapIfModified}.
+   */
+  private final Map<URI, Validators> validators = new ConcurrentHashMap<>();
+
   /**
    * Creates an HTTP client with custom configuration.
    */
@@ -189,6 +202,66 @@ public class OtpHttpClient {
     return sendAndMap(new HttpGet(uri), uri, timeout, headers, contentMapper);
   }
 
+  /**
+   * Executes a conditional HTTP GET request and returns the body mapped according to the provided
+   * content mapper. The default timeout is applied.
+   *
+   * @see #getAndMapIfModified(URI, Duration, Map, ResponseMapper)
+   */
+  public <T> Optional<T> getAndMapIfModified(
+    URI uri,
+    Map<String, String> headers,
+    ResponseMapper<T> contentMapper
+  ) {
+    return getAndMapIfModified(uri, null, headers, contentMapper);
+  }
+
+  /**
+   * Executes a conditional HTTP GET request and returns the body mapped according to the provided
+   * content mapper. Returns an empty result if the resource has not been modified since the last
+   * time it was fetched with this method: HTTP status 304 "Not Modified".
+   * <p>
+   * The ETag and Last-Modified headers of the response are remembered for the URI and sent as
+   * If-None-Match and If-Modified-Since with the next request. They are only remembered if the
+   * body was mapped successfully, so a body which failed to map is fetched again. If the protocol
+   * is neither HTTP nor HTTPS, the URI is interpreted as a local file and always mapped. The
+   * content mapper must not return null.
+   */
+  public <T> Optional<T> getAndMapIfModified(
+    URI uri,
+    Duration timeout,
+    Map<String, String> headers,
+    ResponseMapper<T> contentMapper
+  ) {
+    if (!isHttp(uri)) {
+      return Optional.of(getAndMap(uri, timeout, headers, contentMapper));
+    }
+    var request = new HttpGet(uri);
+    var lastValidators = validators.get(uri);
+    if (lastValidators != null) {
+      lastValidators.addConditionalHeaders(request);
+    }
+    return executeAndMapWithResponseHandler(
+      request,
+      timeout,
+      headers,
+      response -> {
+        if (lastValidators != null && response.getCode() == HttpStatus.SC_NOT_MODIFIED) {
+          log.debug("Resource {} not modified", sanitizeUri(uri));
+          return Optional.empty();
+        }
+        T result = mapResponse(response, contentMapper);
+        var newValidators = Validators.of(response);
+        if (newValidators == null) {
+          validators.remove(uri);
+        } else {
+          validators.put(uri, newValidators);
+        }
+        return Optional.of(result);
+      }
+    );
+  }
+
   /**
    * Send an HTTP POST request with Content-Type: application/json. The body of the request
    * is defined by {@code jsonBody}.
@@ -381,6 +454,10 @@ public class OtpHttpClient {
       .build();
   }
 
+  private static boolean isHttp(URI uri) {
+    return "http".equals(uri.getScheme()) || "https".equals(uri.getScheme());
+  }
+
   /**
    * Returns true if the HTTP status code is not 200.
    */
@@ -413,6 +490,33 @@ public class OtpHttpClient {
     }
   }
 
+  /**
+   * The ETag and Last-Modified headers of a response, at least one of them is set.
+   */
+  private record Validators(String eTag, String lastModified) {
+    @Nullable
+    static Validators of(HttpResponse response) {
+      var eTag = response.getFirstHeader(HttpHeaders.ETAG);
+      var lastModified = response.getFirstHeader(HttpHeaders.LAST_MODIFIED);
+      if (eTag == null && lastModified == null) {
+        return null;
+      }
+      return new Validators(
+        eTag == null ? null : eTag.getValue(),
+        lastModified == null ? null : lastModified.getValue()
+      );
+    }
+
+    void addConditionalHeaders(HttpUriRequestBase request) {
+      if (eTag != null) {
+        request.setHeader(HttpHeaders.IF_NONE_MATCH, eTag);
+      }
+      if (lastModified != null) {
+        request.setHeader(HttpHeaders.IF_MODIFIED_SINCE, lastModified);
+      }
+    }
+  }
+
   @FunctionalInterface
   public interface ResponseMapper<R> {
     /**
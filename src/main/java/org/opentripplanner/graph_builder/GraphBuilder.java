@@ -4,12 +4,16 @@ import static org.opentripplanner.datastore.api.FileType.GTFS;
 import static org.opentripplanner.datastore.api.FileType.NETEX;
 import static org.opentripplanner.datastore.api.FileType.OSM;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.inject.Inject;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import org.opentripplanner.datastore.api.CompositeDataSource;
 import org.opentripplanner.ext.emissions.EmissionsDataModel;
 import org.opentripplanner.ext.stopconsolidation.StopConsolidationRepository;
 import org.opentripplanner.framework.application.OTPFeature;
@@ -24,6 +28,7 @@ import org.opentripplanner.routing.graph.Graph;
 import org.opentripplanner.service.worldenvelope.WorldEnvelopeRepository;
 import org.opentripplanner.standalone.config.BuildConfig;
 import org.opentripplanner.street.model.StreetLimitationParameters;
+import org.opentripplanner.transit.model.framework.Deduplicator;
 import org.opentripplanner.transit.service.TransitModel;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -36,6 +41,8 @@ public class GraphBuilder implements Runnable {
 
   private static final Logger LOG = LoggerFactory.getLogger(GraphBuilder.class);
 
+  static final String DEDUPLICATOR_REPORT_FILE_NAME = "deduplicator-statistics.json";
+
   private final List<GraphBuilderModule> graphBuilderModules = new ArrayList<>();
   private final Graph graph;
   private final TransitModel transitModel;
@@ -43,6 +50,13 @@ public class GraphBuilder implements Runnable {
 
   private boolean hasTransitData = false;
 
+  /**
+   * The directory to write the build profile and the deduplicator statistics to, or null if no
+   * report is written.
+   */
+  @Nullable
+  private CompositeDataSource buildReportDir = null;
+
   @Inject
   public GraphBuilder(
     @Nonnull Graph baseGraph,
@@ -169,6 +183,7 @@ public class GraphBuilder implements Runnable {
 
     if (config.dataImportReport) {
       graphBuilder.addModule(factory.dataImportIssueReporter());
+      graphBuilder.buildReportDir = dataSources.getBuildReportDir();
     }
 
     if (OTPFeature.DataOverlay.isOn()) {
@@ -190,11 +205,23 @@ public class GraphBuilder implements Runnable {
       builder.checkInputs();
     }
 
+    var profiler = new GraphBuilderProfiler();
     for (GraphBuilderModule load : graphBuilderModules) {
-      load.buildGraph();
+      profiler.buildGraph(load);
     }
+    profiler.logReport();
+    if (buildReportDir != null) {
+      profiler.writeReport(buildReportDir);
+    }
+
+    issueStore.summary().logSummary();
 
-    new DataImportIssueSummary(issueStore.listIssues()).logSummary();
+    if (graph.deduplicator != null) {
+      LOG.info("Deduplicator statistics:\n{}", graph.deduplicator.statisticsReport());
+      if (buildReportDir != null) {
+        writeDeduplicatorReport(buildReportDir, graph.deduplicator);
+      }
+    }
 
     // Log before we validate, this way we have more information if the validation fails
     logGraphBuilderCompleteStatus(startTime, graph, transitModel);
@@ -202,6 +229,23 @@ public class GraphBuilder implements Runnable {
     validate();
   }
 
+  /**
+   * Write the deduplicator statistics as JSON to the build report directory. Failing to write the
+   * report does not fail the build.
+   */
+  private static void writeDeduplicatorReport(
+    CompositeDataSource reportDirectory,
+    Deduplicator deduplicator
+  ) {
+    var target = reportDirectory.entry(DEDUPLICATOR_REPORT_FILE_NAME);
+    try (OutputStream out = target.asOutputStream()) {
+      var json = new ObjectMapper().writerWithDefaultPrettyPrinter();
+      json.writeValue(out, deduplicator.statistics());
+    } catch (IOException e) {
+      LOG.error("Failed to write the deduplicator statistics: " + target.path(), e);
+    }
+  }
+
   private void addModule(GraphBuilderModule module) {
     graphBuilderModules.add(module);
   }
@@ -217,7 +261,7 @@ public class GraphBuilder implements Runnable {
   }
 
   public DataImportIssueSummary issueSummary() {
-    return new DataImportIssueSummary(issueStore.listIssues());
+    return issueStore.summary();
   }
 
   /**
@@ -0,0 +1,224 @@
+package org.opentripplanner.graph_builder;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Tags;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.opentripplanner.datastore.api.CompositeDataSource;
+import org.opentripplanner.framework.time.DurationUtils;
+import org.opentripplanner.graph_builder.model.GraphBuilderModule;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Records the resources used by each graph builder module: wall time, CPU time, allocated memory,
+ * peak heap usage and garbage collection. The result is logged, written as JSON to the build
+ * report directory and recorded in the micrometer registry, so the build performance can be
+ * compared between builds.
+ * <p>
+ * The numbers are for the whole JVM, not only the thread running the module, since many modules
+ * do their work in parallel. The CPU time is the CPU time of the process, and the allocated
+ * memory is summed over all live threads; memory allocated by threads terminating while the
+ * module runs is not included. The peak heap is the sum of the peak usage of each heap memory
+ * pool. If the JVM does not support a measurement, the value is -1.
+ */
+class GraphBuilderProfiler {
+
+  private static final Logger LOG = LoggerFactory.getLogger(GraphBuilderProfiler.class);
+
+  static final String REPORT_FILE_NAME = "build-profile.json";
+
+  private static final String METRICS_PREFIX = "graph_builder.module";
+  private static final long NOT_SUPPORTED = -1;
+  private static final long MB = 1024 * 1024;
+
+  private final List<ModuleProfile> profiles = new ArrayList<>();
+
+  /**
+   * Build the graph using the given module and record the resources used.
+   */
+  void buildGraph(GraphBuilderModule module) {
+    resetPeakHeapUsage();
+    var start = Snapshot.take();
+    try {
+      module.buildGraph();
+    } finally {
+      var profile = Snapshot.take().profileSince(start, module.getClass().getSimpleName());
+      profiles.add(profile);
+      recordMetrics(profile);
+    }
+  }
+
+  List<ModuleProfile> profiles() {
+    return List.copyOf(profiles);
+  }
+
+  void logReport() {
+    for (ModuleProfile it : profiles) {
+      LOG.info(
+        "{}: wall time {}, CPU time {}, allocated {} MB, peak heap {} MB, GC {} ({} collections)",
+        it.module(),
+        DurationUtils.durationToStr(Duration.ofMillis(it.wallTimeMs())),
+        toStr(it.cpuTimeMs()),
+        it.allocatedBytes() == NOT_SUPPORTED ? "-" : it.allocatedBytes() / MB,
+        it.peakHeapBytes() == NOT_SUPPORTED ? "-" : it.peakHeapBytes() / MB,
+        toStr(it.gcTimeMs()),
+        it.gcCount()
+      );
+    }
+  }
+
+  /**
+   * Write the profile as JSON to the given directory. Failing to write the report does not fail
+   * the build.
+   */
+  void writeReport(CompositeDataSource reportDirectory) {
+    var target = reportDirectory.entry(REPORT_FILE_NAME);
+    try (OutputStream out = target.asOutputStream()) {
+      out.write(toJson().getBytes(StandardCharsets.UTF_8));
+    } catch (IOException e) {
+      LOG.error("Failed to write the build profile: " + target.path(), e);
+    }
+  }
+
+  String toJson() {
+    try {
+      return new ObjectMapper().writerWithDefaultPrettyPrinter().writeValueAsString(profiles);
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static void recordMetrics(ModuleProfile profile) {
+    var tags = Tags.of("module", profile.module());
+    recordTime("wall_time", tags, profile.wallTimeMs());
+    recordTime("cpu_time", tags, profile.cpuTimeMs());
+    recordTime("gc_time", tags, profile.gcTimeMs());
+    recordBytes("allocated_bytes", tags, profile.allocatedBytes());
+    recordBytes("peak_heap_bytes", tags, profile.peakHeapBytes());
+  }
+
+  private static void recordTime(String name, Tags tags, long timeMs) {
+    if (timeMs != NOT_SUPPORTED) {
+      Metrics.timer(METRICS_PREFIX + "." + name, tags).record(timeMs, TimeUnit.MILLISECONDS);
+    }
+  }
+
+  private static void recordBytes(String name, Tags tags, long bytes) {
+    if (bytes != NOT_SUPPORTED) {
+      Metrics.summary(METRICS_PREFIX + "." + name, tags).record(bytes);
+    }
+  }
+
+  private static String toStr(long timeMs) {
+    return timeMs == NOT_SUPPORTED ? "-" : DurationUtils.msToSecondsStr(timeMs);
+  }
+
+  private static void resetPeakHeapUsage() {
+    for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+      if (pool.getType() == MemoryType.HEAP && pool.isValid()) {
+        pool.resetPeakUsage();
+      }
+    }
+  }
+
+  private static long peakHeapUsage() {
+    long sum = 0;
+    for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+      if (pool.getType() == MemoryType.HEAP && pool.isValid() && pool.getPeakUsage() != null) {
+        sum += pool.getPeakUsage().getUsed();
+      }
+    }
+    return sum;
+  }
+
+  /**
+   * The resources used by one module, the times are in milliseconds.
+   */
+  record ModuleProfile(
+    String module,
+    long wallTimeMs,
+    long cpuTimeMs,
+    long allocatedBytes,
+    long peakHeapBytes,
+    long gcCount,
+    long gcTimeMs
+  ) {}
+
+  /**
+   * The accumulated resource counters of the JVM at a point in time.
+   */
+  private record Snapshot(
+    long wallNanos,
+    long cpuNanos,
+    long allocatedBytes,
+    long gcCount,
+    long gcTimeMs
+  ) {
+    static Snapshot take() {
+      long gcCount = 0;
+      long gcTimeMs = 0;
+      for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+        gcCount += Math.max(0, gc.getCollectionCount());
+        gcTimeMs += Math.max(0, gc.getCollectionTime());
+      }
+      return new Snapshot(System.nanoTime(), cpuNanos(), allocatedBytes(), gcCount, gcTimeMs);
+    }
+
+    ModuleProfile profileSince(Snapshot start, String module) {
+      long cpuNanosUsed = delta(cpuNanos, start.cpuNanos);
+      long allocated = delta(allocatedBytes, start.allocatedBytes);
+      return new ModuleProfile(
+        module,
+        (wallNanos - start.wallNanos) / 1_000_000,
+        cpuNanosUsed == NOT_SUPPORTED ? NOT_SUPPORTED : cpuNanosUsed / 1_000_000,
+        // The sum decreases if a thread terminates
+        allocated == NOT_SUPPORTED ? NOT_SUPPORTED : Math.max(0, allocated),
+        peakHeapUsage(),
+        gcCount - start.gcCount,
+        gcTimeMs - start.gcTimeMs
+      );
+    }
+
+    private static long delta(long end, long start) {
+      return end == NOT_SUPPORTED || start == NOT_SUPPORTED ? NOT_SUPPORTED : end - start;
+    }
+
+    private static long cpuNanos() {
+      var os = ManagementFactory.getOperatingSystemMXBean();
+      if (os instanceof com.sun.management.OperatingSystemMXBean process) {
+        long time = process.getProcessCpuTime();
+        return time < 0 ? NOT_SUPPORTED : time;
+      }
+      return NOT_SUPPORTED;
+    }
+
+    private static long allocatedBytes() {
+      if (
+        ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threads &&
+        threads.isThreadAllocatedMemorySupported() &&
+        threads.isThreadAllocatedMemoryEnabled()
+      ) {
+        long sum = 0;
+        for (long bytes : threads.getThreadAllocatedBytes(threads.getAllThreadIds())) {
+          if (bytes > 0) {
+            sum += bytes;
+          }
+        }
+        return sum;
+      }
+      return NOT_SUPPORTED;
+    }
+  }
+}
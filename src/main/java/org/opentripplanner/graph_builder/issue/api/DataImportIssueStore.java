@@ -44,6 +44,14 @@ public interface DataImportIssueStore {
    */
   void stopProcessingSource();
 
-  /** List all issues added */
+  /**
+   * List all issues added. An implementation may keep only a sample of the issues of each type,
+   * use {@link #summary()} to get the number of issues.
+   */
   List<DataImportIssue> listIssues();
+
+  /** The number of issues added of each type. */
+  default DataImportIssueSummary summary() {
+    return new DataImportIssueSummary(listIssues());
+  }
 }
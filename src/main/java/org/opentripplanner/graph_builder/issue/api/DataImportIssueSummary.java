@@ -57,6 +57,13 @@ public class DataImportIssueSummary implements Serializable {
     return new DataImportIssueSummary(combined);
   }
 
+  /**
+   * Create a summary from the number of issues of each type.
+   */
+  public static DataImportIssueSummary of(Map<String, Long> summary) {
+    return new DataImportIssueSummary(summary);
+  }
+
   public static DataImportIssueSummary empty() {
     return new DataImportIssueSummary(List.of());
   }
@@ -2,28 +2,52 @@ package org.opentripplanner.graph_builder.issue.service;
 
 import jakarta.inject.Singleton;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import org.opentripplanner.framework.error.OtpError;
 import org.opentripplanner.graph_builder.issue.api.DataImportIssue;
 import org.opentripplanner.graph_builder.issue.api.DataImportIssueStore;
+import org.opentripplanner.graph_builder.issue.api.DataImportIssueSummary;
 import org.opentripplanner.graph_builder.issue.api.Issue;
 import org.opentripplanner.graph_builder.issue.api.IssueWithSource;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * Keeps the issues in memory. All issues are counted, but only the first
+ * {@code maxIssuesPerType} issues of each type are kept. Issues reference the graph entities
+ * they are about, so keeping millions of them is expensive when no report is generated.
+ * <p>
+ * Some graph builder modules report issues from parallel streams, so adding issues is
+ * synchronized.
+ */
 @Singleton
 public class DefaultDataImportIssueStore implements DataImportIssueStore {
 
   private static final Logger ISSUE_LOG = LoggerFactory.getLogger(ISSUES_LOG_NAME);
 
   private final List<DataImportIssue> issues = new ArrayList<>();
+  private final Map<String, Long> counts = new HashMap<>();
+  private final int maxIssuesPerType;
   private String currentSource = null;
 
-  public DefaultDataImportIssueStore() {}
+  /** Keep all issues. */
+  public DefaultDataImportIssueStore() {
+    this(Integer.MAX_VALUE);
+  }
+
+  public DefaultDataImportIssueStore(int maxIssuesPerType) {
+    this.maxIssuesPerType = maxIssuesPerType;
+  }
 
   @Override
-  public void add(DataImportIssue issue) {
+  public synchronized void add(DataImportIssue issue) {
     ISSUE_LOG.debug("{} - {}", issue.getType(), issue.getMessage());
+    long count = counts.merge(issue.getType(), 1L, Long::sum);
+    if (count > maxIssuesPerType) {
+      return;
+    }
     if (currentSource != null) {
       this.issues.add(new IssueWithSource(issue, currentSource));
     } else {
@@ -60,4 +84,9 @@ public class DefaultDataImportIssueStore implements DataImportIssueStore {
   public List<DataImportIssue> listIssues() {
     return this.issues;
   }
+
+  @Override
+  public synchronized DataImportIssueSummary summary() {
+    return DataImportIssueSummary.of(counts);
+  }
 }
@@ -78,7 +78,14 @@ public class StreetLinkerModule implements GraphBuilderModule {
   }
 
   public void linkTransitStops(Graph graph, TransitModel transitModel) {
-    List<TransitStopVertex> vertices = graph.getVerticesOfType(TransitStopVertex.class);
+    List<TransitStopVertex> vertices = graph
+      .getVerticesOfType(TransitStopVertex.class)
+      .stream()
+      // Stops with pathways do not need to be connected to the street network, since there are explicit entrances defined for that
+      .filter(tStop -> !tStop.hasPathways())
+      // check if stop is already linked, to allow multiple idempotent linking cycles
+      .filter(tStop -> !tStop.isConnectedToGraph())
+      .toList();
     var progress = ProgressTracker.track("Linking transit stops to graph", 5000, vertices.size());
     LOG.info(progress.startMessage());
 
@@ -102,57 +109,50 @@ public class StreetLinkerModule implements GraphBuilderModule {
       );
     }
 
-    for (TransitStopVertex tStop : vertices) {
-      // Stops with pathways do not need to be connected to the street network, since there are explicit entrances defined for that
-      if (tStop.hasPathways()) {
-        continue;
-      }
-      // check if stop is already linked, to allow multiple idempotent linking cycles
-      if (tStop.isConnectedToGraph()) {
-        continue;
-      }
-
-      // ordinarily stops only need to be accessible by foot
-      StopLinkType linkType = StopLinkType.WALK_ONLY;
-
-      if (
-        OTPFeature.FlexRouting.isOn() && stopLocationsUsedForFlexTrips.contains(tStop.getStop())
-      ) {
-        linkType = StopLinkType.WALK_AND_CAR;
-      }
-
-      linkStopToStreetNetwork(tStop, linkType);
+    Set<StopLocation> flexStops = stopLocationsUsedForFlexTrips;
+    graph
+      .getLinker()
+      .linkVerticesPermanently(
+        vertices,
+        WALK_ONLY,
+        LinkingDirection.BOTH_WAYS,
+        (transitVertex, streetVertex) -> {
+          var tStop = (TransitStopVertex) transitVertex;
+          return linkStopToStreetVertex(tStop, streetVertex, linkType(tStop, flexStops));
+        },
+        //noinspection Convert2MethodRef
+        tStop -> progress.step(m -> LOG.info(m))
+      );
+    LOG.info(progress.completeMessage());
+  }
 
-      //noinspection Convert2MethodRef
-      progress.step(m -> LOG.info(m));
+  private static StopLinkType linkType(TransitStopVertex tStop, Set<StopLocation> flexStops) {
+    // ordinarily stops only need to be accessible by foot
+    if (OTPFeature.FlexRouting.isOn() && flexStops.contains(tStop.getStop())) {
+      return StopLinkType.WALK_AND_CAR;
     }
-    LOG.info(progress.completeMessage());
+    return StopLinkType.WALK_ONLY;
   }
 
   /**
-   * Link a stop to the nearest "relevant" edges.
+   * Link a stop to one of the nearest "relevant" edges.
    * <p>
    * These are mostly walk edges but if a stop is used by a flex pattern it also needs to be
    * car-accessible. Therefore, flex stops are ensured to be connected to the car-accessible
    * edge. This may lead to several links being created.
    */
-  private void linkStopToStreetNetwork(TransitStopVertex tStop, StopLinkType linkType) {
-    graph
-      .getLinker()
-      .linkVertexPermanently(
-        tStop,
-        WALK_ONLY,
-        LinkingDirection.BOTH_WAYS,
-        (transitVertex, streetVertex) -> {
-          var linkEdges = createStopLinkEdges((TransitStopVertex) transitVertex, streetVertex);
+  private List<Edge> linkStopToStreetVertex(
+    TransitStopVertex tStop,
+    StreetVertex streetVertex,
+    StopLinkType linkType
+  ) {
+    var linkEdges = createStopLinkEdges(tStop, streetVertex);
 
-          if (linkType == StopLinkType.WALK_AND_CAR && !streetVertex.isConnectedToDriveableEdge()) {
-            linkToDriveableEdge(tStop);
-          }
+    if (linkType == StopLinkType.WALK_AND_CAR && !streetVertex.isConnectedToDriveableEdge()) {
+      linkToDriveableEdge(tStop);
+    }
 
-          return linkEdges;
-        }
-      );
+    return linkEdges;
   }
 
   /**
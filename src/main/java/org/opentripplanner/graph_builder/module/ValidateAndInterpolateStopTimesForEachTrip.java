@@ -1,5 +1,6 @@
 package org.opentripplanner.graph_builder.module;
 
+import com.google.common.collect.Lists;
 import gnu.trove.list.TIntList;
 import gnu.trove.list.array.TIntArrayList;
 import java.util.ArrayList;
@@ -39,6 +40,9 @@ public class ValidateAndInterpolateStopTimesForEachTrip {
   /** Do not report zero-time hops less than 1km */
   private static final double MIN_ZERO_TIME_HOP_DISTANCE_METERS = 1000.0;
 
+  /** The number of trips validated in parallel before their stop times are replaced */
+  private static final int TRIP_CHUNK_SIZE = 20_000;
+
   private final TripStopTimes stopTimesByTrip;
   private final boolean interpolate;
   private final boolean removeRepeatedStops;
@@ -61,38 +65,60 @@ public class ValidateAndInterpolateStopTimesForEachTrip {
     var progress = ProgressTracker.track("Validate StopTimes", 100_000, tripSize);
     LOG.info(progress.startMessage());
 
-    for (Trip trip : stopTimesByTrip.keys()) {
-      // Fetch the stop times for this trip. Copy the list since it's immutable.
-      List<StopTime> stopTimes = new ArrayList<>(stopTimesByTrip.get(trip));
+    List<Trip> trips = new ArrayList<>(tripSize);
+    stopTimesByTrip.keys().forEach(trips::add);
 
-      // if we don't have flex routing enabled then remove all the flex locations and location
-      // groups
-      if (OTPFeature.FlexRouting.isOff()) {
-        stopTimes.removeIf(st -> !(st.getStop() instanceof RegularStop));
-      }
+    // The trips are validated independently of each other, so this is done in parallel. The
+    // results are applied in the original order, so the output does not depend on the threads.
+    // The trips are processed in chunks, so only the copied stop times of one chunk are kept
+    // alongside the original ones.
+    for (List<Trip> chunk : Lists.partition(trips, TRIP_CHUNK_SIZE)) {
+      List<TripResult> results = chunk
+        .parallelStream()
+        .map(trip -> {
+          var result = validateAndInterpolate(trip);
+          //noinspection Convert2MethodRef
+          progress.step(m -> LOG.info(m));
+          return result;
+        })
+        .toList();
 
-      // Stop times frequently contain duplicate, missing, or incorrect entries. Repair them.
-      TIntList removedStopSequences = removeRepeatedStops(stopTimes);
-      if (!removedStopSequences.isEmpty()) {
-        issueStore.add(new RepeatedStops(trip, removedStopSequences));
+      for (TripResult result : results) {
+        result.issues().forEach(issueStore::add);
+        stopTimesByTrip.replace(result.trip(), result.stopTimes());
       }
-      if (!filterStopTimes(stopTimes)) {
-        stopTimesByTrip.replace(trip, List.of());
-      } else if (interpolate) {
-        interpolateStopTimes(stopTimes);
-        stopTimesByTrip.replace(trip, stopTimes);
-      } else {
-        stopTimes.removeIf(st -> !st.isArrivalTimeSet() || !st.isDepartureTimeSet());
-        stopTimesByTrip.replace(trip, stopTimes);
-      }
-
-      //noinspection Convert2MethodRef
-      progress.step(m -> LOG.info(m));
     }
 
     LOG.info(progress.completeMessage());
   }
 
+  private TripResult validateAndInterpolate(Trip trip) {
+    List<DataImportIssue> issues = new ArrayList<>();
+
+    // Fetch the stop times for this trip. Copy the list since it's immutable.
+    List<StopTime> stopTimes = new ArrayList<>(stopTimesByTrip.get(trip));
+
+    // if we don't have flex routing enabled then remove all the flex locations and location
+    // groups
+    if (OTPFeature.FlexRouting.isOff()) {
+      stopTimes.removeIf(st -> !(st.getStop() instanceof RegularStop));
+    }
+
+    // Stop times frequently contain duplicate, missing, or incorrect entries. Repair them.
+    TIntList removedStopSequences = removeRepeatedStops(stopTimes);
+    if (!removedStopSequences.isEmpty()) {
+      issues.add(new RepeatedStops(trip, removedStopSequences));
+    }
+    if (!filterStopTimes(stopTimes, issues)) {
+      return new TripResult(trip, List.of(), issues);
+    } else if (interpolate) {
+      interpolateStopTimes(stopTimes);
+    } else {
+      stopTimes.removeIf(st -> !st.isArrivalTimeSet() || !st.isDepartureTimeSet());
+    }
+    return new TripResult(trip, stopTimes, issues);
+  }
+
   /**
    * Filter out any series of stop times that refer to the same stop. This is very inefficient in an
    * array-backed list, but we are assuming that this is a rare occurrence. The alternative is to
@@ -140,9 +166,10 @@ public class ValidateAndInterpolateStopTimesForEachTrip {
    * are reported to reveal the problems to the user.
    *
    * @param stopTimes the stop times to be filtered (from a single trip)
+   * @param issues    the list to add the issues found to
    * @return whether the stop time is usable
    */
-  private boolean filterStopTimes(List<StopTime> stopTimes) {
+  private boolean filterStopTimes(List<StopTime> stopTimes, List<DataImportIssue> issues) {
     if (stopTimes.size() < 2 && !FlexTrip.containsFlexStops(stopTimes)) {
       return false;
     }
@@ -180,13 +207,13 @@ public class ValidateAndInterpolateStopTimesForEachTrip {
       }
       int dwellTime = st0.getDepartureTime() - st0.getArrivalTime();
       if (dwellTime < 0) {
-        issueStore.add(new NegativeDwellTime(st0));
+        issues.add(new NegativeDwellTime(st0));
         return false;
       }
 
       int runningTime = st1.getArrivalTime() - st0.getDepartureTime();
       if (runningTime < 0) {
-        issueStore.add(new NegativeHopTime(st0, st1));
+        issues.add(new NegativeHopTime(st0, st1));
         return false;
       }
 
@@ -197,7 +224,7 @@ public class ValidateAndInterpolateStopTimesForEachTrip {
       double hopSpeed = hopDistance / runningTime;
 
       if (hopDistance == 0) {
-        issueStore.add(
+        issues.add(
           new HopZeroDistance(
             runningTime,
             st1.getTrip(),
@@ -211,7 +238,7 @@ public class ValidateAndInterpolateStopTimesForEachTrip {
       if (runningTime == 0) {
         // identical stop times at different stops
         if (hopDistance > MIN_ZERO_TIME_HOP_DISTANCE_METERS) {
-          issueStore.add(
+          issues.add(
             new HopZeroTime(
               (float) hopDistance,
               st1.getTrip(),
@@ -222,7 +249,7 @@ public class ValidateAndInterpolateStopTimesForEachTrip {
           );
         }
       } else if (hopSpeed > getMaxSpeedForMode(st0.getTrip().getMode())) {
-        issueStore.add(
+        issues.add(
           new HopSpeedFast(
             (float) hopSpeed,
             (float) hopDistance,
@@ -234,7 +261,7 @@ public class ValidateAndInterpolateStopTimesForEachTrip {
         );
       } else if (hopSpeed < 0.3) {
         // 0.3 m/sec ~= 1 km/h
-        issueStore.add(
+        issues.add(
           new HopSpeedSlow(
             (float) hopSpeed,
             (float) hopDistance,
@@ -336,4 +363,6 @@ public class ValidateAndInterpolateStopTimesForEachTrip {
       }
     }
   }
+
+  private record TripResult(Trip trip, List<StopTime> stopTimes, List<DataImportIssue> issues) {}
 }
@@ -52,6 +52,9 @@ import org.opentripplanner.transit.service.TransitModel;
 @Module
 public class GraphBuilderModules {
 
+  /** The number of issues of each type kept when no data import report is generated. */
+  private static final int MAX_ISSUES_PER_TYPE_WITHOUT_REPORT = 100;
+
   @Provides
   @Singleton
   static OsmModule provideOpenStreetMapModule(
@@ -262,10 +265,16 @@ public class GraphBuilderModules {
     return DataOverlayFactory.create(graph, config.dataOverlay);
   }
 
+  /**
+   * All issues are kept if the report is generated. If not, only the issue summary is needed, so
+   * only a small sample of each type is kept.
+   */
   @Provides
   @Singleton
-  static DataImportIssueStore provideDataImportIssuesStore() {
-    return new DefaultDataImportIssueStore();
+  static DataImportIssueStore provideDataImportIssuesStore(BuildConfig config) {
+    return config.dataImportReport
+      ? new DefaultDataImportIssueStore()
+      : new DefaultDataImportIssueStore(MAX_ISSUES_PER_TYPE_WITHOUT_REPORT);
   }
 
   @Provides
@@ -285,7 +294,7 @@ public class GraphBuilderModules {
   @Provides
   @Singleton
   static DataImportIssueSummary providesDataImportIssueSummary(DataImportIssueStore issueStore) {
-    return new DataImportIssueSummary(issueStore.listIssues());
+    return issueStore.summary();
   }
 
   @Provides
@@ -1,7 +1,6 @@
 package org.opentripplanner.graph_builder.module.islandpruning;
 
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -9,14 +8,12 @@ import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
-import java.util.Queue;
 import java.util.stream.Collectors;
 import org.opentripplanner.graph_builder.issue.api.DataImportIssueStore;
 import org.opentripplanner.graph_builder.issues.GraphConnectivity;
 import org.opentripplanner.graph_builder.issues.IsolatedStop;
 import org.opentripplanner.graph_builder.model.GraphBuilderModule;
 import org.opentripplanner.graph_builder.module.StreetLinkerModule;
-import org.opentripplanner.routing.api.request.StreetMode;
 import org.opentripplanner.routing.graph.Graph;
 import org.opentripplanner.routing.graph.index.StreetIndex;
 import org.opentripplanner.routing.linking.VertexLinker;
@@ -30,8 +27,6 @@ import org.opentripplanner.street.model.vertex.TransitStopVertex;
 import org.opentripplanner.street.model.vertex.Vertex;
 import org.opentripplanner.street.model.vertex.VertexLabel;
 import org.opentripplanner.street.search.TraverseMode;
-import org.opentripplanner.street.search.request.StreetSearchRequest;
-import org.opentripplanner.street.search.state.State;
 import org.opentripplanner.transit.service.TransitModel;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -57,6 +52,8 @@ public class PruneIslands implements GraphBuilderModule {
   private double adaptivePruningFactor;
   private VertexLinker vertexLinker;
   private StreetIndex streetIndex;
+  private Vertex[] vertices;
+  private Map<Vertex, Integer> vertexIndex;
 
   public PruneIslands(
     Graph graph,
@@ -84,6 +81,13 @@ public class PruneIslands implements GraphBuilderModule {
     this.vertexLinker = graph.getLinkerSafe(transitModel.getStopModel());
     this.streetIndex = graph.getStreetIndexSafe(transitModel.getStopModel());
 
+    // Pruning only removes edges, so the vertex ids can be shared by all modes
+    this.vertices = graph.getVertices().toArray(new Vertex[0]);
+    this.vertexIndex = new HashMap<>(vertices.length);
+    for (int i = 0; i < vertices.length; ++i) {
+      vertexIndex.put(vertices[i], i);
+    }
+
     pruneIslands(TraverseMode.BICYCLE);
     pruneIslands(TraverseMode.WALK);
     pruneIslands(TraverseMode.CAR);
@@ -170,53 +174,37 @@ public class PruneIslands implements GraphBuilderModule {
 
   private void pruneIslands(TraverseMode traverseMode) {
     LOG.debug("nothru pruning");
-    Map<Vertex, Subgraph> subgraphs = new HashMap<>();
-    Map<Vertex, Subgraph> extgraphs = new HashMap<>();
-    Map<Vertex, ArrayList<Vertex>> neighborsForVertex = new HashMap<>();
     Map<Edge, Boolean> isolated = new HashMap<>();
-    ArrayList<Subgraph> islands = new ArrayList<>();
     int count;
 
-    /* establish vertex neighbourhood without currently relevant noThruTrafficEdges */
-    collectNeighbourVertices(neighborsForVertex, traverseMode, false);
-
-    /* associate each connected vertex with a subgraph */
-    count = collectSubGraphs(neighborsForVertex, subgraphs, null, null);
-    LOG.info("Islands when {} noThruTraffic is considered: {}", traverseMode, count);
+    StreetAdjacency adjacency = StreetAdjacency.of(vertices, vertexIndex, traverseMode);
 
-    /* Expand vertex neighbourhood with relevant noThruTrafficEdges
-       Note that we can reuse the original neighbour map here
-       and simply process a smaller set of noThruTrafficEdges */
-    collectNeighbourVertices(neighborsForVertex, traverseMode, true);
+    /* associate each connected vertex with a subgraph, without relevant noThruTrafficEdges */
+    List<int[]> subgraphs = adjacency.connectedComponents(false);
+    LOG.info("Islands when {} noThruTraffic is considered: {}", traverseMode, subgraphs.size());
 
     /* Next: generate subgraphs without considering access limitations */
-    count = collectSubGraphs(neighborsForVertex, extgraphs, null, islands);
-    LOG.info("Islands when {} noThruTraffic is ignored: {}", traverseMode, count);
+    List<int[]> islands = adjacency.connectedComponents(true);
+    LOG.info("Islands when {} noThruTraffic is ignored: {}", traverseMode, islands.size());
 
     /* collect unreachable edges to a map */
-    processIslands(islands, isolated, true, traverseMode);
-
-    extgraphs = new HashMap<>(); // let old map go
-    islands = new ArrayList<>(); // reset this too
+    processIslands(adjacency, islands, isolated, true, traverseMode);
 
     /* Recompute expanded subgraphs by accepting noThruTraffic edges in graph expansion.
-       However, expansion is not allowed to jump from an original island to another one
+       However, expansion is not allowed to jump from an original island to another one.
+       Then generate purely noThruTraffic islands if such ones exist.
      */
-    collectSubGraphs(neighborsForVertex, extgraphs, subgraphs, islands);
-
-    /* Next round: generate purely noThruTraffic islands if such ones exist */
-    count = collectSubGraphs(neighborsForVertex, extgraphs, null, islands);
-
-    LOG.info("{} noThruTraffic island count: {}", traverseMode, count);
+    islands = adjacency.expandIslands(adjacency.labelIslands(subgraphs));
 
     LOG.info("Total {} sub graphs found", islands.size());
 
-    count = processIslands(islands, isolated, false, traverseMode);
+    count = processIslands(adjacency, islands, isolated, false, traverseMode);
     LOG.info("Modified {} islands", count);
   }
 
   private int processIslands(
-    ArrayList<Subgraph> islands,
+    StreetAdjacency adjacency,
+    List<int[]> islands,
     Map<Edge, Boolean> isolated,
     boolean markIsolated,
     TraverseMode traverseMode
@@ -228,25 +216,41 @@ public class PruneIslands implements GraphBuilderModule {
     stats.put("noThru", 0);
     stats.put("restricted", 0);
 
-    Subgraph largest = null;
+    int largest = -1;
     int maxSize = 0;
+    int[] streetSizes = new int[islands.size()];
 
     // Find largest sub graph
-    for (Subgraph island : islands) {
-      int streetCount = island.streetSize();
+    for (int i = 0; i < islands.size(); ++i) {
+      int streetCount = adjacency.streetSize(islands.get(i));
+      streetSizes[i] = streetCount;
       if (streetCount >= maxSize) {
         maxSize = streetCount;
-        largest = island;
+        largest = i;
       }
     }
 
     int count = 0;
     int islandsWithStops = 0;
     int islandsWithStopsChanged = 0;
-    for (Subgraph island : islands) {
-      if (island == largest) {
+    for (int i = 0; i < islands.size(); ++i) {
+      if (i == largest) {
         continue;
       }
+      int streetSize = streetSizes[i];
+      int stopSize = islands.get(i).length - streetSize;
+      // Only islands which are candidates for pruning are worth a full subgraph
+      if (
+        streetSize >=
+        (stopSize > 0 ? pruningThresholdWithStops : pruningThresholdWithoutStops) *
+        adaptivePruningFactor
+      ) {
+        if (stopSize > 0) {
+          islandsWithStops++;
+        }
+        continue;
+      }
+      Subgraph island = adjacency.toSubgraph(islands.get(i));
       if (island.stopSize() > 0) {
         //for islands with stops
         islandsWithStops++;
@@ -303,87 +307,6 @@ public class PruneIslands implements GraphBuilderModule {
     return count;
   }
 
-  private void collectNeighbourVertices(
-    Map<Vertex, ArrayList<Vertex>> neighborsForVertex,
-    TraverseMode traverseMode,
-    boolean shouldMatchNoThruType
-  ) {
-    StreetMode streetMode =
-      switch (traverseMode) {
-        case WALK -> StreetMode.WALK;
-        case BICYCLE -> StreetMode.BIKE;
-        case CAR -> StreetMode.CAR;
-        default -> throw new IllegalArgumentException();
-      };
-
-    StreetSearchRequest request = StreetSearchRequest.of().withMode(streetMode).build();
-
-    for (Vertex gv : graph.getVertices()) {
-      if (!(gv instanceof StreetVertex)) {
-        continue;
-      }
-      State s0 = new State(gv, request);
-      for (Edge e : gv.getOutgoing()) {
-        if (
-          e instanceof StreetEdge &&
-          shouldMatchNoThruType != ((StreetEdge) e).isNoThruTraffic(traverseMode)
-        ) {
-          continue;
-        }
-        State[] states = e.traverse(s0);
-        if (State.isEmpty(states)) {
-          continue;
-        }
-        Arrays
-          .stream(states)
-          .map(State::getVertex)
-          .forEach(out -> {
-            var vertexList = neighborsForVertex.computeIfAbsent(gv, k -> new ArrayList<>());
-            vertexList.add(out);
-
-            // note: this assumes that edges are bi-directional. Maybe explicit state traversal is needed for CAR mode.
-            vertexList = neighborsForVertex.computeIfAbsent(out, k -> new ArrayList<>());
-            vertexList.add(gv);
-          });
-      }
-    }
-  }
-
-  private int collectSubGraphs(
-    Map<Vertex, ArrayList<Vertex>> neighborsForVertex,
-    Map<Vertex, Subgraph> newgraphs, // put new subgraphs here
-    Map<Vertex, Subgraph> subgraphs, // optional isolation map from a previous round
-    ArrayList<Subgraph> islands
-  ) { // final list of islands or null
-    int count = 0;
-    for (Vertex gv : graph.getVertices()) {
-      if (!(gv instanceof StreetVertex)) {
-        continue;
-      }
-
-      if (subgraphs != null && !subgraphs.containsKey(gv)) {
-        // do not start new graph generation from non-classified vertex
-        continue;
-      }
-      if (newgraphs.containsKey(gv)) { // already processed
-        continue;
-      }
-      if (!neighborsForVertex.containsKey(gv)) {
-        continue;
-      }
-      Subgraph subgraph = computeConnectedSubgraph(neighborsForVertex, gv, subgraphs, newgraphs);
-      for (Iterator<Vertex> vIter = subgraph.streetIterator(); vIter.hasNext();) {
-        Vertex subnode = vIter.next();
-        newgraphs.put(subnode, subgraph);
-      }
-      if (islands != null) {
-        islands.add(subgraph);
-      }
-      count++;
-    }
-    return count;
-  }
-
   private boolean restrictOrRemove(
     Subgraph island,
     Map<Edge, Boolean> isolated,
@@ -501,37 +424,4 @@ public class PruneIslands implements GraphBuilderModule {
     issueStore.add(new GraphIsland(island, nothru, restricted, removed, traverseMode.name()));
     return true;
   }
-
-  private Subgraph computeConnectedSubgraph(
-    Map<Vertex, ArrayList<Vertex>> neighborsForVertex,
-    Vertex startVertex,
-    Map<Vertex, Subgraph> anchors,
-    Map<Vertex, Subgraph> alreadyMapped
-  ) {
-    Subgraph subgraph = new Subgraph();
-    Queue<Vertex> q = new LinkedList<>();
-    Subgraph anchor = null;
-
-    if (anchors != null) {
-      // anchor subgraph expansion to this subgraph
-      anchor = anchors.get(startVertex);
-    }
-    q.add(startVertex);
-    while (!q.isEmpty()) {
-      Vertex vertex = q.poll();
-      for (Vertex neighbor : neighborsForVertex.get(vertex)) {
-        if (!subgraph.contains(neighbor) && !alreadyMapped.containsKey(neighbor)) {
-          if (anchor != null) {
-            Subgraph compare = anchors.get(neighbor);
-            if (compare != null && compare != anchor) { // do not enter a new island
-              continue;
-            }
-          }
-          subgraph.addVertex(neighbor);
-          q.add(neighbor);
-        }
-      }
-    }
-    return subgraph;
-  }
 }
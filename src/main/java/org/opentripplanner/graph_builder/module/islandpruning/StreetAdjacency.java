@@ -0,0 +1,359 @@
+package org.opentripplanner.graph_builder.module.islandpruning;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.stream.IntStream;
+import org.opentripplanner.routing.api.request.StreetMode;
+import org.opentripplanner.street.model.edge.Edge;
+import org.opentripplanner.street.model.edge.StreetEdge;
+import org.opentripplanner.street.model.vertex.StreetVertex;
+import org.opentripplanner.street.model.vertex.TransitStopVertex;
+import org.opentripplanner.street.model.vertex.Vertex;
+import org.opentripplanner.street.search.TraverseMode;
+import org.opentripplanner.street.search.request.StreetSearchRequest;
+import org.opentripplanner.street.search.state.State;
+
+/**
+ * A primitive snapshot of the street network connectivity for one traverse mode. Vertices are
+ * addressed by their position in the vertex array and the neighbours are stored as compressed
+ * adjacency arrays, separately for edges with and without no-thru-traffic restrictions. This keeps
+ * the island detection free of per-vertex collections, which is what made it slow and memory
+ * hungry for large graphs.
+ * <p>
+ * Like before, the edges are assumed to be bidirectional: if a vertex can be reached from another
+ * one, the reverse is also added as a neighbour.
+ */
+class StreetAdjacency {
+
+  private static final int NONE = -1;
+
+  private final Vertex[] vertices;
+  private final boolean[] isStop;
+  private final boolean[] isStreet;
+
+  /** Neighbours reachable without traversing no-thru-traffic edges for the mode */
+  private final int[] offsets;
+  private final int[] neighbours;
+
+  /** Neighbours reachable only through no-thru-traffic edges for the mode */
+  private final int[] noThruOffsets;
+  private final int[] noThruNeighbours;
+
+  private StreetAdjacency(Vertex[] vertices, int[][] forward, int[][] noThruForward) {
+    this.vertices = vertices;
+    int n = vertices.length;
+    this.isStop = new boolean[n];
+    this.isStreet = new boolean[n];
+    for (int i = 0; i < n; ++i) {
+      isStop[i] = vertices[i] instanceof TransitStopVertex;
+      isStreet[i] = vertices[i] instanceof StreetVertex;
+    }
+    this.offsets = new int[n + 1];
+    this.neighbours = toSymmetricAdjacency(forward, offsets);
+    this.noThruOffsets = new int[n + 1];
+    this.noThruNeighbours = toSymmetricAdjacency(noThruForward, noThruOffsets);
+  }
+
+  /**
+   * Build the adjacency by traversing all outgoing edges of all street vertices for the given
+   * mode. The traversal is done in parallel, the graph is not modified.
+   *
+   * @param vertices the vertices to include, the position in this array is used as the vertex id
+   * @param index the position of each vertex in {@code vertices}
+   */
+  static StreetAdjacency of(Vertex[] vertices, Map<Vertex, Integer> index, TraverseMode mode) {
+    StreetMode streetMode =
+      switch (mode) {
+        case WALK -> StreetMode.WALK;
+        case BICYCLE -> StreetMode.BIKE;
+        case CAR -> StreetMode.CAR;
+        default -> throw new IllegalArgumentException();
+      };
+    StreetSearchRequest request = StreetSearchRequest.of().withMode(streetMode).build();
+
+    int[][] forward = new int[vertices.length][];
+    int[][] noThruForward = new int[vertices.length][];
+    IntStream
+      .range(0, vertices.length)
+      .parallel()
+      .forEach(i -> {
+        forward[i] = traversableNeighbours(vertices[i], index, request, mode, false);
+        noThruForward[i] = traversableNeighbours(vertices[i], index, request, mode, true);
+      });
+    return new StreetAdjacency(vertices, forward, noThruForward);
+  }
+
+  /**
+   * The number of vertices in the island which are not transit stops.
+   */
+  int streetSize(int[] island) {
+    int count = 0;
+    for (int v : island) {
+      if (!isStop[v]) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  Subgraph toSubgraph(int[] island) {
+    Subgraph subgraph = new Subgraph();
+    for (int v : island) {
+      subgraph.addVertex(vertices[v]);
+    }
+    return subgraph;
+  }
+
+  /**
+   * Find the connected components using a parallel union-find. Only components containing at
+   * least one street vertex are returned, ordered by the position of their first street vertex.
+   *
+   * @param includeNoThru whether no-thru-traffic edges are used to connect the vertices
+   */
+  List<int[]> connectedComponents(boolean includeNoThru) {
+    int n = vertices.length;
+    AtomicIntegerArray parent = new AtomicIntegerArray(n);
+    for (int i = 0; i < n; ++i) {
+      parent.set(i, i);
+    }
+    IntStream
+      .range(0, n)
+      .parallel()
+      .forEach(v -> {
+        for (int j = offsets[v]; j < offsets[v + 1]; ++j) {
+          union(parent, v, neighbours[j]);
+        }
+        if (includeNoThru) {
+          for (int j = noThruOffsets[v]; j < noThruOffsets[v + 1]; ++j) {
+            union(parent, v, noThruNeighbours[j]);
+          }
+        }
+      });
+
+    // Order the components by their first street vertex, that is where the search started before
+    int[] componentOfRoot = new int[n];
+    Arrays.fill(componentOfRoot, NONE);
+    int[] sizes = new int[n];
+    int nComponents = 0;
+    for (int v = 0; v < n; ++v) {
+      if (isStreet[v] && degree(v, includeNoThru) > 0) {
+        int root = find(parent, v);
+        if (componentOfRoot[root] == NONE) {
+          componentOfRoot[root] = nComponents++;
+        }
+      }
+    }
+    int[] componentOf = new int[n];
+    for (int v = 0; v < n; ++v) {
+      componentOf[v] = degree(v, includeNoThru) > 0 ? componentOfRoot[find(parent, v)] : NONE;
+      if (componentOf[v] != NONE) {
+        sizes[componentOf[v]]++;
+      }
+    }
+    int[][] members = new int[nComponents][];
+    for (int c = 0; c < nComponents; ++c) {
+      members[c] = new int[sizes[c]];
+      sizes[c] = 0;
+    }
+    for (int v = 0; v < n; ++v) {
+      int c = componentOf[v];
+      if (c != NONE) {
+        members[c][sizes[c]++] = v;
+      }
+    }
+    return Arrays.asList(members);
+  }
+
+  /**
+   * Label each non-stop vertex with the index of its island, or -1 if it is not part of any.
+   */
+  int[] labelIslands(List<int[]> islands) {
+    int[] labels = new int[vertices.length];
+    Arrays.fill(labels, NONE);
+    for (int i = 0; i < islands.size(); ++i) {
+      for (int v : islands.get(i)) {
+        if (!isStop[v]) {
+          labels[v] = i;
+        }
+      }
+    }
+    return labels;
+  }
+
+  /**
+   * Expand the islands found without no-thru-traffic edges by accepting them, but do not enter
+   * vertices belonging to another original island. Islands are expanded in vertex order, and a
+   * vertex which is not part of an original island belongs to the first island reaching it.
+   * Finally, collect the islands which can only be reached through no-thru-traffic edges.
+   *
+   * @param anchors the original island of each vertex, see {@link #labelIslands(List)}
+   */
+  List<int[]> expandIslands(int[] anchors) {
+    int n = vertices.length;
+    boolean[] claimed = new boolean[n];
+    int[] visitedBy = new int[n];
+    Arrays.fill(visitedBy, NONE);
+    // The start vertex is queued first and may be queued again once reached through a neighbour
+    int[] queue = new int[n + 1];
+    List<int[]> islands = new ArrayList<>();
+
+    // Pass 1: expand anchored islands, pass 2: islands without an anchor
+    for (int pass = 1; pass <= 2; ++pass) {
+      for (int start = 0; start < n; ++start) {
+        if (!isStreet[start] || claimed[start] || degree(start, true) == 0) {
+          continue;
+        }
+        int anchor = pass == 1 ? anchors[start] : NONE;
+        if (pass == 1 && anchor == NONE) {
+          continue;
+        }
+        int id = islands.size();
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = start;
+        while (head < tail) {
+          int v = queue[head++];
+          for (int k = 0; k < 2; ++k) {
+            int[] off = k == 0 ? offsets : noThruOffsets;
+            int[] adj = k == 0 ? neighbours : noThruNeighbours;
+            for (int j = off[v]; j < off[v + 1]; ++j) {
+              int w = adj[j];
+              if (visitedBy[w] == id || claimed[w]) {
+                continue;
+              }
+              if (anchor != NONE && anchors[w] != NONE && anchors[w] != anchor) {
+                // do not enter a new island
+                continue;
+              }
+              visitedBy[w] = id;
+              queue[tail++] = w;
+            }
+          }
+        }
+        // The start vertex is only part of the island if it is reached again through a neighbour
+        int[] island = Arrays.copyOfRange(queue, 1, tail);
+        for (int v : island) {
+          if (!isStop[v]) {
+            claimed[v] = true;
+          }
+        }
+        islands.add(island);
+      }
+    }
+    return islands;
+  }
+
+  private int degree(int v, boolean includeNoThru) {
+    int degree = offsets[v + 1] - offsets[v];
+    if (includeNoThru) {
+      degree += noThruOffsets[v + 1] - noThruOffsets[v];
+    }
+    return degree;
+  }
+
+  private static int[] traversableNeighbours(
+    Vertex vertex,
+    Map<Vertex, Integer> index,
+    StreetSearchRequest request,
+    TraverseMode mode,
+    boolean shouldMatchNoThruType
+  ) {
+    if (!(vertex instanceof StreetVertex)) {
+      return new int[0];
+    }
+    State s0 = new State(vertex, request);
+    int[] result = new int[vertex.getDegreeOut()];
+    int size = 0;
+    for (Edge e : vertex.getOutgoing()) {
+      if (
+        e instanceof StreetEdge streetEdge &&
+        shouldMatchNoThruType != streetEdge.isNoThruTraffic(mode)
+      ) {
+        continue;
+      }
+      State[] states = e.traverse(s0);
+      if (State.isEmpty(states)) {
+        continue;
+      }
+      for (State state : states) {
+        Integer out = index.get(state.getVertex());
+        if (out == null) {
+          continue;
+        }
+        if (size == result.length) {
+          result = Arrays.copyOf(result, size * 2 + 1);
+        }
+        result[size++] = out;
+      }
+    }
+    return size == result.length ? result : Arrays.copyOf(result, size);
+  }
+
+  /**
+   * Add each edge in both directions and store the result as compressed adjacency arrays.
+   */
+  private static int[] toSymmetricAdjacency(int[][] forward, int[] offsets) {
+    int n = forward.length;
+    int[] degree = new int[n];
+    for (int v = 0; v < n; ++v) {
+      for (int w : forward[v]) {
+        degree[v]++;
+        degree[w]++;
+      }
+    }
+    for (int v = 0; v < n; ++v) {
+      offsets[v + 1] = offsets[v] + degree[v];
+    }
+    int[] result = new int[offsets[n]];
+    int[] pos = Arrays.copyOf(offsets, n);
+    for (int v = 0; v < n; ++v) {
+      for (int w : forward[v]) {
+        result[pos[v]++] = w;
+        result[pos[w]++] = v;
+      }
+      // Let the garbage collector reclaim the temporary lists as we go
+      forward[v] = null;
+    }
+    return result;
+  }
+
+  private static int find(AtomicIntegerArray parent, int v) {
+    while (true) {
+      int p = parent.get(v);
+      if (p == v) {
+        return v;
+      }
+      int gp = parent.get(p);
+      if (p != gp) {
+        // path halving
+        parent.compareAndSet(v, p, gp);
+      }
+      v = gp;
+    }
+  }
+
+  /**
+   * Link the root with the higher index below the one with the lower index. Retries if another
+   * thread changed one of the roots in the meantime.
+   */
+  private static void union(AtomicIntegerArray parent, int a, int b) {
+    while (true) {
+      a = find(parent, a);
+      b = find(parent, b);
+      if (a == b) {
+        return;
+      }
+      if (a < b) {
+        int tmp = a;
+        a = b;
+        b = tmp;
+      }
+      if (parent.compareAndSet(a, a, b)) {
+        return;
+      }
+    }
+  }
+}
@@ -12,10 +12,13 @@ import java.io.ObjectOutputStream;
 import java.nio.file.Files;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
 import org.geotools.api.coverage.Coverage;
@@ -27,7 +30,6 @@ import org.geotools.referencing.CRS;
 import org.locationtech.jts.geom.Coordinate;
 import org.locationtech.jts.geom.Geometry;
 import org.locationtech.jts.geom.impl.PackedCoordinateSequence;
-import org.opentripplanner.framework.geometry.EncodedPolyline;
 import org.opentripplanner.framework.geometry.SphericalDistanceLibrary;
 import org.opentripplanner.framework.lang.IntUtils;
 import org.opentripplanner.framework.logging.ProgressTracker;
@@ -71,6 +73,16 @@ public class ElevationModule implements GraphBuilderModule {
    */
   private static final CoordinateReferenceSystem WGS84_XY;
 
+  /**
+   * Edges are processed in square tiles of this size. Sampling the edges of one tile after
+   * another keeps the raster access local, instead of jumping around in the elevation model in
+   * the order the edges were created.
+   */
+  private static final double TILE_SIZE_DEGREES = 0.05;
+
+  /** The precision used for the geometry cache key, the same as in encoded polylines */
+  private static final double CACHE_KEY_PRECISION = 1e5;
+
   static {
     try {
       WGS84_XY = CRS.getAuthorityFactory(true).createCoordinateReferenceSystem("EPSG:4326");
@@ -110,12 +122,13 @@ public class ElevationModule implements GraphBuilderModule {
   private final ThreadLocal<Coverage> coverageInterpolatorThreadLocal = new ThreadLocal<>();
   private final DataImportIssueStore issueStore;
   /**
-   * A map of PackedCoordinateSequence values identified by Strings of encoded polylines.
+   * A map of PackedCoordinateSequence values identified by a hash of the edge geometry, see
+   * {@link #geometryKey(Geometry)}.
    * <p>
-   * Note: Since this map has a key of only the encoded polylines, it is assumed that all other
-   * inputs are the same as those that occurred in the graph build that produced this data.
+   * Note: Since this map has a key of only the geometry, it is assumed that all other inputs are
+   * the same as those that occurred in the graph build that produced this data.
    */
-  private HashMap<String, PackedCoordinateSequence> cachedElevations;
+  private HashMap<Long, PackedCoordinateSequence> cachedElevations;
   // the first coordinate in the first StreetWithElevationEdge which is used for initializing coverage instances
   private Coordinate examplarCoordinate;
   /** Used only when the ElevationModule is requested to be ran with a single thread */
@@ -178,10 +191,22 @@ public class ElevationModule implements GraphBuilderModule {
     // try to load in the cached elevation data
     if (readCachedElevations) {
       // try to load in the cached elevation data
-      try {
-        ObjectInputStream in = new ObjectInputStream(new FileInputStream(cachedElevationsFile));
-        cachedElevations = (HashMap<String, PackedCoordinateSequence>) in.readObject();
-        LOG.info("Cached elevation data loaded into memory!");
+      try (
+        ObjectInputStream in = new ObjectInputStream(new FileInputStream(cachedElevationsFile))
+      ) {
+        Object cache = in.readObject();
+        if (
+          cache instanceof HashMap<?, ?> map &&
+          (map.isEmpty() || map.keySet().iterator().next() instanceof Long)
+        ) {
+          cachedElevations = (HashMap<Long, PackedCoordinateSequence>) map;
+          LOG.info("Cached elevation data loaded into memory!");
+        } else {
+          // Caches written by older versions are keyed by encoded polylines
+          issueStore.add(
+            new Graphwide("Cached elevations file has an unsupported format and is ignored.")
+          );
+        }
       } catch (IOException | ClassNotFoundException e) {
         issueStore.add(
           new Graphwide(
@@ -219,15 +244,19 @@ public class ElevationModule implements GraphBuilderModule {
 
     var progress = ProgressTracker.track("Set elevation", 25_000, totalElevationEdges);
 
+    Collection<List<StreetEdge>> tiles = groupByTile(streetsWithElevationEdges);
+
     if (multiThreadElevationCalculations) {
-      // Multi-threaded execution
-      streetsWithElevationEdges
+      // Multi-threaded execution, each tile is processed by a single thread
+      tiles
         .parallelStream()
-        .forEach(ee -> processEdgeWithProgress(ee, progress));
+        .forEach(tile -> tile.forEach(ee -> processEdgeWithProgress(ee, progress)));
     } else {
       // If using just a single thread, process each edge inline
-      for (StreetEdge ee : streetsWithElevationEdges) {
-        processEdgeWithProgress(ee, progress);
+      for (List<StreetEdge> tile : tiles) {
+        for (StreetEdge ee : tile) {
+          processEdgeWithProgress(ee, progress);
+        }
       }
     }
 
@@ -265,10 +294,10 @@ public class ElevationModule implements GraphBuilderModule {
     if (writeCachedElevations) {
       // write information from edgesWithElevation to a new cache file for subsequent graph builds
       LOG.info("Writing elevation cache");
-      HashMap<String, PackedCoordinateSequence> newCachedElevations = new HashMap<>();
+      HashMap<Long, PackedCoordinateSequence> newCachedElevations = new HashMap<>();
       for (StreetEdge streetEdge : edgesWithCalculatedElevations) {
         newCachedElevations.put(
-          EncodedPolyline.encode(streetEdge.getGeometry()).points(),
+          geometryKey(streetEdge.getGeometry()),
           streetEdge.getElevationProfile()
         );
       }
@@ -404,7 +433,7 @@ public class ElevationModule implements GraphBuilderModule {
     Geometry edgeGeometry = ee.getGeometry();
     if (cachedElevations != null) {
       PackedCoordinateSequence coordinateSequence = cachedElevations.get(
-        EncodedPolyline.encode(edgeGeometry).points()
+        geometryKey(edgeGeometry)
       );
       if (coordinateSequence != null) {
         // found a cached value! Set the elevation profile with the pre-calculated data.
@@ -482,6 +511,38 @@ public class ElevationModule implements GraphBuilderModule {
     }
   }
 
+  /**
+   * Group the edges into square tiles by the location of their first vertex. The tiles are
+   * returned in a deterministic order, row by row.
+   */
+  static Collection<List<StreetEdge>> groupByTile(Collection<StreetEdge> edges) {
+    Map<Long, List<StreetEdge>> tiles = new TreeMap<>();
+    for (StreetEdge edge : edges) {
+      Vertex v = edge.getFromVertex();
+      long tileX = (long) Math.floor(v.getLon() / TILE_SIZE_DEGREES);
+      long tileY = (long) Math.floor(v.getLat() / TILE_SIZE_DEGREES);
+      tiles
+        .computeIfAbsent((tileY << 32) | (tileX & 0xFFFFFFFFL), k -> new ArrayList<>())
+        .add(edge);
+    }
+    return tiles.values();
+  }
+
+  /**
+   * A 64-bit hash of the geometry used as key in the elevation cache. Coordinates are rounded to
+   * the same precision as in encoded polylines, so tiny changes in the input data do not
+   * invalidate the cache.
+   */
+  static long geometryKey(Geometry geometry) {
+    long hash = 0xCBF29CE484222325L;
+    for (Coordinate c : geometry.getCoordinates()) {
+      hash = (hash ^ Math.round(c.x * CACHE_KEY_PRECISION)) * 0x9E3779B97F4A7C15L;
+      hash = (hash ^ Math.round(c.y * CACHE_KEY_PRECISION)) * 0x9E3779B97F4A7C15L;
+      hash ^= hash >>> 31;
+    }
+    return hash;
+  }
+
   /**
    * Gets a coverage interpolator instance specific to the current thread. If using multiple
    * threads, get the coverage interpolator instance associated with the ElevationWorkerThread.
@@ -43,6 +43,7 @@ import org.opentripplanner.openstreetmap.model.OSMNode;
 import org.opentripplanner.openstreetmap.model.OSMRelation;
 import org.opentripplanner.openstreetmap.model.OSMRelationMember;
 import org.opentripplanner.openstreetmap.model.OSMTag;
+import org.opentripplanner.openstreetmap.model.OSMTagDictionary;
 import org.opentripplanner.openstreetmap.model.OSMWay;
 import org.opentripplanner.openstreetmap.model.OSMWithTags;
 import org.opentripplanner.street.model.RepeatingTimePeriod;
@@ -59,6 +60,9 @@ public class OsmDatabase {
 
   private final DataImportIssueStore issueStore;
 
+  /* Interned tag keys and values of all the entities in this database */
+  private final OSMTagDictionary tagDictionary = new OSMTagDictionary();
+
   /* Map of all nodes used in ways/areas keyed by their OSM ID */
   private final TLongObjectMap<OSMNode> nodesById = new TLongObjectHashMap<>();
 
@@ -134,6 +138,13 @@ public class OsmDatabase {
     this.issueStore = issueStore;
   }
 
+  /**
+   * The dictionary to use for the tags of the entities added to this database.
+   */
+  public OSMTagDictionary getTagDictionary() {
+    return tagDictionary;
+  }
+
   public OSMNode getNode(Long nodeId) {
     return nodesById.get(nodeId);
   }
@@ -631,6 +642,7 @@ public class OsmDatabase {
    */
   private OSMNode createVirtualNode(Coordinate c) {
     OSMNode node = new OSMNode();
+    node.setTagDictionary(tagDictionary);
     node.lon = c.x;
     node.lat = c.y;
     node.setId(virtualNodeId);
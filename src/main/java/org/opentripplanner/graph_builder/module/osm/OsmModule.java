@@ -47,6 +47,13 @@ public class OsmModule implements GraphBuilderModule {
 
   private final Map<Vertex, Double> elevationData = new HashMap<>();
 
+  /**
+   * The street edge names, so equal names are stored only once. A way is split into many edges,
+   * most of them in both directions, and the namer creates a new name for each of them. The
+   * dictionary is only kept while the edges are built.
+   */
+  private final Map<I18NString, I18NString> edgeNames = new HashMap<>();
+
   /**
    * Providers of OSM data.
    */
@@ -100,6 +107,12 @@ public class OsmModule implements GraphBuilderModule {
     build();
     graph.hasStreets = true;
     streetLimitationParameters.initMaxCarSpeed(getMaxCarSpeed());
+
+    // The memoised way properties refer to the tag dictionary of the OSM database, drop them so
+    // the dictionary can be garbage collected with the OSM data
+    for (OsmProvider provider : providers) {
+      provider.getWayPropertySet().clearPickerMatchCache();
+    }
   }
 
   @Override
@@ -405,6 +418,7 @@ public class OsmModule implements GraphBuilderModule {
       progress.step(m -> LOG.info(m));
     } // END loop over OSM ways
 
+    edgeNames.clear();
     LOG.info(progress.completeMessage());
   }
 
@@ -525,7 +539,10 @@ public class OsmModule implements GraphBuilderModule {
   ) {
     String label = "way " + way.getId() + " from " + index;
     label = label.intern();
-    I18NString name = params.edgeNamer().getNameForWay(way, label);
+    I18NString name = edgeNames.computeIfAbsent(
+      params.edgeNamer().getNameForWay(way, label),
+      it -> it
+    );
     float carSpeed = way.getOsmProvider().getOsmTagMapper().getCarSpeedForWay(way, back);
 
     StreetEdgeBuilder<?> seb = new StreetEdgeBuilder<>()
@@ -2,6 +2,7 @@ package org.opentripplanner.gtfs;
 
 import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.ListMultimap;
+import com.google.common.collect.Lists;
 import com.google.common.collect.Multimap;
 import com.google.common.collect.MultimapBuilder;
 import java.util.Collection;
@@ -9,8 +10,10 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import javax.annotation.Nullable;
 import org.opentripplanner.ext.flex.trip.FlexTrip;
 import org.opentripplanner.framework.logging.ProgressTracker;
+import org.opentripplanner.graph_builder.issue.api.DataImportIssue;
 import org.opentripplanner.graph_builder.issue.api.DataImportIssueStore;
 import org.opentripplanner.graph_builder.issues.TripDegenerate;
 import org.opentripplanner.graph_builder.issues.TripUndefinedService;
@@ -40,6 +43,12 @@ public class GenerateTripPatternsOperation {
 
   private static final Logger LOG = LoggerFactory.getLogger(GenerateTripPatternsOperation.class);
 
+  /**
+   * The number of trips for which the stop patterns and trip times are created in parallel before
+   * they are added to the trip patterns.
+   */
+  private static final int TRIP_CHUNK_SIZE = 20_000;
+
   private final Map<String, Integer> tripPatternIdCounters = new HashMap<>();
 
   private final OtpTransitServiceBuilder transitServiceBuilder;
@@ -80,14 +89,22 @@ public class GenerateTripPatternsOperation {
     var progressLogger = ProgressTracker.track("build trip patterns", 50_000, trips.size());
     LOG.info(progressLogger.startMessage());
 
-    /* Loop over all trips, handling each one as a frequency-based or scheduled trip. */
-    for (Trip trip : trips) {
-      try {
-        buildTripPatternForTrip(trip);
-        //noinspection Convert2MethodRef
-        progressLogger.step(m -> LOG.info(m));
-      } catch (DataValidationException e) {
-        issueStore.add(e.error());
+    // Creating the stop pattern and trip times of a trip does not depend on the other trips, so
+    // this is done in parallel. The trips are then added to the patterns in the original order,
+    // which keeps the pattern ids and the order of the trips stable. The trips are processed in
+    // chunks, so only the stop patterns of one chunk are kept until they are merged.
+    for (List<Trip> chunk : Lists.partition(List.copyOf(trips), TRIP_CHUNK_SIZE)) {
+      List<TripData> tripData = chunk.parallelStream().map(this::createTripData).toList();
+
+      /* Loop over the trips, handling each one as a frequency-based or scheduled trip. */
+      for (TripData it : tripData) {
+        try {
+          buildTripPatternForTrip(it);
+          //noinspection Convert2MethodRef
+          progressLogger.step(m -> LOG.info(m));
+        } catch (DataValidationException e) {
+          issueStore.add(e.error());
+        }
       }
     }
 
@@ -126,11 +143,15 @@ public class GenerateTripPatternsOperation {
     }
   }
 
-  private void buildTripPatternForTrip(Trip trip) {
+  /**
+   * Validate the trip and create its stop pattern and trip times. This does not modify any shared
+   * state, except for the deduplicator which is thread-safe.
+   */
+  private TripData createTripData(Trip trip) {
     // TODO: move to a validator module
     if (!calendarServiceIds.contains(trip.getServiceId())) {
-      issueStore.add(new TripUndefinedService(trip));
-      return; // Invalid trip, skip it, it will break later
+      // Invalid trip, skip it, it will break later
+      return TripData.invalid(trip, new TripUndefinedService(trip));
     }
 
     List<StopTime> stopTimes = transitServiceBuilder.getStopTimesSortedByTrip().get(trip);
@@ -141,17 +162,34 @@ public class GenerateTripPatternsOperation {
     // flex trips are allowed to have a single stop because that can be an area or a group of stops
     var flexTripWithZeroStops = FlexTrip.containsFlexStops(stopTimes) && stopTimes.size() < 1;
     if (staticTripWithFewerThan2Stops || flexTripWithZeroStops) {
-      issueStore.add(new TripDegenerate(trip));
-      return;
+      return TripData.invalid(trip, new TripDegenerate(trip));
     }
 
-    // Get the existing TripPattern for this filtered StopPattern, or create one.
     StopPattern stopPattern = new StopPattern(stopTimes);
 
-    TripPatternBuilder tripPatternBuilder = findOrCreateTripPattern(stopPattern, trip);
+    try {
+      // Create a TripTimes object for this list of stoptimes, which form one trip.
+      TripTimes tripTimes = TripTimesFactory.tripTimes(trip, stopTimes, deduplicator);
+      return new TripData(trip, stopPattern, tripTimes, null, null);
+    } catch (DataValidationException e) {
+      return new TripData(trip, stopPattern, null, null, e);
+    }
+  }
+
+  private void buildTripPatternForTrip(TripData tripData) {
+    if (tripData.issue() != null) {
+      issueStore.add(tripData.issue());
+      return;
+    }
+    Trip trip = tripData.trip();
+
+    // Get the existing TripPattern for this filtered StopPattern, or create one.
+    TripPatternBuilder tripPatternBuilder = findOrCreateTripPattern(tripData.stopPattern(), trip);
 
-    // Create a TripTimes object for this list of stoptimes, which form one trip.
-    TripTimes tripTimes = TripTimesFactory.tripTimes(trip, stopTimes, deduplicator);
+    if (tripData.error() != null) {
+      throw tripData.error();
+    }
+    TripTimes tripTimes = tripData.tripTimes();
 
     // If this trip is referenced by one or more lines in frequencies.txt, wrap it in a FrequencyEntry.
     List<Frequency> frequencies = frequenciesForTrip.get(trip);
@@ -213,4 +251,21 @@ public class GenerateTripPatternsOperation {
 
     return new FeedScopedId(routeId.getFeedId(), id);
   }
+
+  /**
+   * The result of validating a trip and creating its stop pattern and trip times. If the trip is
+   * invalid, only the issue is set. If the trip times could not be created, the exception is kept
+   * and thrown when the trip is added to its pattern.
+   */
+  private record TripData(
+    Trip trip,
+    @Nullable StopPattern stopPattern,
+    @Nullable TripTimes tripTimes,
+    @Nullable DataImportIssue issue,
+    @Nullable DataValidationException error
+  ) {
+    static TripData invalid(Trip trip, DataImportIssue issue) {
+      return new TripData(trip, null, null, issue, null);
+    }
+  }
 }
@@ -26,6 +26,7 @@ import org.onebusaway.gtfs.model.ServiceCalendarDate;
 import org.onebusaway.gtfs.model.ShapePoint;
 import org.onebusaway.gtfs.model.Stop;
 import org.onebusaway.gtfs.model.StopArea;
+import org.onebusaway.gtfs.model.StopTime;
 import org.onebusaway.gtfs.model.Trip;
 import org.onebusaway.gtfs.serialization.GtfsReader;
 import org.onebusaway.gtfs.services.GenericMutableDao;
@@ -141,6 +142,10 @@ public class GtfsModule implements GraphBuilderModule {
         );
         mapper.mapStopTripAndRouteDataIntoBuilder();
 
+        // The stop times are by far the largest part of a feed. Once mapped they are no longer
+        // needed in the GTFS model, release them before the trip patterns are generated.
+        gtfsDao.clearAllEntitiesForType(StopTime.class);
+
         OtpTransitServiceBuilder builder = mapper.getBuilder();
         var fareRulesService = mapper.getFareRulesService();
 
@@ -164,7 +164,7 @@ public class GTFSToOtpTransitServiceMapper {
     }
 
     builder.getPathways().addAll(pathwayMapper.map(data.getAllPathways()));
-    builder.getStopTimesSortedByTrip().addAll(stopTimeMapper.map(data.getAllStopTimes()));
+    builder.getStopTimesSortedByTrip().addAll(stopTimeMapper.mapAll(data.getAllStopTimes()));
     builder.getFlexTimePenalty().putAll(tripMapper.flexSafeTimePenalties());
     builder.getTripsById().addAll(tripMapper.map(data.getAllTrips()));
 
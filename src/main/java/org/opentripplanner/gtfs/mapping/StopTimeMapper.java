@@ -1,13 +1,12 @@
 package org.opentripplanner.gtfs.mapping;
 
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.List;
 import java.util.Objects;
 import org.onebusaway.gtfs.model.Location;
 import org.onebusaway.gtfs.model.LocationGroup;
 import org.onebusaway.gtfs.model.Stop;
-import org.opentripplanner.framework.collection.MapUtils;
 import org.opentripplanner.framework.i18n.I18NString;
 import org.opentripplanner.model.StopTime;
 
@@ -25,8 +24,6 @@ class StopTimeMapper {
   private final TripMapper tripMapper;
   private final BookingRuleMapper bookingRuleMapper;
 
-  private final Map<org.onebusaway.gtfs.model.StopTime, StopTime> mappedStopTimes = new HashMap<>();
-
   private final TranslationHelper translationHelper;
 
   StopTimeMapper(
@@ -45,13 +42,22 @@ class StopTimeMapper {
     this.translationHelper = translationHelper;
   }
 
-  Collection<StopTime> map(Collection<org.onebusaway.gtfs.model.StopTime> times) {
-    return MapUtils.mapToList(times, this::map);
+  /**
+   * Map all stop times of a feed. The mapped stop times are not cached, each stop time is mapped
+   * exactly once during import, and a cache would keep every GTFS stop time reachable for as long
+   * as the mapper lives. This way the GTFS stop times can be released as soon as they are mapped.
+   */
+  List<StopTime> mapAll(Collection<org.onebusaway.gtfs.model.StopTime> times) {
+    List<StopTime> result = new ArrayList<>(times.size());
+    for (org.onebusaway.gtfs.model.StopTime it : times) {
+      result.add(doMap(it));
+    }
+    return result;
   }
 
   /** Map from GTFS to OTP model, {@code null} safe. */
   StopTime map(org.onebusaway.gtfs.model.StopTime orginal) {
-    return orginal == null ? null : mappedStopTimes.computeIfAbsent(orginal, this::doMap);
+    return orginal == null ? null : doMap(orginal);
   }
 
   private StopTime doMap(org.onebusaway.gtfs.model.StopTime rhs) {
@@ -2,25 +2,20 @@ package org.opentripplanner.model;
 
 import static org.opentripplanner.framework.collection.CollectionUtils.getByNullableKey;
 
-import com.google.common.collect.HashMultimap;
-import com.google.common.collect.ImmutableSetMultimap;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.ImmutableSortedSet;
-import com.google.common.collect.Multimap;
-import com.google.common.collect.SetMultimap;
 import java.time.LocalDate;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.ConcurrentModificationException;
-import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Iterator;
 import java.util.Map;
-import java.util.Map.Entry;
 import java.util.Set;
 import java.util.SortedSet;
 import java.util.TreeSet;
 import javax.annotation.Nullable;
+import org.opentripplanner.framework.collection.PersistentMap;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.mappers.TransitLayerUpdater;
 import org.opentripplanner.transit.model.framework.FeedScopedId;
 import org.opentripplanner.transit.model.framework.Result;
@@ -72,10 +67,14 @@ import org.slf4j.LoggerFactory;
  * transit network. It would also be possible to make the realtime version of Timetables or
  * TripTimes the primary view, and include references back to their scheduled versions.
  * <p>
- * Implementation note: when a snapshot is committed, the mutable state of this class is stored
- * in final fields and completely initialized in the constructor. This provides an additional
- * guarantee of safe-publication without synchronization.
- * (see <a href="https://docs.oracle.com/javase/specs/jls/se7/html/jls-17.html#jls-17.5">final Field Semantics</a>)
+ * Implementation note: the timetables and the indexes of realtime-added data are kept in
+ * {@link PersistentMap}s. Each change in the buffer replaces a map with a new version, sharing
+ * the unchanged parts with the previous one. A commit hands the current versions over to the
+ * read-only snapshot, so the cost of a commit does not grow with the amount of realtime data
+ * accumulated, only the updates themselves pay for the changes they make. The maps are immutable,
+ * but the fields holding them are not final, so a committed snapshot must be published with a
+ * happens-before relation to the readers, like the TimetableSnapshotManager does with
+ * {@link org.opentripplanner.routing.util.ConcurrentPublished}.
  */
 public class TimetableSnapshot {
 
@@ -104,7 +103,7 @@ public class TimetableSnapshot {
    * The compound key approach better reflects the fact that there should be only one Timetable per
    * TripPattern and date.
    */
-  private final Map<TripPattern, SortedSet<Timetable>> timetables;
+  private PersistentMap<TripPattern, SortedSet<Timetable>> timetables;
 
   /**
    * For cases where the trip pattern (sequence of stops visited) has been changed by a realtime
@@ -112,24 +111,24 @@ public class TimetableSnapshot {
    * trip ID and the service date.
    * TODO RT_AB: clarify if this is an index or the original source of truth.
    */
-  private final Map<TripIdAndServiceDate, TripPattern> realtimeAddedTripPattern;
+  private PersistentMap<TripIdAndServiceDate, TripPattern> realtimeAddedTripPattern;
 
   /**
    * This is an index of TripPatterns, not the primary collection. It tracks which TripPatterns
    * that were updated or newly created by realtime messages contain which stops. This allows them
    * to be readily found and included in API responses containing stop times at a specific stop.
-   * This is a SetMultimap, so that each pattern is only retained once per stop even if it's added
+   * The values are sets, so that each pattern is only retained once per stop even if it's added
    * more than once.
    * TODO RT_AB: More general handling of all realtime indexes outside primary data structures.
    */
-  private final SetMultimap<StopLocation, TripPattern> patternsForStop;
+  private PersistentMap<StopLocation, Set<TripPattern>> patternsForStop;
 
-  private final Map<FeedScopedId, Route> realtimeAddedRoutes;
-  private final Map<FeedScopedId, Trip> realTimeAddedTrips;
-  private final Map<Trip, TripPattern> realTimeAddedPatternForTrip;
-  private final Multimap<Route, TripPattern> realTimeAddedPatternsForRoute;
-  private final Map<FeedScopedId, TripOnServiceDate> realTimeAddedTripOnServiceDateById;
-  private final Map<TripIdAndServiceDate, TripOnServiceDate> realTimeAddedTripOnServiceDateForTripAndDay;
+  private PersistentMap<FeedScopedId, Route> realtimeAddedRoutes;
+  private PersistentMap<FeedScopedId, Trip> realTimeAddedTrips;
+  private PersistentMap<Trip, TripPattern> realTimeAddedPatternForTrip;
+  private PersistentMap<Route, Set<TripPattern>> realTimeAddedPatternsForRoute;
+  private PersistentMap<FeedScopedId, TripOnServiceDate> realTimeAddedTripOnServiceDateById;
+  private PersistentMap<TripIdAndServiceDate, TripOnServiceDate> realTimeAddedTripOnServiceDateForTripAndDay;
 
   /**
    * Boolean value indicating that timetable snapshot is read only if true. Once it is true, it
@@ -145,29 +144,29 @@ public class TimetableSnapshot {
 
   public TimetableSnapshot() {
     this(
-      new HashMap<>(),
-      new HashMap<>(),
-      new HashMap<>(),
-      new HashMap<>(),
-      new HashMap<>(),
-      HashMultimap.create(),
-      new HashMap<>(),
-      new HashMap<>(),
-      HashMultimap.create(),
+      PersistentMap.of(),
+      PersistentMap.of(),
+      PersistentMap.of(),
+      PersistentMap.of(),
+      PersistentMap.of(),
+      PersistentMap.of(),
+      PersistentMap.of(),
+      PersistentMap.of(),
+      PersistentMap.of(),
       false
     );
   }
 
   private TimetableSnapshot(
-    Map<TripPattern, SortedSet<Timetable>> timetables,
-    Map<TripIdAndServiceDate, TripPattern> realtimeAddedTripPattern,
-    Map<FeedScopedId, Route> realtimeAddedRoutes,
-    Map<FeedScopedId, Trip> realtimeAddedTrips,
-    Map<Trip, TripPattern> realTimeAddedPatternForTrip,
-    Multimap<Route, TripPattern> realTimeAddedPatternsForRoute,
-    Map<FeedScopedId, TripOnServiceDate> realTimeAddedTripOnServiceDateById,
-    Map<TripIdAndServiceDate, TripOnServiceDate> realTimeAddedTripOnServiceDateForTripAndDay,
-    SetMultimap<StopLocation, TripPattern> patternsForStop,
+    PersistentMap<TripPattern, SortedSet<Timetable>> timetables,
+    PersistentMap<TripIdAndServiceDate, TripPattern> realtimeAddedTripPattern,
+    PersistentMap<FeedScopedId, Route> realtimeAddedRoutes,
+    PersistentMap<FeedScopedId, Trip> realtimeAddedTrips,
+    PersistentMap<Trip, TripPattern> realTimeAddedPatternForTrip,
+    PersistentMap<Route, Set<TripPattern>> realTimeAddedPatternsForRoute,
+    PersistentMap<FeedScopedId, TripOnServiceDate> realTimeAddedTripOnServiceDateById,
+    PersistentMap<TripIdAndServiceDate, TripOnServiceDate> realTimeAddedTripOnServiceDateForTripAndDay,
+    PersistentMap<StopLocation, Set<TripPattern>> patternsForStop,
     boolean readOnly
   ) {
     this.timetables = timetables;
@@ -255,7 +254,7 @@ public class TimetableSnapshot {
    * Return the trip patterns created by the updater for the given route.
    */
   public Collection<TripPattern> getRealTimeAddedPatternForRoute(Route route) {
-    return realTimeAddedPatternsForRoute.get(route);
+    return realTimeAddedPatternsForRoute.getOrDefault(route, Set.of());
   }
 
   /**
@@ -311,7 +310,7 @@ public class TimetableSnapshot {
       // Remember this pattern for the added trip id and service date
       FeedScopedId tripId = trip.getId();
       TripIdAndServiceDate tripIdAndServiceDate = new TripIdAndServiceDate(tripId, serviceDate);
-      realtimeAddedTripPattern.put(tripIdAndServiceDate, pattern);
+      realtimeAddedTripPattern = realtimeAddedTripPattern.with(tripIdAndServiceDate, pattern);
     }
 
     // To make these trip patterns visible for departureRow searches.
@@ -320,21 +319,23 @@ public class TimetableSnapshot {
     Route route = trip.getRoute();
 
     if (realTimeTripUpdate.routeCreation()) {
-      realtimeAddedRoutes.put(route.getId(), route);
+      realtimeAddedRoutes = realtimeAddedRoutes.with(route.getId(), route);
     }
     if (realTimeTripUpdate.tripCreation()) {
       FeedScopedId tripId = trip.getId();
-      realTimeAddedTrips.put(tripId, trip);
-      realTimeAddedPatternForTrip.put(trip, pattern);
-      realTimeAddedPatternsForRoute.put(route, pattern);
+      realTimeAddedTrips = realTimeAddedTrips.with(tripId, trip);
+      realTimeAddedPatternForTrip = realTimeAddedPatternForTrip.with(trip, pattern);
+      realTimeAddedPatternsForRoute = addToSet(realTimeAddedPatternsForRoute, route, pattern);
       TripOnServiceDate tripOnServiceDate = realTimeTripUpdate.addedTripOnServiceDate();
 
       if (tripOnServiceDate != null) {
-        realTimeAddedTripOnServiceDateById.put(tripOnServiceDate.getId(), tripOnServiceDate);
-        realTimeAddedTripOnServiceDateForTripAndDay.put(
-          new TripIdAndServiceDate(tripId, serviceDate),
-          tripOnServiceDate
-        );
+        realTimeAddedTripOnServiceDateById =
+          realTimeAddedTripOnServiceDateById.with(tripOnServiceDate.getId(), tripOnServiceDate);
+        realTimeAddedTripOnServiceDateForTripAndDay =
+          realTimeAddedTripOnServiceDateForTripAndDay.with(
+            new TripIdAndServiceDate(tripId, serviceDate),
+            tripOnServiceDate
+          );
       }
     }
 
@@ -344,12 +345,11 @@ public class TimetableSnapshot {
   }
 
   /**
-   * This produces a small delay of typically around 50ms, which is almost entirely due to the
-   * indexing step. Cloning the map is much faster (2ms). It is perhaps better to index timetables
-   * as they are changed to avoid experiencing all this lag at once, but we want to avoid
-   * re-indexing when receiving multiple updates for the same timetable in rapid succession. This
-   * compromise is expressed by the maxSnapshotFrequency property of StoptimeUpdater. The indexing
-   * could be made much more efficient as well.
+   * The maps are persistent, so the committed snapshot shares them with this buffer and nothing is
+   * copied. The remaining cost is in the TransitLayerUpdater, which indexes the dirty timetables.
+   * We want to avoid re-indexing when receiving multiple updates for the same timetable in rapid
+   * succession. This compromise is expressed by the maxSnapshotFrequency property of
+   * StoptimeUpdater.
    *
    * @return an immutable copy of this TimetableSnapshot with all updates applied
    */
@@ -357,7 +357,6 @@ public class TimetableSnapshot {
     return commit(null, false);
   }
 
-  @SuppressWarnings("unchecked")
   public TimetableSnapshot commit(TransitLayerUpdater transitLayerUpdater, boolean force) {
     if (readOnly) {
       throw new ConcurrentModificationException("This TimetableSnapshot is read-only.");
@@ -367,20 +366,20 @@ public class TimetableSnapshot {
       return null;
     }
     TimetableSnapshot ret = new TimetableSnapshot(
-      Map.copyOf(timetables),
-      Map.copyOf(realtimeAddedTripPattern),
-      Map.copyOf(realtimeAddedRoutes),
-      Map.copyOf(realTimeAddedTrips),
-      Map.copyOf(realTimeAddedPatternForTrip),
-      ImmutableSetMultimap.copyOf(realTimeAddedPatternsForRoute),
-      Map.copyOf(realTimeAddedTripOnServiceDateById),
-      Map.copyOf(realTimeAddedTripOnServiceDateForTripAndDay),
-      ImmutableSetMultimap.copyOf(patternsForStop),
+      timetables,
+      realtimeAddedTripPattern,
+      realtimeAddedRoutes,
+      realTimeAddedTrips,
+      realTimeAddedPatternForTrip,
+      realTimeAddedPatternsForRoute,
+      realTimeAddedTripOnServiceDateById,
+      realTimeAddedTripOnServiceDateForTripAndDay,
+      patternsForStop,
       true
     );
 
     if (transitLayerUpdater != null) {
-      transitLayerUpdater.update(dirtyTimetables, timetables);
+      transitLayerUpdater.update(ret, dirtyTimetables, timetables);
     }
 
     this.dirtyTimetables.clear();
@@ -430,7 +429,8 @@ public class TimetableSnapshot {
     if (pattern != null) {
       // Dissociate the given trip from any realtime-added pattern.
       // The trip will then fall back to its original scheduled pattern.
-      realtimeAddedTripPattern.remove(new TripIdAndServiceDate(tripId, serviceDate));
+      realtimeAddedTripPattern =
+        realtimeAddedTripPattern.without(new TripIdAndServiceDate(tripId, serviceDate));
       // Remove times for the trip from any timetables
       // under that now-obsolete realtime-added pattern.
       SortedSet<Timetable> sortedTimetables = this.timetables.get(pattern);
@@ -477,41 +477,32 @@ public class TimetableSnapshot {
       throw new ConcurrentModificationException("This TimetableSnapshot is read-only.");
     }
 
-    boolean modified = false;
-    for (Iterator<TripPattern> it = timetables.keySet().iterator(); it.hasNext();) {
-      TripPattern pattern = it.next();
-      SortedSet<Timetable> sortedTimetables = timetables.get(pattern);
+    var oldTimetables = timetables;
+    for (Map.Entry<TripPattern, SortedSet<Timetable>> entry : oldTimetables.entrySet()) {
+      SortedSet<Timetable> sortedTimetables = entry.getValue();
       SortedSet<Timetable> toKeepTimetables = new TreeSet<>(new SortedTimetableComparator());
       for (Timetable timetable : sortedTimetables) {
         if (serviceDate.compareTo(timetable.getServiceDate()) < 0) {
           toKeepTimetables.add(timetable);
-        } else {
-          modified = true;
         }
       }
 
       if (toKeepTimetables.isEmpty()) {
-        it.remove();
-      } else {
-        timetables.put(pattern, ImmutableSortedSet.copyOfSorted(toKeepTimetables));
+        timetables = timetables.without(entry.getKey());
+      } else if (toKeepTimetables.size() < sortedTimetables.size()) {
+        timetables =
+          timetables.with(entry.getKey(), ImmutableSortedSet.copyOfSorted(toKeepTimetables));
       }
     }
 
     // Also remove last added trip pattern for days that are purged
-    for (
-      Iterator<Entry<TripIdAndServiceDate, TripPattern>> iterator = realtimeAddedTripPattern
-        .entrySet()
-        .iterator();
-      iterator.hasNext();
-    ) {
-      TripIdAndServiceDate tripIdAndServiceDate = iterator.next().getKey();
-      if (serviceDate.compareTo(tripIdAndServiceDate.serviceDate()) >= 0) {
-        iterator.remove();
-        modified = true;
-      }
-    }
+    var oldRealtimeAddedTripPattern = realtimeAddedTripPattern;
+    realtimeAddedTripPattern =
+      realtimeAddedTripPattern.withoutKeys(tripIdAndServiceDate ->
+        serviceDate.compareTo(tripIdAndServiceDate.serviceDate()) >= 0
+      );
 
-    return modified;
+    return timetables != oldTimetables || realtimeAddedTripPattern != oldRealtimeAddedTripPattern;
   }
 
   public boolean isDirty() {
@@ -527,7 +518,7 @@ public class TimetableSnapshot {
   }
 
   public Collection<TripPattern> getPatternsForStop(StopLocation stop) {
-    return patternsForStop.get(stop);
+    return patternsForStop.getOrDefault(stop, Set.of());
   }
 
   /**
@@ -544,7 +535,9 @@ public class TimetableSnapshot {
    * @return true if the timetable changed as a result of the call
    */
   private boolean clearTimetable(String feedId) {
-    return timetables.keySet().removeIf(tripPattern -> feedId.equals(tripPattern.getFeedId()));
+    var oldTimetables = timetables;
+    timetables = timetables.withoutKeys(tripPattern -> feedId.equals(tripPattern.getFeedId()));
+    return timetables != oldTimetables;
   }
 
   /**
@@ -554,11 +547,12 @@ public class TimetableSnapshot {
    * @return true if the realtimeAddedTripPattern changed as a result of the call
    */
   private boolean clearRealtimeAddedTripPattern(String feedId) {
-    return realtimeAddedTripPattern
-      .keySet()
-      .removeIf(realtimeAddedTripPattern ->
-        feedId.equals(realtimeAddedTripPattern.tripId().getFeedId())
+    var oldRealtimeAddedTripPattern = realtimeAddedTripPattern;
+    realtimeAddedTripPattern =
+      realtimeAddedTripPattern.withoutKeys(tripIdAndServiceDate ->
+        feedId.equals(tripIdAndServiceDate.tripId().getFeedId())
       );
+    return realtimeAddedTripPattern != oldRealtimeAddedTripPattern;
   }
 
   /**
@@ -569,11 +563,27 @@ public class TimetableSnapshot {
       //TODO - SIRI: Add pattern to index?
 
       for (var stop : tripPattern.getStops()) {
-        patternsForStop.put(stop, tripPattern);
+        patternsForStop = addToSet(patternsForStop, stop, tripPattern);
       }
     }
   }
 
+  /**
+   * Add the value to the set for the key. The sets are immutable, and are copied when a value is
+   * added. This is cheap as long as there are only a few values for each key.
+   */
+  private static <K, V> PersistentMap<K, Set<V>> addToSet(
+    PersistentMap<K, Set<V>> map,
+    K key,
+    V value
+  ) {
+    Set<V> values = map.getOrDefault(key, Set.of());
+    if (values.contains(value)) {
+      return map;
+    }
+    return map.with(key, ImmutableSet.<V>builder().addAll(values).add(value).build());
+  }
+
   /**
    * Replace the original Timetable by the updated one in the timetable index.
    * The SortedSet that holds the collection of Timetables for that pattern
@@ -599,7 +609,7 @@ public class TimetableSnapshot {
       sortedTimetables.remove(original);
     }
     sortedTimetables.add(updated);
-    timetables.put(pattern, ImmutableSortedSet.copyOfSorted(sortedTimetables));
+    timetables = timetables.with(pattern, ImmutableSortedSet.copyOfSorted(sortedTimetables));
     dirtyTimetables.add(updated);
     dirty = true;
   }
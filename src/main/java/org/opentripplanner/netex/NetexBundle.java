@@ -1,9 +1,7 @@
 package org.opentripplanner.netex;
 
-import jakarta.xml.bind.JAXBException;
 import java.io.Closeable;
 import java.io.IOException;
-import java.util.List;
 import java.util.Set;
 import org.opentripplanner.datastore.api.CompositeDataSource;
 import org.opentripplanner.datastore.api.DataSource;
@@ -98,7 +96,11 @@ public class NetexBundle implements Closeable {
       );
 
     // Load data
-    loadFileEntries();
+    try {
+      loadFileEntries();
+    } finally {
+      xmlParser.close();
+    }
 
     return transitBuilder;
   }
@@ -128,12 +130,16 @@ public class NetexBundle implements Closeable {
         // Load shared group files
         loadFilesThenMapToOtpTransitModel("shared group file", group.sharedEntries());
 
-        for (DataSource entry : group.independentEntries()) {
-          scopeInputData(() -> {
-            // Load each independent file in group
-            loadFilesThenMapToOtpTransitModel("group file", List.of(entry));
-          });
-        }
+        // Load each independent file in group, the files are parsed in parallel ahead of
+        // the mapping, but indexed and mapped one by one in order
+        xmlParser.parseInOrder(
+          group.independentEntries(),
+          (entry, doc) ->
+            scopeInputData(() -> {
+              populateIndex("group file", entry, doc);
+              validateAndMapToOtpTransitModel();
+            })
+        );
       });
     }
     mapper.finishUp();
@@ -162,11 +168,12 @@ public class NetexBundle implements Closeable {
     String fileDescription,
     Iterable<DataSource> entries
   ) {
-    for (DataSource entry : entries) {
-      // Load entry and store it in the index
-      loadSingeFileEntry(fileDescription, entry);
-    }
+    // Load entries and store them in the index
+    xmlParser.parseInOrder(entries, (entry, doc) -> populateIndex(fileDescription, entry, doc));
+    validateAndMapToOtpTransitModel();
+  }
 
+  private void validateAndMapToOtpTransitModel() {
     // Validate input data, and remove invalid data
     Validator.validate(index, issueStore);
 
@@ -174,15 +181,16 @@ public class NetexBundle implements Closeable {
     mapper.mapNetexToOtp(index.readOnlyView());
   }
 
-  /** Load a single entry and store it in the index for later */
-  private void loadSingeFileEntry(String fileDescription, DataSource entry) {
+  /** Store the entities of a single parsed entry in the index for later */
+  private void populateIndex(
+    String fileDescription,
+    DataSource entry,
+    PublicationDeliveryStructure doc
+  ) {
     try {
       LOG.info("reading entity {}: {}", fileDescription, entry.name());
       issueStore.startProcessingSource(entry.name());
-      PublicationDeliveryStructure doc = xmlParser.parseXmlDoc(entry.asInputStream());
       NetexDocumentParser.parseAndPopulateIndex(index, doc, ignoredFeatures);
-    } catch (JAXBException e) {
-      throw new RuntimeException(e.getMessage(), e);
     } finally {
       issueStore.stopProcessingSource();
     }
@@ -0,0 +1,56 @@
+package org.opentripplanner.netex.loader;
+
+import jakarta.xml.bind.Unmarshaller;
+import java.util.HashMap;
+import java.util.Map;
+import org.rutebanken.netex.model.EntityInVersionStructure;
+import org.rutebanken.netex.model.TimetabledPassingTime;
+import org.rutebanken.netex.model.VersionOfObjectRefStructure;
+
+/**
+ * JAXB creates a new object for every value it unmarshals. In timetable files most of these values
+ * are repeated again and again: all service journeys of a journey pattern reference the same
+ * stop points, most entities have the same version and passing times are limited to a few
+ * thousand distinct clock times. This listener replaces the repeated values with one canonical
+ * instance while the document is unmarshalled, before the duplicates have a chance to pile up in
+ * the heap.
+ * <p>
+ * The canonical values are kept for one document only, call {@link #reset()} before reading the
+ * next one. This class is not thread-safe, each unmarshaller needs its own instance.
+ */
+class CanonicalValueListener extends Unmarshaller.Listener {
+
+  private final Map<Object, Object> values = new HashMap<>();
+
+  void reset() {
+    values.clear();
+  }
+
+  @Override
+  public void afterUnmarshal(Object target, Object parent) {
+    if (target instanceof TimetabledPassingTime time) {
+      time.setArrivalTime(canonical(time.getArrivalTime()));
+      time.setArrivalDayOffset(canonical(time.getArrivalDayOffset()));
+      time.setDepartureTime(canonical(time.getDepartureTime()));
+      time.setDepartureDayOffset(canonical(time.getDepartureDayOffset()));
+      time.setEarliestDepartureTime(canonical(time.getEarliestDepartureTime()));
+      time.setEarliestDepartureDayOffset(canonical(time.getEarliestDepartureDayOffset()));
+      time.setLatestArrivalTime(canonical(time.getLatestArrivalTime()));
+      time.setLatestArrivalDayOffset(canonical(time.getLatestArrivalDayOffset()));
+    }
+    if (target instanceof VersionOfObjectRefStructure ref) {
+      ref.setRef(canonical(ref.getRef()));
+      ref.setVersion(canonical(ref.getVersion()));
+    } else if (target instanceof EntityInVersionStructure entity) {
+      entity.setVersion(canonical(entity.getVersion()));
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private <T> T canonical(T value) {
+    if (value == null) {
+      return null;
+    }
+    return (T) values.computeIfAbsent(value, v -> v);
+  }
+}
@@ -1,20 +1,69 @@
 package org.opentripplanner.netex.loader;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import jakarta.xml.bind.JAXBContext;
 import jakarta.xml.bind.JAXBElement;
 import jakarta.xml.bind.JAXBException;
 import jakarta.xml.bind.Unmarshaller;
+import java.io.Closeable;
 import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.BiConsumer;
+import org.opentripplanner.datastore.api.DataSource;
 import org.rutebanken.netex.model.PublicationDeliveryStructure;
 
-/** Simple wrapper to perform typesafe xml parsing and simple error handling. */
-public class NetexXmlParser {
+/**
+ * Simple wrapper to perform typesafe xml parsing and simple error handling.
+ * <p>
+ * THIS CLASS IS MULTI-THREADED. Documents passed to {@link #parseInOrder(Iterable, BiConsumer)}
+ * are unmarshalled in parallel, each thread using its own unmarshaller, while the caller receives
+ * them one by one in the original order.
+ */
+public class NetexXmlParser implements Closeable {
 
-  /** used to parse the XML. */
-  private final Unmarshaller unmarshaller;
+  /**
+   * The default number of parser threads, and so of documents parsed ahead, is capped. Each
+   * unmarshalled document is kept in memory until the mapper has indexed it, on top of the index.
+   * More threads would use more memory for the documents waiting, while the gain is limited since
+   * the mapping of the documents is done by one thread.
+   */
+  private static final int MAX_DEFAULT_THREADS = 4;
+
+  /** The context is thread-safe and expensive to create, so it is shared. */
+  private static final JAXBContext CONTEXT = createContext();
+
+  /** Unmarshallers are not thread-safe, each thread gets its own. */
+  private final ThreadLocal<Unmarshaller> unmarshaller = ThreadLocal.withInitial(
+    NetexXmlParser::createUnmarshaller
+  );
+
+  private final ExecutorService executor;
+
+  /**
+   * The number of documents parsed ahead of the one the caller is processing. This bounds the
+   * number of parsed documents kept in memory.
+   */
+  private final int maxDocumentsAhead;
 
   public NetexXmlParser() {
-    this.unmarshaller = createUnmarshaller();
+    this(Math.min(Runtime.getRuntime().availableProcessors(), MAX_DEFAULT_THREADS));
+  }
+
+  public NetexXmlParser(int nThreads) {
+    this.maxDocumentsAhead = nThreads;
+    this.executor =
+      nThreads > 1
+        ? Executors.newFixedThreadPool(
+          nThreads,
+          new ThreadFactoryBuilder().setNameFormat("netex-parser-%d").setDaemon(true).build()
+        )
+        : null;
   }
 
   /**
@@ -22,22 +71,100 @@ public class NetexXmlParser {
    */
   public PublicationDeliveryStructure parseXmlDoc(InputStream stream) throws JAXBException {
     JAXBElement<PublicationDeliveryStructure> root;
+    Unmarshaller u = unmarshaller.get();
+    var listener = (CanonicalValueListener) u.getListener();
 
-    //noinspection unchecked
-    root = (JAXBElement<PublicationDeliveryStructure>) unmarshaller.unmarshal(stream);
-
+    try {
+      //noinspection unchecked
+      root = (JAXBElement<PublicationDeliveryStructure>) u.unmarshal(stream);
+    } finally {
+      listener.reset();
+    }
     return root.getValue();
   }
 
-  /** factory method for unmarshaller */
-  private static Unmarshaller createUnmarshaller() {
+  /**
+   * Parse the given entries and pass each document to the consumer, in the same order as the
+   * entries. The documents are parsed in parallel ahead of the consumer, but the consumer is
+   * always called by the calling thread.
+   */
+  public void parseInOrder(
+    Iterable<DataSource> entries,
+    BiConsumer<DataSource, PublicationDeliveryStructure> consumer
+  ) {
+    if (executor == null) {
+      for (DataSource entry : entries) {
+        consumer.accept(entry, parse(entry));
+      }
+      return;
+    }
+    Iterator<DataSource> it = entries.iterator();
+    Deque<ParseTask> pending = new ArrayDeque<>();
     try {
-      return JAXBContext.newInstance(PublicationDeliveryStructure.class).createUnmarshaller();
+      while (it.hasNext() || !pending.isEmpty()) {
+        while (it.hasNext() && pending.size() < maxDocumentsAhead) {
+          DataSource entry = it.next();
+          pending.add(new ParseTask(entry, executor.submit(() -> parse(entry))));
+        }
+        ParseTask next = pending.poll();
+        consumer.accept(next.entry(), next.await());
+      }
+    } finally {
+      pending.forEach(task -> task.result().cancel(true));
+    }
+  }
+
+  @Override
+  public void close() {
+    if (executor != null) {
+      executor.shutdownNow();
+    }
+  }
+
+  private PublicationDeliveryStructure parse(DataSource entry) {
+    try {
+      return parseXmlDoc(entry.asInputStream());
+    } catch (JAXBException e) {
+      throw new RuntimeException(e.getMessage(), e);
+    }
+  }
+
+  /** factory method for the context */
+  private static JAXBContext createContext() {
+    try {
+      return JAXBContext.newInstance(PublicationDeliveryStructure.class);
     } catch (JAXBException e) {
       // This is a programming error - not expected!
-      // We abort early and also allow for this to happen in the constructor;
+      // We abort early and also allow for this to happen in the static initializer;
       // Which in other cases would be considered bad practice.
       throw new RuntimeException(e);
     }
   }
+
+  /** factory method for unmarshaller */
+  private static Unmarshaller createUnmarshaller() {
+    try {
+      Unmarshaller unmarshaller = CONTEXT.createUnmarshaller();
+      unmarshaller.setListener(new CanonicalValueListener());
+      return unmarshaller;
+    } catch (JAXBException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  private record ParseTask(DataSource entry, Future<PublicationDeliveryStructure> result) {
+    PublicationDeliveryStructure await() {
+      try {
+        return result.get();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new RuntimeException(e);
+      } catch (ExecutionException e) {
+        if (e.getCause() instanceof RuntimeException re) {
+          throw re;
+        }
+        throw new RuntimeException(e.getCause());
+      }
+    }
+  }
 }
@@ -66,6 +66,7 @@ class OpenStreetMapParser extends BinaryParser {
       OSMRelation tmp = new OSMRelation();
       tmp.setId(i.getId());
       tmp.setOsmProvider(provider);
+      tmp.setTagDictionary(osmdb.getTagDictionary());
 
       for (int j = 0; j < i.getKeysCount(); j++) {
         OSMTag tag = new OSMTag();
@@ -125,6 +126,7 @@ class OpenStreetMapParser extends BinaryParser {
 
       tmp.setId(id);
       tmp.setOsmProvider(provider);
+      tmp.setTagDictionary(osmdb.getTagDictionary());
       tmp.lat = latf;
       tmp.lon = lonf;
 
@@ -158,6 +160,7 @@ class OpenStreetMapParser extends BinaryParser {
       OSMNode tmp = new OSMNode();
       tmp.setId(i.getId());
       tmp.setOsmProvider(provider);
+      tmp.setTagDictionary(osmdb.getTagDictionary());
       tmp.lat = parseLat(i.getLat());
       tmp.lon = parseLon(i.getLon());
 
@@ -185,6 +188,7 @@ class OpenStreetMapParser extends BinaryParser {
       OSMWay tmp = new OSMWay();
       tmp.setId(i.getId());
       tmp.setOsmProvider(provider);
+      tmp.setTagDictionary(osmdb.getTagDictionary());
 
       for (int j = 0; j < i.getKeysCount(); j++) {
         OSMTag tag = new OSMTag();
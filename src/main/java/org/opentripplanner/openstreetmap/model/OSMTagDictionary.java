@@ -0,0 +1,75 @@
+package org.opentripplanner.openstreetmap.model;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Interns OSM tag keys and values into dense integer ids. OSM extracts contain a huge number of
+ * tags, but only a few distinct keys and a limited number of distinct values, so storing the ids
+ * instead of the strings on every entity saves a lot of memory during the graph build. Comparing
+ * two ids is also a lot cheaper than comparing two strings.
+ * <p>
+ * Each {@link org.opentripplanner.graph_builder.module.osm.OsmDatabase} has its own dictionary,
+ * which is shared by all the entities loaded into it, so the strings can be garbage collected
+ * together with the OSM data. Ids are only comparable between entities using the same dictionary.
+ * The dictionary is safe to use from several threads.
+ */
+public final class OSMTagDictionary {
+
+  /** Returned by {@link #idOf(String)} if the string is not in the dictionary. */
+  public static final int NOT_FOUND = -1;
+
+  private final Map<String, Integer> ids = new ConcurrentHashMap<>();
+
+  private volatile String[] values = new String[1024];
+
+  private int size = 0;
+
+  /**
+   * Return the id of the given string, adding it to the dictionary if it is not already there.
+   */
+  public int intern(String value) {
+    Integer id = ids.get(value);
+    return id != null ? id : add(value);
+  }
+
+  /**
+   * Return the id of the given string or {@link #NOT_FOUND}. Use this for lookups, it does not
+   * grow the dictionary.
+   */
+  public int idOf(String value) {
+    Integer id = ids.get(value);
+    return id == null ? NOT_FOUND : id;
+  }
+
+  /**
+   * Return the string for the given id.
+   */
+  public String get(int id) {
+    return values[id];
+  }
+
+  /**
+   * The number of strings in the dictionary.
+   */
+  public int size() {
+    return ids.size();
+  }
+
+  private synchronized int add(String value) {
+    Integer id = ids.get(value);
+    if (id != null) {
+      return id;
+    }
+    String[] current = values;
+    if (size == current.length) {
+      current = Arrays.copyOf(current, current.length * 2);
+    }
+    current[size] = value;
+    // Publish the array before the id, a thread that sees the id must also see the value
+    values = current;
+    ids.put(value, size);
+    return size++;
+  }
+}
@@ -1,6 +1,7 @@
 package org.opentripplanner.openstreetmap.model;
 
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
@@ -8,6 +9,7 @@ import java.util.Optional;
 import java.util.OptionalInt;
 import java.util.Set;
 import java.util.function.Consumer;
+import java.util.function.Predicate;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -49,8 +51,18 @@ public class OSMWithTags {
   private static final Set<String> LEVEL_TAGS = Set.of("level", "layer");
   private static final Set<String> DEFAULT_LEVEL = Set.of("0");
 
-  /* To save memory this is only created when an entity actually has tags. */
-  private Map<String, String> tags;
+  /**
+   * The tags as pairs of key and value ids from the {@link #tagDictionary}, sorted by key id:
+   * {@code [key0, value0, key1, value1, ...]}. To save memory this is only created when an entity
+   * actually has tags.
+   */
+  private int[] tags;
+
+  /**
+   * The dictionary of the tag ids, set by the parser to the dictionary of the {@code OsmDatabase}.
+   * An entity created without one gets its own dictionary when the first tag is added.
+   */
+  private OSMTagDictionary tagDictionary;
 
   protected long id;
 
@@ -84,9 +96,7 @@ public class OSMWithTags {
    * Adds a tag.
    */
   public void addTag(OSMTag tag) {
-    if (tags == null) tags = new HashMap<>();
-
-    tags.put(tag.getK().toLowerCase(), tag.getV());
+    addTag(tag.getK(), tag.getV());
   }
 
   /**
@@ -97,27 +107,75 @@ public class OSMWithTags {
       return this;
     }
 
+    if (tagDictionary == null) {
+      tagDictionary = new OSMTagDictionary();
+    }
+    int keyId = tagDictionary.intern(key.toLowerCase());
+    int valueId = tagDictionary.intern(value);
+
     if (tags == null) {
-      tags = new HashMap<>();
+      tags = new int[] { keyId, valueId };
+      return this;
     }
 
-    tags.put(key.toLowerCase(), value);
+    int i = 0;
+    while (i < tags.length && tags[i] < keyId) {
+      i += 2;
+    }
+    if (i < tags.length && tags[i] == keyId) {
+      tags[i + 1] = valueId;
+      return this;
+    }
+    int[] newTags = new int[tags.length + 2];
+    System.arraycopy(tags, 0, newTags, 0, i);
+    newTags[i] = keyId;
+    newTags[i + 1] = valueId;
+    System.arraycopy(tags, i, newTags, i + 2, tags.length - i);
+    tags = newTags;
     return this;
   }
 
   /**
-   * The tags of an entity.
+   * The tags of an entity. The map is created on every call, use {@link #getTag(String)} if you
+   * only need to look up a few tags.
    */
   public Map<String, String> getTags() {
-    return Objects.requireNonNullElse(tags, Map.of());
+    if (tags == null) {
+      return Map.of();
+    }
+    Map<String, String> map = new HashMap<>();
+    for (int i = 0; i < tags.length; i += 2) {
+      map.put(tagDictionary.get(tags[i]), tagDictionary.get(tags[i + 1]));
+    }
+    return Collections.unmodifiableMap(map);
+  }
+
+  /**
+   * The tags of this entity as interned key and value ids, restricted to the keys accepted by the
+   * given filter. The result is sorted by key id, so two entities that use the same
+   * {@link #getTagDictionary()} and have the same tags for the accepted keys return equal arrays.
+   * This can be used to memoise any computation which only looks at those keys.
+   */
+  public int[] getTagIds(Predicate<String> keyFilter) {
+    if (tags == null) {
+      return new int[0];
+    }
+    int[] result = new int[tags.length];
+    int n = 0;
+    for (int i = 0; i < tags.length; i += 2) {
+      if (keyFilter.test(tagDictionary.get(tags[i]))) {
+        result[n++] = tags[i];
+        result[n++] = tags[i + 1];
+      }
+    }
+    return n == result.length ? result : Arrays.copyOf(result, n);
   }
 
   /**
    * Is the tag defined?
    */
   public boolean hasTag(String tag) {
-    tag = tag.toLowerCase();
-    return tags != null && tags.containsKey(tag);
+    return valueIdOf(tag) != OSMTagDictionary.NOT_FOUND;
   }
 
   /**
@@ -188,11 +246,8 @@ public class OSMWithTags {
   /** @return a tag's value, converted to lower case. */
   @Nullable
   public String getTag(String tag) {
-    tag = tag.toLowerCase();
-    if (tags != null && tags.containsKey(tag)) {
-      return tags.get(tag);
-    }
-    return null;
+    int valueId = valueIdOf(tag);
+    return valueId == OSMTagDictionary.NOT_FOUND ? null : tagDictionary.get(valueId);
   }
 
   /**
@@ -224,12 +279,12 @@ public class OSMWithTags {
    * Checks is a tag contains the specified value.
    */
   public boolean isTag(String tag, String value) {
-    tag = tag.toLowerCase();
-    if (tags != null && tags.containsKey(tag) && value != null) {
-      return value.equals(tags.get(tag));
+    if (value == null) {
+      return false;
     }
-
-    return false;
+    int valueId = valueIdOf(tag);
+    // Values are interned, so if the value is present its id must match
+    return valueId != OSMTagDictionary.NOT_FOUND && valueId == tagDictionary.idOf(value);
   }
 
   /**
@@ -247,20 +302,20 @@ public class OSMWithTags {
     if (tags == null) {
       return null;
     }
-    if (tags.containsKey("name")) {
+    if (hasTag("name")) {
       return TranslatedString.getI18NString(this.generateI18NForPattern("{name}"), true, false);
     }
-    if (tags.containsKey("otp:route_name")) {
-      return new NonLocalizedString(tags.get("otp:route_name"));
+    if (hasTag("otp:route_name")) {
+      return new NonLocalizedString(getTag("otp:route_name"));
     }
     if (this.creativeName != null) {
       return this.creativeName;
     }
-    if (tags.containsKey("otp:route_ref")) {
-      return new NonLocalizedString(tags.get("otp:route_ref"));
+    if (hasTag("otp:route_ref")) {
+      return new NonLocalizedString(getTag("otp:route_ref"));
     }
-    if (tags.containsKey("ref")) {
-      return new NonLocalizedString(tags.get("ref"));
+    if (hasTag("ref")) {
+      return new NonLocalizedString(getTag("ref"));
     }
     return null;
   }
@@ -321,11 +376,14 @@ public class OSMWithTags {
   }
 
   public Map<String, String> getTagsByPrefix(String prefix) {
+    if (tags == null) {
+      return null;
+    }
     Map<String, String> out = new HashMap<>();
-    for (Map.Entry<String, String> entry : tags.entrySet()) {
-      String k = entry.getKey();
+    for (int i = 0; i < tags.length; i += 2) {
+      String k = tagDictionary.get(tags[i]);
       if (k.equals(prefix) || k.startsWith(prefix + ":")) {
-        out.put(k, entry.getValue());
+        out.put(k, tagDictionary.get(tags[i + 1]));
       }
     }
     if (out.isEmpty()) {
@@ -533,6 +591,26 @@ public class OSMWithTags {
     this.osmProvider = provider;
   }
 
+  /**
+   * The dictionary of the ids returned by {@link #getTagIds(Predicate)}, or null if none is set
+   * and no tags are added.
+   */
+  @Nullable
+  public OSMTagDictionary getTagDictionary() {
+    return tagDictionary;
+  }
+
+  /**
+   * Use the given dictionary for the tags of this entity. This must be set before any tags are
+   * added.
+   */
+  public void setTagDictionary(OSMTagDictionary tagDictionary) {
+    if (tags != null) {
+      throw new IllegalStateException("The tag dictionary must be set before adding tags");
+    }
+    this.tagDictionary = tagDictionary;
+  }
+
   /**
    * Determines whether this OSM way is considered routable. The majority of routable ways are those
    * with a highway= tag (which includes everything from motorways to hiking trails). Anything with
@@ -717,6 +795,29 @@ public class OSMWithTags {
 
   @Override
   public String toString() {
-    return ToStringBuilder.of(this.getClass()).addObj("tags", tags).toString();
+    return ToStringBuilder
+      .of(this.getClass())
+      .addObj("tags", tags == null ? null : getTags())
+      .toString();
+  }
+
+  /**
+   * Return the value id of the given tag or {@link OSMTagDictionary#NOT_FOUND} if the entity does
+   * not have the tag.
+   */
+  private int valueIdOf(String tag) {
+    if (tags == null) {
+      return OSMTagDictionary.NOT_FOUND;
+    }
+    int keyId = tagDictionary.idOf(tag.toLowerCase());
+    if (keyId == OSMTagDictionary.NOT_FOUND) {
+      return OSMTagDictionary.NOT_FOUND;
+    }
+    for (int i = 0; i < tags.length && tags[i] <= keyId; i += 2) {
+      if (tags[i] == keyId) {
+        return tags[i + 1];
+      }
+    }
+    return OSMTagDictionary.NOT_FOUND;
   }
 }
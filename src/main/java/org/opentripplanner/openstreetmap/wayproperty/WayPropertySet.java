@@ -4,17 +4,20 @@ import static org.opentripplanner.openstreetmap.wayproperty.WayPropertiesBuilder
 import static org.opentripplanner.street.model.StreetTraversalPermission.ALL;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import org.opentripplanner.framework.functional.FunctionUtils.TriFunction;
 import org.opentripplanner.framework.i18n.I18NString;
 import org.opentripplanner.graph_builder.issue.api.DataImportIssueStore;
+import org.opentripplanner.openstreetmap.model.OSMTagDictionary;
 import org.opentripplanner.openstreetmap.model.OSMWithTags;
 import org.opentripplanner.openstreetmap.wayproperty.specifier.BestMatchSpecifier;
 import org.opentripplanner.openstreetmap.wayproperty.specifier.OsmSpecifier;
@@ -77,6 +80,20 @@ public class WayPropertySet {
 
   private final List<MixinProperties> mixins = new ArrayList<>();
 
+  /**
+   * The best matching pickers and mixins per unique combination of relevant tags. Most ways share
+   * the same tag combination, so the specifiers only need to be evaluated once per combination.
+   * The keys refer to the tag dictionary of the ways, so the cache is cleared when a picker or
+   * mixin is added and when the OSM data is no longer needed.
+   */
+  private final Map<TagSetKey, PickerMatch> pickerMatchCache = new ConcurrentHashMap<>();
+
+  /** Per tag key, whether any of the way property or mixin specifiers use the key. */
+  private final Map<String, Boolean> relevantKeyCache = new ConcurrentHashMap<>();
+
+  /** The tag keys used by the way property and mixin specifiers, lazily computed. */
+  private volatile Set<String> specifierKeys;
+
   public WayPropertySet() {
     this(DataImportIssueStore.NOOP);
   }
@@ -106,35 +123,16 @@ public class WayPropertySet {
    * that are mixins will have their safety values applied if they match at all.
    */
   public WayProperties getDataForWay(OSMWithTags way) {
-    WayProperties backwardResult = defaultProperties;
-    WayProperties forwardResult = defaultProperties;
-    int bestBackwardScore = 0;
-    int bestForwardScore = 0;
-    List<MixinProperties> backwardMixins = new ArrayList<>();
-    List<MixinProperties> forwardMixins = new ArrayList<>();
-    for (WayPropertyPicker picker : wayProperties) {
-      OsmSpecifier specifier = picker.specifier();
-      WayProperties wayProperties = picker.properties();
-      var score = specifier.matchScores(way);
-      if (score.backward() > bestBackwardScore) {
-        backwardResult = wayProperties;
-        bestBackwardScore = score.backward();
-      }
-      if (score.forward() > bestForwardScore) {
-        forwardResult = wayProperties;
-        bestForwardScore = score.forward();
-      }
-    }
-
-    for (var mixin : mixins) {
-      var score = mixin.specifier().matchScores(way);
-      if (score.backward() > 0) {
-        backwardMixins.add(mixin);
-      }
-      if (score.forward() > 0) {
-        forwardMixins.add(mixin);
-      }
-    }
+    var match = pickerMatchCache.computeIfAbsent(
+      new TagSetKey(way.getTagDictionary(), way.getTagIds(this::isRelevantKey)),
+      ignore -> findBestPickers(way)
+    );
+    WayProperties backwardResult = match.backwardResult();
+    WayProperties forwardResult = match.forwardResult();
+    int bestBackwardScore = match.bestBackwardScore();
+    int bestForwardScore = match.bestForwardScore();
+    List<MixinProperties> backwardMixins = match.backwardMixins();
+    List<MixinProperties> forwardMixins = match.forwardMixins();
 
     float forwardSpeed = getCarSpeedForWay(way, false);
     float backSpeed = getCarSpeedForWay(way, true);
@@ -316,10 +314,12 @@ public class WayPropertySet {
 
   public void addMixin(MixinProperties mixin) {
     mixins.add(mixin);
+    clearPickerMatchCache();
   }
 
   public void addProperties(OsmSpecifier spec, WayProperties properties) {
     wayProperties.add(new WayPropertyPicker(spec, properties));
+    clearPickerMatchCache();
   }
 
   public void addCreativeNamer(OsmSpecifier spec, CreativeNamer namer) {
@@ -481,6 +481,87 @@ public class WayPropertySet {
     return Collections.unmodifiableList(wayProperties);
   }
 
+  /**
+   * Evaluate all way property and mixin specifiers for the given way. The result only depends on
+   * the tags returned by {@link #isRelevantKey(String)}, so it can be shared by all ways with the
+   * same values for those.
+   */
+  private PickerMatch findBestPickers(OSMWithTags way) {
+    WayProperties backwardResult = defaultProperties;
+    WayProperties forwardResult = defaultProperties;
+    int bestBackwardScore = 0;
+    int bestForwardScore = 0;
+    List<MixinProperties> backwardMixins = new ArrayList<>();
+    List<MixinProperties> forwardMixins = new ArrayList<>();
+    for (WayPropertyPicker picker : wayProperties) {
+      OsmSpecifier specifier = picker.specifier();
+      WayProperties wayProperties = picker.properties();
+      var score = specifier.matchScores(way);
+      if (score.backward() > bestBackwardScore) {
+        backwardResult = wayProperties;
+        bestBackwardScore = score.backward();
+      }
+      if (score.forward() > bestForwardScore) {
+        forwardResult = wayProperties;
+        bestForwardScore = score.forward();
+      }
+    }
+
+    for (var mixin : mixins) {
+      var score = mixin.specifier().matchScores(way);
+      if (score.backward() > 0) {
+        backwardMixins.add(mixin);
+      }
+      if (score.forward() > 0) {
+        forwardMixins.add(mixin);
+      }
+    }
+    return new PickerMatch(
+      forwardResult,
+      backwardResult,
+      bestForwardScore,
+      bestBackwardScore,
+      List.copyOf(forwardMixins),
+      List.copyOf(backwardMixins)
+    );
+  }
+
+  /**
+   * A tag key is relevant if a specifier uses it, either as is or with a suffix like ':left'.
+   */
+  private boolean isRelevantKey(String key) {
+    return relevantKeyCache.computeIfAbsent(
+      key,
+      ignore ->
+        getSpecifierKeys().stream().anyMatch(k -> key.equals(k) || key.startsWith(k + ":"))
+    );
+  }
+
+  private Set<String> getSpecifierKeys() {
+    var keys = specifierKeys;
+    if (keys == null) {
+      keys = new HashSet<>();
+      for (WayPropertyPicker picker : wayProperties) {
+        keys.addAll(picker.specifier().tagKeys());
+      }
+      for (MixinProperties mixin : mixins) {
+        keys.addAll(mixin.specifier().tagKeys());
+      }
+      specifierKeys = keys;
+    }
+    return keys;
+  }
+
+  /**
+   * Drop the memoised matches. This releases the references to the tag dictionaries of the ways
+   * matched so far, call it when the graph build is done with the OSM data.
+   */
+  public void clearPickerMatchCache() {
+    specifierKeys = null;
+    relevantKeyCache.clear();
+    pickerMatchCache.clear();
+  }
+
   private String dumpTags(OSMWithTags way) {
     /* generate warning message */
     String all_tags = null;
@@ -532,4 +613,33 @@ public class WayPropertySet {
       .walkSafety(forwardWalk, backWalk)
       .build();
   }
+
+  /**
+   * The relevant tags of a way as interned key and value ids, used as cache key. Ids from
+   * different dictionaries are not comparable, so the dictionary is part of the key.
+   */
+  private record TagSetKey(OSMTagDictionary dictionary, int[] tagIds) {
+    @Override
+    public boolean equals(Object o) {
+      return (
+        o instanceof TagSetKey other &&
+        dictionary == other.dictionary &&
+        Arrays.equals(tagIds, other.tagIds)
+      );
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * System.identityHashCode(dictionary) + Arrays.hashCode(tagIds);
+    }
+  }
+
+  private record PickerMatch(
+    WayProperties forwardResult,
+    WayProperties backwardResult,
+    int bestForwardScore,
+    int bestBackwardScore,
+    List<MixinProperties> forwardMixins,
+    List<MixinProperties> backwardMixins
+  ) {}
 }
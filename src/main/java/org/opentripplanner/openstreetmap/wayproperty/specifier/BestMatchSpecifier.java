@@ -1,6 +1,7 @@
 package org.opentripplanner.openstreetmap.wayproperty.specifier;
 
 import java.util.Arrays;
+import java.util.Set;
 import java.util.stream.Collectors;
 import org.opentripplanner.framework.tostring.ToStringBuilder;
 import org.opentripplanner.openstreetmap.model.OSMWithTags;
@@ -74,6 +75,11 @@ public class BestMatchSpecifier implements OsmSpecifier {
     return score;
   }
 
+  @Override
+  public Set<String> tagKeys() {
+    return Arrays.stream(conditions).map(Condition::key).collect(Collectors.toSet());
+  }
+
   @Override
   public String toDocString() {
     return Arrays.stream(conditions).map(Object::toString).collect(Collectors.joining("; "));
@@ -2,6 +2,7 @@ package org.opentripplanner.openstreetmap.wayproperty.specifier;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 import org.opentripplanner.openstreetmap.model.OSMWithTags;
 
@@ -55,6 +56,11 @@ public class ExactMatchSpecifier implements OsmSpecifier {
     }
   }
 
+  @Override
+  public Set<String> tagKeys() {
+    return conditions.stream().map(Condition::key).collect(Collectors.toSet());
+  }
+
   @Override
   public String toDocString() {
     return conditions.stream().map(Object::toString).collect(Collectors.joining("; "));
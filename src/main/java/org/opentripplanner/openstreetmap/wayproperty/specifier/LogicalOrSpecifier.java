@@ -2,6 +2,7 @@ package org.opentripplanner.openstreetmap.wayproperty.specifier;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 import org.opentripplanner.openstreetmap.model.OSMWithTags;
 
@@ -45,6 +46,14 @@ public class LogicalOrSpecifier implements OsmSpecifier {
     }
   }
 
+  @Override
+  public Set<String> tagKeys() {
+    return subSpecs
+      .stream()
+      .flatMap(s -> s.tagKeys().stream())
+      .collect(Collectors.toSet());
+  }
+
   @Override
   public String toDocString() {
     return subSpecs.stream().map(ExactMatchSpecifier::toDocString).collect(Collectors.joining("|"));
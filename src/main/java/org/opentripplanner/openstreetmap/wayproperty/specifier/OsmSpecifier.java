@@ -1,6 +1,7 @@
 package org.opentripplanner.openstreetmap.wayproperty.specifier;
 
 import java.util.Arrays;
+import java.util.Set;
 import org.opentripplanner.openstreetmap.model.OSMWithTags;
 
 /**
@@ -42,6 +43,13 @@ public interface OsmSpecifier {
    */
   int matchScore(OSMWithTags way);
 
+  /**
+   * The tag keys this specifier matches on. The matching may also look at the same keys with a
+   * suffix, like {@code cycleway:left} for {@code cycleway}, but never at any other tag. This
+   * allows the caller to cache match results for entities which share the relevant tags.
+   */
+  Set<String> tagKeys();
+
   /**
    * Convert this specifier to a human-readable identifier that represents this in (generated)
    * documentation.
@@ -174,7 +174,7 @@ public class StatesToWalkStepsMapper {
     // generate a step for getting off an elevator (all elevator narrative generation occurs
     // when alighting). We don't need to know what came before or will come after
     if (edge instanceof ElevatorAlightEdge) {
-      addStep(createElevatorWalkStep(backState, forwardState, edge));
+      addStep(createElevatorWalkStep(backState, forwardState, edge, geom));
       return;
     } else if (edge instanceof PathwayEdge pwe && pwe.signpostedAs().isPresent()) {
       createAndSaveStep(backState, forwardState, pwe.signpostedAs().get(), FOLLOW_SIGNS, edge);
@@ -187,7 +187,7 @@ public class StatesToWalkStepsMapper {
     boolean modeTransition = forwardState.getBackMode() != backState.getBackMode();
 
     if (current == null) {
-      createFirstStep(backState, forwardState);
+      createFirstStep(backState, forwardState, geom);
       createdNewStep = true;
     } else if (
       modeTransition ||
@@ -211,7 +211,7 @@ public class StatesToWalkStepsMapper {
       }
 
       // start a new step
-      current = createWalkStep(forwardState, backState);
+      current = createWalkStep(forwardState, backState, geom);
       createdNewStep = true;
       steps.add(current);
 
@@ -245,7 +245,7 @@ public class StatesToWalkStepsMapper {
         // to see if we should generate a "left to continue" instruction.
         if (isPossibleToTurnToOtherStreet(backState, edge, streetName, thisAngle)) {
           // turn to stay on same-named street
-          current = createWalkStep(forwardState, backState);
+          current = createWalkStep(forwardState, backState, geom);
           createdNewStep = true;
           current.withDirections(lastAngle, thisAngle, false);
           current.withStayOn(true);
@@ -484,11 +484,11 @@ public class StatesToWalkStepsMapper {
     return foundAlternatePaths;
   }
 
-  private void createFirstStep(State backState, State forwardState) {
-    current = createWalkStep(forwardState, backState);
+  private void createFirstStep(State backState, State forwardState, Geometry geom) {
+    current = createWalkStep(forwardState, backState, geom);
 
     Edge edge = forwardState.getBackEdge();
-    double thisAngle = DirectionUtils.getFirstAngle(edge.getGeometry());
+    double thisAngle = DirectionUtils.getFirstAngle(geom);
     if (previous == null) {
       current.withAbsoluteDirection(thisAngle);
       current.withRelativeDirection(RelativeDirection.DEPART);
@@ -500,9 +500,14 @@ public class StatesToWalkStepsMapper {
     steps.add(current);
   }
 
-  private WalkStepBuilder createElevatorWalkStep(State backState, State forwardState, Edge edge) {
+  private WalkStepBuilder createElevatorWalkStep(
+    State backState,
+    State forwardState,
+    Edge edge,
+    Geometry geom
+  ) {
     // don't care what came before or comes after
-    var step = createWalkStep(forwardState, backState);
+    var step = createWalkStep(forwardState, backState, geom);
 
     // tell the user where to get off the elevator using the exit notation, so the
     // i18n interface will say 'Elevator to <exit>'
@@ -524,21 +529,26 @@ public class StatesToWalkStepsMapper {
     RelativeDirection direction,
     Edge edge
   ) {
+    Geometry geom = edge.getGeometry();
     addStep(
-      createWalkStep(forwardState, backState)
+      createWalkStep(forwardState, backState, geom)
         .withDirectionText(name)
         .withBogusName(false)
-        .withDirections(lastAngle, DirectionUtils.getFirstAngle(edge.getGeometry()), false)
+        .withDirections(lastAngle, DirectionUtils.getFirstAngle(geom), false)
         .withRelativeDirection(direction)
         .addDistance(edge.getDistanceMeters())
     );
 
-    lastAngle = DirectionUtils.getLastAngle(edge.getGeometry());
+    lastAngle = DirectionUtils.getLastAngle(geom);
     distance = edge.getDistanceMeters();
     current.addEdge(edge);
   }
 
-  private WalkStepBuilder createWalkStep(State forwardState, State backState) {
+  /**
+   * @param geom the geometry of the back edge of the forward state, it is decoded once by the
+   *             caller since it is also needed to compute the directions
+   */
+  private WalkStepBuilder createWalkStep(State forwardState, State backState, Geometry geom) {
     Edge en = forwardState.getBackEdge();
 
     return WalkStep
@@ -546,7 +556,7 @@ public class StatesToWalkStepsMapper {
       .withDirectionText(en.getName())
       .withStartLocation(new WgsCoordinate(backState.getVertex().getCoordinate()))
       .withBogusName(en.hasBogusName())
-      .withAngle(DirectionUtils.getFirstAngle(forwardState.getBackEdge().getGeometry()))
+      .withAngle(DirectionUtils.getFirstAngle(geom))
       .withWalkingBike(forwardState.isBackWalkingBike())
       .withArea(forwardState.getBackEdge() instanceof AreaEdge)
       .addElevation(
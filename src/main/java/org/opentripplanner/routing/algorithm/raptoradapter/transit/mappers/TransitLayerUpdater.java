@@ -13,6 +13,7 @@ import java.util.SortedSet;
 import java.util.stream.Collectors;
 import org.opentripplanner.framework.application.OTPFeature;
 import org.opentripplanner.model.Timetable;
+import org.opentripplanner.model.TimetableSnapshot;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.TransitLayer;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.TripPatternForDate;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.constrainedtransfer.TransferIndexGenerator;
@@ -55,23 +56,37 @@ public class TransitLayerUpdater {
 
   private final Map<LocalDate, Set<TripPatternForDate>> tripPatternsRunningOnDateMapCache = new HashMap<>();
 
+  /**
+   * The real-time TransitLayer published by the last update. After startup this class is the only
+   * writer of the real-time TransitLayer, so each update continues from the previous one.
+   */
+  private TransitLayer publishedTransitLayer;
+
   public TransitLayerUpdater(TransitEditorService transitService) {
     this.transitService = transitService;
   }
 
+  /**
+   * Apply the updated timetables to a copy of the real-time TransitLayer and publish it together
+   * with the committed timetable snapshot they belong to.
+   */
   public void update(
+    TimetableSnapshot timetableSnapshot,
     Set<Timetable> updatedTimetables,
     Map<TripPattern, SortedSet<Timetable>> timetables
   ) {
     if (!transitService.hasRealtimeTransitLayer()) {
       return;
     }
+    if (publishedTransitLayer == null) {
+      publishedTransitLayer = transitService.getRealtimeTransitLayer();
+    }
 
     long startTime = System.currentTimeMillis();
 
     // Make a shallow copy of the realtime transit layer. Only the objects that are copied will be
     // changed during this update process.
-    TransitLayer realtimeTransitLayer = new TransitLayer(transitService.getRealtimeTransitLayer());
+    TransitLayer realtimeTransitLayer = new TransitLayer(publishedTransitLayer);
 
     // Instantiate a TripPatternForDateMapper with the new TripPattern mappings
     TripPatternForDateMapper tripPatternForDateMapper = new TripPatternForDateMapper(
@@ -220,9 +235,10 @@ public class TransitLayerUpdater {
       realtimeTransitLayer.setConstrainedTransfers(transferIndexGenerator.generateTransfers());
     }
 
-    // Switch out the reference with the updated realtimeTransitLayer. This is synchronized to
-    // guarantee that the reference is set after all the fields have been updated.
-    transitService.setRealtimeTransitLayer(realtimeTransitLayer);
+    // Switch out the reference with the updated realtimeTransitLayer and the new snapshot in one
+    // step. The reference is volatile, so it is set after all the fields have been updated.
+    transitService.publishRealtimeTransitData(timetableSnapshot, realtimeTransitLayer);
+    publishedTransitLayer = realtimeTransitLayer;
 
     LOG.debug(
       "UPDATING {} tripPatterns took {} ms",
@@ -13,14 +13,18 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Comparator;
 import java.util.List;
+import java.util.stream.Collectors;
 import javax.annotation.Nullable;
 import org.opentripplanner.datastore.api.DataSource;
 import org.opentripplanner.ext.emissions.EmissionsDataModel;
 import org.opentripplanner.ext.stopconsolidation.StopConsolidationRepository;
 import org.opentripplanner.framework.application.OtpAppException;
 import org.opentripplanner.framework.geometry.CompactElevationProfile;
+import org.opentripplanner.framework.geometry.MortonCode;
 import org.opentripplanner.framework.lang.OtpNumberFormat;
 import org.opentripplanner.framework.logging.ProgressTracker;
 import org.opentripplanner.graph_builder.issue.api.DataImportIssueSummary;
@@ -54,6 +58,18 @@ public class SerializedGraphObject implements Serializable {
 
   private static final Logger LOG = LoggerFactory.getLogger(SerializedGraphObject.class);
 
+  private static final Comparator<VertexKey> VERTEX_ORDER = Comparator
+    .comparingLong(VertexKey::code)
+    .thenComparing(k -> k.vertex().getLabelString());
+
+  private static final Comparator<EdgeKey> EDGE_ORDER = Comparator
+    .comparingLong(EdgeKey::from)
+    .thenComparingLong(EdgeKey::to)
+    .thenComparing(k -> k.edge().getFromVertex().getLabelString())
+    .thenComparing(k -> k.edge().getToVertex().getLabelString())
+    .thenComparing(k -> k.edge().getClass().getName())
+    .thenComparingDouble(k -> k.edge().getDistanceMeters());
+
   public final Graph graph;
   public final TransitModel transitModel;
   public final WorldEnvelopeRepository worldEnvelopeRepository;
@@ -92,7 +108,7 @@ public class SerializedGraphObject implements Serializable {
     StreetLimitationParameters streetLimitationParameters
   ) {
     this.graph = graph;
-    this.edges = graph.getEdges();
+    this.edges = sortEdgesInSpatialOrder(graph.getEdges());
     this.transitModel = transitModel;
     this.worldEnvelopeRepository = worldEnvelopeRepository;
     this.buildConfig = buildConfig;
@@ -134,6 +150,38 @@ public class SerializedGraphObject implements Serializable {
     }
   }
 
+  /**
+   * Sort the vertices by their position along a Z-order curve, and then by label. The vertices
+   * are written and allocated in this order when the graph is loaded, before the graph and the
+   * edges, which only reference them.
+   */
+  static List<Vertex> sortVerticesInSpatialOrder(Collection<Vertex> vertices) {
+    return vertices
+      .stream()
+      .map(v -> new VertexKey(mortonCode(v), v))
+      .sorted(VERTEX_ORDER)
+      .map(VertexKey::vertex)
+      .collect(Collectors.toCollection(ArrayList::new));
+  }
+
+  /**
+   * Sort the edges by the position of their from and to vertices along a Z-order curve. The edges
+   * are written, read back and allocated in this order, and the vertex edge lists are rebuilt in
+   * this order when the graph is loaded. Edges traversed one after another by a street search are
+   * then mostly close to each other in memory, instead of being in hash order.
+   * <p>
+   * Edges between vertices with the same position are ordered by the vertex labels, the edge type
+   * and the length. Edges which are equal in all of these keep the order of the given collection.
+   */
+  static List<Edge> sortEdgesInSpatialOrder(Collection<Edge> edges) {
+    return edges
+      .stream()
+      .map(e -> new EdgeKey(mortonCode(e.getFromVertex()), mortonCode(e.getToVertex()), e))
+      .sorted(EDGE_ORDER)
+      .map(EdgeKey::edge)
+      .collect(Collectors.toCollection(ArrayList::new));
+  }
+
   /**
    * After deserialization, the vertices will all have null outgoing and incoming edge lists because
    * those edge lists are marked transient, to prevent excessive recursion depth while serializing.
@@ -176,7 +224,12 @@ public class SerializedGraphObject implements Serializable {
       );
 
       Kryo kryo = KryoBuilder.create();
+      // Keep the references between the vertices and the graph object
+      kryo.setAutoReset(false);
+      // The vertices are read first, to allocate them in spatial order
+      kryo.readClassAndObject(input);
       SerializedGraphObject serObj = (SerializedGraphObject) kryo.readClassAndObject(input);
+      kryo.reset();
       SubMode.deserializeSubModeCache(serObj.allTransitSubModes);
       RoutingTripPattern.initIndexCounter(serObj.routingTripPatternCounter);
       CompactElevationProfile.setDistanceBetweenSamplesM(
@@ -249,7 +302,12 @@ public class SerializedGraphObject implements Serializable {
     Kryo kryo = KryoBuilder.create();
     Output output = new Output(outputStream);
     output.write(OtpProjectInfo.projectInfo().graphFileHeaderInfo.header());
+    // Keep the references between the vertices and the graph object
+    kryo.setAutoReset(false);
+    // Write the vertices first, so they are allocated in spatial order when the graph is loaded
+    kryo.writeClassAndObject(output, sortVerticesInSpatialOrder(graph.getVertices()));
     kryo.writeClassAndObject(output, this);
+    kryo.reset();
     output.close();
     LOG.info("Graph written: {}", graphName);
     // Summarize serialized classes and associated serializers to stdout:
@@ -272,4 +330,12 @@ public class SerializedGraphObject implements Serializable {
       nTransfers
     );
   }
+
+  private static long mortonCode(Vertex v) {
+    return MortonCode.of(v.getLon(), v.getLat());
+  }
+
+  private record VertexKey(long code, Vertex vertex) {}
+
+  private record EdgeKey(long from, long to, Edge edge) {}
 }
@@ -1,11 +1,14 @@
 package org.opentripplanner.routing.linking;
 
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Objects;
 import java.util.Set;
 import java.util.function.BiFunction;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import org.locationtech.jts.geom.Coordinate;
 import org.locationtech.jts.geom.Envelope;
@@ -64,6 +67,12 @@ public class VertexLinker {
   // exit a complex area maximally via this many exit points
   private static final int MAX_AREA_LINKS = 300;
   private static final GeometryFactory GEOMETRY_FACTORY = GeometryUtils.getGeometryFactory();
+  /**
+   * The number of vertices for which the candidate edges are searched in parallel, before they are
+   * linked, see {@link #linkVerticesPermanently(List, TraverseModeSet, LinkingDirection,
+   * BiFunction, Consumer)}.
+   */
+  private static final int PARALLEL_SEARCH_BATCH_SIZE = 1000;
   /**
    * Spatial index of StreetEdges in the graph.
    */
@@ -77,6 +86,12 @@ public class VertexLinker {
   // TODO Temporary code until we refactor WalkableAreaBuilder  (#3152)
   private boolean addExtraEdgesToAreas = true;
 
+  /**
+   * The edges removed from the graph by permanent splits while a batch of vertices is linked, or
+   * {@code null} if no batch is being linked.
+   */
+  private Set<Edge> splitEdgesInBatch = null;
+
   /**
    * Construct a new VertexLinker. NOTE: Only one VertexLinker should be active on a graph at any
    * given time.
@@ -97,6 +112,54 @@ public class VertexLinker {
     link(vertex, traverseModes, direction, Scope.PERMANENT, edgeFunction);
   }
 
+  /**
+   * Link the given vertices permanently, one at a time in the given order. The result is identical
+   * to calling {@link #linkVertexPermanently(Vertex, TraverseModeSet, LinkingDirection,
+   * BiFunction)} for each vertex, but faster for a large number of vertices.
+   * <p>
+   * Finding the candidate edges is the expensive part of linking and does not modify the graph, so
+   * it is done in parallel for a batch of vertices before they are linked. Linking a vertex splits
+   * edges, which may change the candidates of the vertices linked after it. The search for a
+   * vertex is therefore repeated if any of the edges returned by its spatial index query was split
+   * since the search. New edges are only created by splitting, and the parts of an edge are never
+   * outside the edge, so the search is otherwise guaranteed to give the same result.
+   *
+   * @param linkedVertexListener called after each vertex is linked, may be used to track progress
+   */
+  public void linkVerticesPermanently(
+    List<? extends Vertex> vertices,
+    TraverseModeSet traverseModes,
+    LinkingDirection direction,
+    BiFunction<Vertex, StreetVertex, List<Edge>> edgeFunction,
+    Consumer<Vertex> linkedVertexListener
+  ) {
+    for (int start = 0; start < vertices.size(); start += PARALLEL_SEARCH_BATCH_SIZE) {
+      var batch = vertices.subList(
+        start,
+        Math.min(vertices.size(), start + PARALLEL_SEARCH_BATCH_SIZE)
+      );
+      List<CandidateEdges> candidates = batch
+        .parallelStream()
+        .map(v -> findCandidateEdgesForPermanentLink(v, traverseModes))
+        .toList();
+
+      splitEdgesInBatch = Collections.newSetFromMap(new IdentityHashMap<>());
+      try {
+        for (int i = 0; i < batch.size(); ++i) {
+          Vertex vertex = batch.get(i);
+          CandidateEdges c = candidates.get(i);
+          if (c.isAffectedBySplit(splitEdgesInBatch)) {
+            c = findCandidateEdgesForPermanentLink(vertex, traverseModes);
+          }
+          link(vertex, traverseModes, direction, Scope.PERMANENT, edgeFunction, c);
+          linkedVertexListener.accept(vertex);
+        }
+      } finally {
+        splitEdgesInBatch = null;
+      }
+    }
+  }
+
   public DisposableEdgeCollection linkVertexForRealTime(
     Vertex vertex,
     TraverseModeSet traverseModes,
@@ -178,28 +241,46 @@ public class VertexLinker {
     LinkingDirection direction,
     Scope scope,
     BiFunction<Vertex, StreetVertex, List<Edge>> edgeFunction
+  ) {
+    return link(vertex, traverseModes, direction, scope, edgeFunction, null);
+  }
+
+  /**
+   * @param foundCandidates the candidate edges, if they are already found for the current state of
+   *                        the graph, otherwise {@code null}
+   */
+  private DisposableEdgeCollection link(
+    Vertex vertex,
+    TraverseModeSet traverseModes,
+    LinkingDirection direction,
+    Scope scope,
+    BiFunction<Vertex, StreetVertex, List<Edge>> edgeFunction,
+    CandidateEdges foundCandidates
   ) {
     DisposableEdgeCollection tempEdges = (scope != Scope.PERMANENT)
       ? new DisposableEdgeCollection(graph, scope)
       : null;
 
     try {
+      CandidateEdges candidates = foundCandidates != null
+        ? foundCandidates
+        : findCandidateEdges(vertex, traverseModes, scope, INITIAL_SEARCH_RADIUS_METERS);
       Set<StreetVertex> streetVertices = linkToStreetEdges(
         vertex,
         traverseModes,
         direction,
         scope,
-        INITIAL_SEARCH_RADIUS_METERS,
+        candidates,
         tempEdges
       );
-      if (streetVertices.isEmpty()) {
+      if (streetVertices.isEmpty() && candidates.radiusMeters() < MAX_SEARCH_RADIUS_METERS) {
         streetVertices =
           linkToStreetEdges(
             vertex,
             traverseModes,
             direction,
             scope,
-            MAX_SEARCH_RADIUS_METERS,
+            findCandidateEdges(vertex, traverseModes, scope, MAX_SEARCH_RADIUS_METERS),
             tempEdges
           );
       }
@@ -222,13 +303,39 @@ public class VertexLinker {
     return tempEdges;
   }
 
-  private Set<StreetVertex> linkToStreetEdges(
+  /**
+   * Find the candidate edges with the initial search radius, and if there are none with the
+   * maximum search radius. This is the search done by {@link #link(Vertex, TraverseModeSet,
+   * LinkingDirection, Scope, BiFunction)}, as long as linking to the candidate edges found with the
+   * initial radius succeeds. This method does not modify the graph.
+   */
+  private CandidateEdges findCandidateEdgesForPermanentLink(
+    Vertex vertex,
+    TraverseModeSet traverseModes
+  ) {
+    var candidates = findCandidateEdges(
+      vertex,
+      traverseModes,
+      Scope.PERMANENT,
+      INITIAL_SEARCH_RADIUS_METERS
+    );
+    if (!candidates.edges().isEmpty()) {
+      return candidates;
+    }
+    // The envelope of the larger radius covers the smaller one, so the edges queried for it are
+    // enough to tell if the result of both searches is still valid
+    return findCandidateEdges(vertex, traverseModes, Scope.PERMANENT, MAX_SEARCH_RADIUS_METERS);
+  }
+
+  /**
+   * Find the street edges within the given radius which can be linked to. This method does not
+   * modify the graph.
+   */
+  private CandidateEdges findCandidateEdges(
     Vertex vertex,
     TraverseModeSet traverseModes,
-    LinkingDirection direction,
     Scope scope,
-    int radiusMeters,
-    DisposableEdgeCollection tempEdges
+    int radiusMeters
   ) {
     final double radiusDeg = SphericalDistanceLibrary.metersToDegrees(radiusMeters);
 
@@ -244,8 +351,9 @@ public class VertexLinker {
     // street edges traversable by at least one of the given modes and are still present in the
     // graph. Calculate a distance to each of those edges, and keep only the ones within the search
     // radius.
-    List<DistanceTo<StreetEdge>> candidateEdges = edgeSpatialIndex
-      .query(env, scope)
+    List<Edge> queriedEdges = edgeSpatialIndex.query(env, scope).toList();
+    List<DistanceTo<StreetEdge>> candidateEdges = queriedEdges
+      .stream()
       .filter(StreetEdge.class::isInstance)
       .map(StreetEdge.class::cast)
       .filter(e -> e.canTraverse(traverseModes) && e.isReachableFromGraph())
@@ -253,15 +361,27 @@ public class VertexLinker {
       .filter(ead -> ead.distanceDegreesLat < radiusDeg)
       .toList();
 
-    if (candidateEdges.isEmpty()) {
+    return new CandidateEdges(candidateEdges, xscale, radiusMeters, queriedEdges);
+  }
+
+  private Set<StreetVertex> linkToStreetEdges(
+    Vertex vertex,
+    TraverseModeSet traverseModes,
+    LinkingDirection direction,
+    Scope scope,
+    CandidateEdges candidates,
+    DisposableEdgeCollection tempEdges
+  ) {
+    if (candidates.edges().isEmpty()) {
       return Set.of();
     }
 
     Set<DistanceTo<StreetEdge>> closestEdges = getClosestEdgesPerMode(
       traverseModes,
-      candidateEdges
+      candidates.edges()
     );
     Set<AreaEdgeList> linkedAreas = new HashSet<>();
+    double xscale = candidates.xscale();
     return closestEdges
       .stream()
       .map(ce -> link(vertex, ce.item, xscale, scope, direction, tempEdges, linkedAreas))
@@ -450,6 +570,9 @@ public class VertexLinker {
         removeEdgeFromIndex(originalEdge, scope);
         // remove original edge from the graph
         graph.removeEdge(originalEdge);
+        if (splitEdgesInBatch != null) {
+          splitEdgesInBatch.add(originalEdge);
+        }
       }
     }
 
@@ -485,6 +608,32 @@ public class VertexLinker {
     return v;
   }
 
+  /**
+   * The result of searching for edges to link a vertex to.
+   *
+   * @param edges the edges within the search radius which can be linked to
+   * @param xscale the scale of the local equirectangular projection
+   * @param queriedEdges all edges returned by the spatial index query
+   */
+  private record CandidateEdges(
+    List<DistanceTo<StreetEdge>> edges,
+    double xscale,
+    int radiusMeters,
+    List<Edge> queriedEdges
+  ) {
+    boolean isAffectedBySplit(Set<Edge> splitEdges) {
+      if (splitEdges.isEmpty()) {
+        return false;
+      }
+      for (Edge e : queriedEdges) {
+        if (splitEdges.contains(e)) {
+          return true;
+        }
+      }
+      return false;
+    }
+  }
+
   private static class DistanceTo<T> {
 
     T item;
@@ -225,7 +225,12 @@ public class BuildConfig implements OtpDataStoreConfig {
         .of("dataImportReport")
         .since(V2_0)
         .summary("Generate nice HTML report of Graph errors/warnings")
-        .description("The reports are stored in the same location as the graph.")
+        .description(
+          """
+          The reports are stored in the same location as the graph. A profile of the time and memory
+          used by each graph builder module is also written to `build-profile.json`.
+          """
+        )
         .asBoolean(false);
     distanceBetweenElevationSamples =
       root
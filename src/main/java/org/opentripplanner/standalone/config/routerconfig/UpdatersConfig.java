@@ -2,6 +2,7 @@ package org.opentripplanner.standalone.config.routerconfig;
 
 import static org.opentripplanner.standalone.config.framework.json.OtpVersion.V1_5;
 import static org.opentripplanner.standalone.config.framework.json.OtpVersion.V2_2;
+import static org.opentripplanner.standalone.config.framework.json.OtpVersion.V2_6;
 import static org.opentripplanner.standalone.config.routerconfig.UpdatersConfig.Type.BIKE_RENTAL;
 import static org.opentripplanner.standalone.config.routerconfig.UpdatersConfig.Type.MQTT_GTFS_RT_UPDATER;
 import static org.opentripplanner.standalone.config.routerconfig.UpdatersConfig.Type.REAL_TIME_ALERTS;
@@ -124,7 +125,23 @@ public class UpdatersConfig implements UpdatersParameters {
         .summary(
           "Should expired real-time data be purged from the graph. Apply to GTFS-RT and Siri updates."
         )
-        .asBoolean(dflt.purgeExpiredData())
+        .asBoolean(dflt.purgeExpiredData()),
+      c
+        .of("graphWriterBatchWindow")
+        .since(V2_6)
+        .summary("How long real-time updates may wait to be applied together with other updates.")
+        .description(
+          """
+          All real-time updates are applied to the graph by a single writer thread. When an update
+          arrives, the writer waits this long for updates from other updaters before applying all
+          of them in one batch. When set, the timetable snapshot is published once at the end of
+          each batch, instead of every `maxSnapshotFrequency`. With many feeds, this groups the
+          updates into fewer, larger batches and snapshots at the cost of a higher latency for each
+          update. The default is to apply each update as soon as the writer is idle, and to publish
+          the snapshot every `maxSnapshotFrequency`.
+          """
+        )
+        .asDuration(dflt.graphWriterBatchWindow())
     );
   }
 
@@ -79,7 +79,8 @@ public class SiriETGooglePubsubUpdaterConfig {
         .of("fuzzyTripMatching")
         .since(V2_1)
         .summary("If the trips should be matched fuzzily.")
-        .asBoolean(false)
+        .asBoolean(false),
+      UpdateQueueConfig.create(c)
     );
   }
 }
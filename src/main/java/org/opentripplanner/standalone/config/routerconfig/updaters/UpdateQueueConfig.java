@@ -0,0 +1,43 @@
+package org.opentripplanner.standalone.config.routerconfig.updaters;
+
+import static org.opentripplanner.standalone.config.framework.json.OtpVersion.V2_6;
+
+import org.opentripplanner.standalone.config.framework.json.NodeAdapter;
+import org.opentripplanner.updater.UpdateQueueParameters;
+
+/**
+ * The limits of the update queue of the streaming updaters.
+ */
+public class UpdateQueueConfig {
+
+  public static UpdateQueueParameters create(NodeAdapter c) {
+    var defaults = UpdateQueueParameters.DEFAULT;
+    return new UpdateQueueParameters(
+      c
+        .of("maxPendingUpdates")
+        .since(V2_6)
+        .summary("The maximum number of trips waiting to be applied.")
+        .description(
+          """
+          Updates received while the graph writer is busy wait in a queue, where a newer update
+          for a trip replaces the older one when possible. When this number of trips is waiting,
+          the `overflowPolicy` decides what happens with new updates.
+          """
+        )
+        .asInt(defaults.maxPendingUpdates()),
+      c
+        .of("overflowPolicy")
+        .since(V2_6)
+        .summary("What to do when `maxPendingUpdates` trips are waiting to be applied.")
+        .description(
+          """
+          `drop-oldest` drops the updates which have waited the longest, `drop-newest` drops the
+          updates for trips not already waiting and `block` stops receiving messages until the
+          graph writer has caught up. Updates are never dropped while a full dataset is waiting,
+          the updater blocks instead.
+          """
+        )
+        .asEnum(defaults.overflowPolicy())
+    );
+  }
+}
@@ -5,12 +5,14 @@ import static org.opentripplanner.standalone.config.framework.json.OtpVersion.V2
 
 import org.opentripplanner.ext.siri.updater.azure.SiriAzureETUpdaterParameters;
 import org.opentripplanner.standalone.config.framework.json.NodeAdapter;
+import org.opentripplanner.standalone.config.routerconfig.updaters.UpdateQueueConfig;
 
 public class SiriAzureETUpdaterConfig extends SiriAzureUpdaterConfig {
 
   public static SiriAzureETUpdaterParameters create(String configRef, NodeAdapter c) {
     SiriAzureETUpdaterParameters parameters = new SiriAzureETUpdaterParameters();
     populateConfig(parameters, configRef, c);
+    parameters.setUpdateQueue(UpdateQueueConfig.create(c));
 
     if (c.exist("history")) {
       NodeAdapter history = c
@@ -6,10 +6,13 @@ import java.util.Arrays;
 import java.util.BitSet;
 import java.util.Collections;
 import java.util.Comparator;
-import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -19,21 +22,41 @@ import org.opentripplanner.framework.tostring.ToStringBuilder;
 /**
  * Does the same thing as String.intern, but for several different types. Java's String.intern uses
  * perm gen space and is broken anyway.
+ * <p>
+ * THIS CLASS IS THREAD-SAFE. The canonical values are kept in concurrent maps, so lookups do not
+ * block each other. If two threads add equal values at the same time, both get the value which
+ * made it into the map first.
+ * <p>
+ * For each type the number of requests and hits are counted, and the memory saved by the hits is
+ * estimated, see {@link #statisticsReport()}.
  */
 public class Deduplicator implements DeduplicatorService, Serializable {
 
   private static final String ZERO_COUNT = sizeAndCount(0, 0);
 
-  private final Map<BitSet, BitSet> canonicalBitSets = new HashMap<>();
-  private final Map<IntArray, IntArray> canonicalIntArrays = new HashMap<>();
-  private final Map<String, String> canonicalStrings = new HashMap<>();
-  private final Map<StringArray, StringArray> canonicalStringArrays = new HashMap<>();
-  private final Map<String2DArray, String2DArray> canonicalString2DArrays = new HashMap<>();
-  private final Map<Class<?>, Map<?, ?>> canonicalObjects = new HashMap<>();
-  private final Map<Class<?>, Map<?, ?>> canonicalObjArrays = new HashMap<>();
-  private final Map<Class<?>, Map<List<?>, List<?>>> canonicalLists = new HashMap<>();
-
-  private final Map<String, Integer> effectCounter = new HashMap<>();
+  private static final String BIT_SET = "BitSet";
+  private static final String INT_ARRAY = "int[]";
+  private static final String STRING = "String";
+  private static final String STRING_ARRAY = "String[]";
+  private static final String STRING_2D_ARRAY = "String[][]";
+
+  /** Approximate size of an object header, including the length field of an array. */
+  private static final int HEADER_BYTES = 16;
+  /** Approximate size of a reference, assuming compressed pointers. */
+  private static final int REFERENCE_BYTES = 4;
+
+  private final Map<BitSet, BitSet> canonicalBitSets = new ConcurrentHashMap<>();
+  private final Map<IntArray, IntArray> canonicalIntArrays = new ConcurrentHashMap<>();
+  private final Map<String, String> canonicalStrings = new ConcurrentHashMap<>();
+  private final Map<StringArray, StringArray> canonicalStringArrays = new ConcurrentHashMap<>();
+  private final Map<String2DArray, String2DArray> canonicalString2DArrays =
+    new ConcurrentHashMap<>();
+  private final ConcurrentMap<Class<?>, Map<?, ?>> canonicalObjects = new ConcurrentHashMap<>();
+  private final ConcurrentMap<Class<?>, Map<?, ?>> canonicalObjArrays = new ConcurrentHashMap<>();
+  private final ConcurrentMap<Class<?>, Map<List<?>, List<?>>> canonicalLists =
+    new ConcurrentHashMap<>();
+
+  private final ConcurrentMap<String, Statistics> statistics = new ConcurrentHashMap<>();
 
   @Inject
   public Deduplicator() {}
@@ -56,12 +79,8 @@ public class Deduplicator implements DeduplicatorService, Serializable {
     if (original == null) {
       return null;
     }
-    BitSet canonical = canonicalBitSets.get(original);
-    if (canonical == null) {
-      canonical = original;
-      canonicalBitSets.put(canonical, canonical);
-    }
-    incrementEffectCounter(BitSet.class);
+    BitSet canonical = canonicalize(canonicalBitSets, original);
+    count(BIT_SET, canonical != original, HEADER_BYTES * 2 + original.size() / 8);
     return canonical;
   }
 
@@ -71,13 +90,8 @@ public class Deduplicator implements DeduplicatorService, Serializable {
     if (original == null) {
       return null;
     }
-    IntArray intArray = new IntArray(original);
-    IntArray canonical = canonicalIntArrays.get(intArray);
-    if (canonical == null) {
-      canonical = intArray;
-      canonicalIntArrays.put(canonical, canonical);
-    }
-    incrementEffectCounter(IntArray.class);
+    IntArray canonical = canonicalize(canonicalIntArrays, new IntArray(original));
+    count(INT_ARRAY, canonical.array != original, HEADER_BYTES + 4L * original.length);
     return canonical.array;
   }
 
@@ -87,9 +101,9 @@ public class Deduplicator implements DeduplicatorService, Serializable {
     if (original == null) {
       return null;
     }
-    String canonical = canonicalStrings.putIfAbsent(original, original);
-    incrementEffectCounter(String.class);
-    return canonical == null ? original : canonical;
+    String canonical = canonicalize(canonicalStrings, original);
+    count(STRING, canonical != original, HEADER_BYTES * 2 + original.length());
+    return canonical;
   }
 
   @Override
@@ -99,11 +113,12 @@ public class Deduplicator implements DeduplicatorService, Serializable {
       return null;
     }
     StringArray canonical = canonicalStringArrays.get(new StringArray(original));
-    if (canonical == null) {
-      canonical = StringArray.deepDeduplicateOf(original, this);
-      canonicalStringArrays.put(canonical, canonical);
+    boolean hit = canonical != null;
+    if (!hit) {
+      canonical =
+        canonicalize(canonicalStringArrays, StringArray.deepDeduplicateOf(original, this));
     }
-    incrementEffectCounter(StringArray.class);
+    count(STRING_ARRAY, hit, arrayBytes(original.length));
     return canonical.array;
   }
 
@@ -114,11 +129,12 @@ public class Deduplicator implements DeduplicatorService, Serializable {
       return null;
     }
     String2DArray canonical = canonicalString2DArrays.get(new String2DArray(original));
-    if (canonical == null) {
-      canonical = String2DArray.deepDeduplicateOf(original, this);
-      canonicalString2DArrays.put(canonical, canonical);
+    boolean hit = canonical != null;
+    if (!hit) {
+      canonical =
+        canonicalize(canonicalString2DArrays, String2DArray.deepDeduplicateOf(original, this));
     }
-    incrementEffectCounter(String2DArray.class);
+    count(STRING_2D_ARRAY, hit, arrayBytes(original.length));
     return canonical.array;
   }
 
@@ -132,10 +148,14 @@ public class Deduplicator implements DeduplicatorService, Serializable {
     if (original == null) {
       return null;
     }
-    Map<T, T> objects = (Map<T, T>) canonicalObjects.computeIfAbsent(cl, c -> new HashMap<T, T>());
-    T canonical = objects.putIfAbsent(original, original);
-    incrementEffectCounter(objCounterName(cl));
-    return canonical == null ? original : canonical;
+    Map<T, T> objects = (Map<T, T>) canonicalObjects.computeIfAbsent(
+      cl,
+      c -> new ConcurrentHashMap<T, T>()
+    );
+    T canonical = canonicalize(objects, original);
+    // The size of an arbitrary object is unknown, only the hits are counted
+    count(objCounterName(cl), canonical != original, 0);
+    return canonical;
   }
 
   @Override
@@ -144,21 +164,18 @@ public class Deduplicator implements DeduplicatorService, Serializable {
     if (original == null) {
       return null;
     }
-    Map<ObjArray<T>, ObjArray<T>> map;
-    if (canonicalObjArrays.containsKey(type)) {
-      //noinspection unchecked
-      map = (Map<ObjArray<T>, ObjArray<T>>) canonicalObjArrays.get(type);
-    } else {
-      map = new HashMap<>();
-      canonicalObjArrays.put(type, map);
-    }
+    @SuppressWarnings("unchecked")
+    var map = (Map<ObjArray<T>, ObjArray<T>>) canonicalObjArrays.computeIfAbsent(
+      type,
+      t -> new ConcurrentHashMap<ObjArray<T>, ObjArray<T>>()
+    );
     ObjArray<T> canonical = map.get(new ObjArray<>(original));
+    boolean hit = canonical != null;
 
-    if (canonical == null) {
-      canonical = ObjArray.deepDeduplicateOf(type, original, this);
-      map.put(canonical, canonical);
+    if (!hit) {
+      canonical = canonicalize(map, ObjArray.deepDeduplicateOf(type, original, this));
     }
-    incrementEffectCounter(arrayCounterName(type));
+    count(arrayCounterName(type), hit, arrayBytes(original.length));
     return canonical.array();
   }
 
@@ -170,24 +187,26 @@ public class Deduplicator implements DeduplicatorService, Serializable {
     }
 
     Map<List<?>, List<?>> canonicalLists =
-      this.canonicalLists.computeIfAbsent(clazz, key -> new HashMap<>());
+      this.canonicalLists.computeIfAbsent(clazz, key -> new ConcurrentHashMap<>());
 
     @SuppressWarnings("unchecked")
     List<T> canonical = (List<T>) canonicalLists.get(original);
-    if (canonical == null) {
+    boolean hit = canonical != null;
+    if (!hit) {
       // The list may contain nulls, hence the use of the old unmodifiable wrapper
       boolean containsNull = original.stream().anyMatch(Objects::isNull);
       Stream<T> stream = original.stream().map(it -> deduplicateObject(clazz, it));
       // The list may contain nulls, hence the use of the old unmodifiable wrapper
       //noinspection SimplifyStreamApiCallChains
-      canonical =
-        containsNull
-          ? Collections.unmodifiableList(stream.collect(Collectors.toList()))
-          : stream.collect(Collectors.toUnmodifiableList());
-      canonicalLists.put(canonical, canonical);
+      List<T> copy = containsNull
+        ? Collections.unmodifiableList(stream.collect(Collectors.toList()))
+        : stream.collect(Collectors.toUnmodifiableList());
+      @SuppressWarnings("unchecked")
+      List<T> existing = (List<T>) canonicalLists.putIfAbsent(copy, copy);
+      canonical = existing == null ? copy : existing;
     }
 
-    incrementEffectCounter(listCounterName(clazz));
+    count(listCounterName(clazz), hit, arrayBytes(original.size()));
     return canonical;
   }
 
@@ -198,13 +217,13 @@ public class Deduplicator implements DeduplicatorService, Serializable {
   public String toString() {
     var builder = ToStringBuilder
       .of(Deduplicator.class)
-      .addObj("BitSet", sizeAndCount(canonicalBitSets.size(), BitSet.class), ZERO_COUNT)
-      .addObj("int[]", sizeAndCount(canonicalIntArrays.size(), IntArray.class), ZERO_COUNT)
-      .addObj("String", sizeAndCount(canonicalStrings.size(), String.class), ZERO_COUNT)
-      .addObj("String[]", sizeAndCount(canonicalStringArrays.size(), StringArray.class), ZERO_COUNT)
+      .addObj("BitSet", sizeAndCount(canonicalBitSets.size(), BIT_SET), ZERO_COUNT)
+      .addObj("int[]", sizeAndCount(canonicalIntArrays.size(), INT_ARRAY), ZERO_COUNT)
+      .addObj("String", sizeAndCount(canonicalStrings.size(), STRING), ZERO_COUNT)
+      .addObj("String[]", sizeAndCount(canonicalStringArrays.size(), STRING_ARRAY), ZERO_COUNT)
       .addObj(
         "String[][]",
-        sizeAndCount(canonicalString2DArrays.size(), String2DArray.class),
+        sizeAndCount(canonicalString2DArrays.size(), STRING_2D_ARRAY),
         ZERO_COUNT
       );
     addToBuilder(builder, canonicalObjects, Deduplicator::objCounterName);
@@ -214,8 +233,67 @@ public class Deduplicator implements DeduplicatorService, Serializable {
     return builder.toString();
   }
 
+  /**
+   * Returns one line per type with the number of requests, the hit rate and the estimated memory
+   * saved by returning a canonical instance instead of keeping the duplicate. The estimate is
+   * shallow: for arrays and lists it is the array itself, not the elements, which are counted
+   * separately if they are deduplicated. The size of other objects is unknown and not included.
+   */
+  public String statisticsReport() {
+    return statistics().stream().map(TypeStatistics::toString).collect(Collectors.joining("\n"));
+  }
+
+  /**
+   * The statistics of each type sorted by the type name, see {@link #statisticsReport()}.
+   */
+  public List<TypeStatistics> statistics() {
+    return statistics
+      .entrySet()
+      .stream()
+      .sorted(Map.Entry.comparingByKey())
+      .map(e -> e.getValue().toTypeStatistics(e.getKey()))
+      .toList();
+  }
+
+  /**
+   * The requests and hits of one type, and the estimated memory saved by the hits.
+   *
+   * @param hitRate the percentage of the requests which are hits
+   */
+  public record TypeStatistics(
+    String type,
+    long requests,
+    long hits,
+    double hitRate,
+    long savedBytes
+  ) {
+    @Override
+    public String toString() {
+      return String.format(
+        Locale.ROOT,
+        "%s: %d requests, %.1f%% hits, %d kB saved",
+        type,
+        requests,
+        hitRate,
+        savedBytes / 1024
+      );
+    }
+  }
+
   /* private members */
 
+  /**
+   * Return the canonical instance of the given value, adding the value if it is the first one.
+   */
+  private static <T> T canonicalize(Map<T, T> map, T value) {
+    T existing = map.putIfAbsent(value, value);
+    return existing == null ? value : existing;
+  }
+
+  private static long arrayBytes(int length) {
+    return HEADER_BYTES + (long) REFERENCE_BYTES * length;
+  }
+
   private static <T> String objCounterName(Class<T> type) {
     return type.getSimpleName();
   }
@@ -244,22 +322,19 @@ public class Deduplicator implements DeduplicatorService, Serializable {
       .forEach(it -> builder.addObj(it.name(), sizeAndCount(it.size(), it.name()), ZERO_COUNT));
   }
 
-  private void incrementEffectCounter(Class<?> clazz) {
-    incrementEffectCounter(clazz.getName());
-  }
-
-  private void incrementEffectCounter(String key) {
-    // Count the first element, start at 1
-    effectCounter.compute(key, (k, v) -> v == null ? 1 : ++v);
-  }
-
-  private String sizeAndCount(int size, Class<?> clazz) {
-    return sizeAndCount(size, clazz.getName());
+  /**
+   * Count a request for the given type.
+   *
+   * @param hit whether an existing instance is returned instead of the given one
+   * @param bytes the estimated size of the given instance, saved if it is a hit
+   */
+  private void count(String key, boolean hit, long bytes) {
+    statistics.computeIfAbsent(key, k -> new Statistics()).add(hit, bytes);
   }
 
   private String sizeAndCount(int size, String key) {
-    int count = effectCounter.getOrDefault(key, 0);
-    return sizeAndCount(size, count);
+    Statistics stats = statistics.get(key);
+    return sizeAndCount(size, stats == null ? 0 : stats.requests.intValue());
   }
 
   private static String sizeAndCount(int size, int count) {
@@ -366,4 +441,27 @@ public class Deduplicator implements DeduplicatorService, Serializable {
   }
 
   private record NameSize(String name, int size) {}
+
+  /** Counters for one type, safe to update from several threads. */
+  private static class Statistics implements Serializable {
+
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder savedBytes = new LongAdder();
+
+    void add(boolean hit, long bytes) {
+      requests.increment();
+      if (hit) {
+        hits.increment();
+        savedBytes.add(bytes);
+      }
+    }
+
+    TypeStatistics toTypeStatistics(String type) {
+      long nRequests = requests.sum();
+      long nHits = hits.sum();
+      double hitRate = nRequests == 0 ? 0.0 : (100.0 * nHits) / nRequests;
+      return new TypeStatistics(type, nRequests, nHits, hitRate, savedBytes.sum());
+    }
+  }
 }
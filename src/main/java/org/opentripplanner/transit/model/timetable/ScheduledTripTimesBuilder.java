@@ -4,6 +4,7 @@ import java.util.BitSet;
 import java.util.List;
 import javax.annotation.Nullable;
 import org.opentripplanner.framework.i18n.I18NString;
+import org.opentripplanner.framework.lang.IntUtils;
 import org.opentripplanner.framework.time.TimeUtils;
 import org.opentripplanner.transit.model.framework.DeduplicatorService;
 import org.opentripplanner.transit.model.timetable.booking.BookingInfo;
@@ -89,8 +90,12 @@ public class ScheduledTripTimesBuilder {
     return arrivalTimes;
   }
 
+  /**
+   * The times are deduplicated when the trip times are built, after they are shifted to start at
+   * zero, see {@link #build()}.
+   */
   public ScheduledTripTimesBuilder withArrivalTimes(int[] arrivalTimes) {
-    this.arrivalTimes = deduplicator.deduplicateIntArray(arrivalTimes);
+    this.arrivalTimes = arrivalTimes;
     return this;
   }
 
@@ -103,8 +108,12 @@ public class ScheduledTripTimesBuilder {
     return departureTimes;
   }
 
+  /**
+   * The times are deduplicated when the trip times are built, after they are shifted to start at
+   * zero, see {@link #build()}.
+   */
   public ScheduledTripTimesBuilder withDepartureTimes(int[] departureTimes) {
-    this.departureTimes = deduplicator.deduplicateIntArray(departureTimes);
+    this.departureTimes = departureTimes;
     return this;
   }
 
@@ -185,7 +194,9 @@ public class ScheduledTripTimesBuilder {
 
   /**
    * Times are always shifted to zero based on the first departure time. This is essential for
-   * frequencies and deduplication.
+   * frequencies and deduplication: trips running at different times of the day with the same
+   * running and dwell times share the same arrays, and only differ by the time shift. For this to
+   * work the arrays must be deduplicated after they are shifted.
    */
   private void normalizeTimes() {
     if (departureTimes == null) {
@@ -196,23 +207,14 @@ public class ScheduledTripTimesBuilder {
     }
 
     int shift = departureTimes[0];
-    if (shift == 0) {
-      return;
+    if (shift != 0) {
+      boolean sameArray = arrivalTimes == departureTimes;
+      // Shift a copy, the given arrays may be shared with other trips
+      this.departureTimes = IntUtils.shiftArray(-shift, departureTimes);
+      this.arrivalTimes = sameArray ? departureTimes : IntUtils.shiftArray(-shift, arrivalTimes);
+      this.timeShift += shift;
     }
-    this.departureTimes = timeShift(departureTimes, shift);
-    if (arrivalTimes != departureTimes) {
-      this.arrivalTimes = timeShift(arrivalTimes, shift);
-    }
-    this.timeShift += shift;
-  }
-
-  int[] timeShift(int[] a, int shift) {
-    if (shift == 0) {
-      return a;
-    }
-    for (int i = 0; i < a.length; i++) {
-      a[i] -= shift;
-    }
-    return a;
+    this.departureTimes = deduplicator.deduplicateIntArray(departureTimes);
+    this.arrivalTimes = deduplicator.deduplicateIntArray(arrivalTimes);
   }
 }
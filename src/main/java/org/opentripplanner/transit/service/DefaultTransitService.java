@@ -63,7 +63,7 @@ import org.opentripplanner.updater.GraphUpdaterStatus;
 /**
  * Default implementation of the Transit Service and Transit Editor Service.
  * A new instance of this class should be created for each request.
- * This ensures that the same TimetableSnapshot is used for the
+ * This ensures that the same TimetableSnapshot and real-time TransitLayer are used for the
  * duration of the request (which may involve several method calls).
  */
 public class DefaultTransitService implements TransitEditorService {
@@ -77,6 +77,11 @@ public class DefaultTransitService implements TransitEditorService {
    */
   private TimetableSnapshot timetableSnapshot;
 
+  /**
+   * This should only be accessed through the lazyGetRealtimeTransitData method.
+   */
+  private RealtimeTransitData realtimeTransitData;
+
   @Inject
   public DefaultTransitService(TransitModel transitModel) {
     this.transitModel = transitModel;
@@ -545,11 +550,25 @@ public class DefaultTransitService implements TransitEditorService {
   @Nullable
   private TimetableSnapshot lazyGetTimeTableSnapShot() {
     if (this.timetableSnapshot == null) {
-      timetableSnapshot = transitModel.getTimetableSnapshot();
+      var published = lazyGetRealtimeTransitData().timetableSnapshot();
+      timetableSnapshot = published != null ? published : transitModel.getTimetableSnapshot();
     }
     return this.timetableSnapshot;
   }
 
+  /**
+   * Lazy-initialization of the real-time state, which bundles the TimetableSnapshot with the
+   * real-time TransitLayer built from it.
+   *
+   * @return The same version is returned throughout the lifecycle of this object.
+   */
+  private RealtimeTransitData lazyGetRealtimeTransitData() {
+    if (this.realtimeTransitData == null) {
+      realtimeTransitData = transitModel.getRealtimeTransitData();
+    }
+    return this.realtimeTransitData;
+  }
+
   @Override
   public TripOnServiceDate getTripOnServiceDateById(FeedScopedId datedServiceJourneyId) {
     TimetableSnapshot currentSnapshot = lazyGetTimeTableSnapShot();
@@ -644,7 +663,7 @@ public class DefaultTransitService implements TransitEditorService {
   @Override
   public TransitLayer getRealtimeTransitLayer() {
     OTPRequestTimeoutException.checkForTimeout();
-    return this.transitModel.getRealtimeTransitLayer();
+    return lazyGetRealtimeTransitData().transitLayer();
   }
 
   @Override
@@ -653,8 +672,11 @@ public class DefaultTransitService implements TransitEditorService {
   }
 
   @Override
-  public void setRealtimeTransitLayer(TransitLayer realtimeTransitLayer) {
-    transitModel.setRealtimeTransitLayer(realtimeTransitLayer);
+  public void publishRealtimeTransitData(
+    @Nullable TimetableSnapshot timetableSnapshot,
+    TransitLayer realtimeTransitLayer
+  ) {
+    transitModel.publishRealtimeTransitData(timetableSnapshot, realtimeTransitLayer);
   }
 
   @Override
@@ -0,0 +1,37 @@
+package org.opentripplanner.transit.service;
+
+import javax.annotation.Nullable;
+import org.opentripplanner.model.TimetableSnapshot;
+import org.opentripplanner.routing.algorithm.raptoradapter.transit.TransitLayer;
+
+/**
+ * The real-time state of the transit model at one point in time: the committed timetable snapshot
+ * and the real-time transit layer derived from it. Both are published together, so a request which
+ * holds on to an instance of this class sees the same version of the real-time data in the
+ * timetable lookups and in the Raptor search.
+ * <p>
+ * The version is increased each time new real-time data is published. It can be used as a cache
+ * key for data derived from the real-time state.
+ *
+ * @param timetableSnapshot the committed snapshot, or null if the snapshot is not published
+ *                          together with the transit layer, for example in tests without a
+ *                          real-time transit layer
+ * @param transitLayer      the real-time transit layer, or null if there is none
+ */
+public record RealtimeTransitData(
+  long version,
+  @Nullable TimetableSnapshot timetableSnapshot,
+  @Nullable TransitLayer transitLayer
+) {
+  public static final RealtimeTransitData EMPTY = new RealtimeTransitData(0, null, null);
+
+  /**
+   * Create the next version, replacing the snapshot and the transit layer.
+   */
+  RealtimeTransitData next(
+    @Nullable TimetableSnapshot timetableSnapshot,
+    @Nullable TransitLayer transitLayer
+  ) {
+    return new RealtimeTransitData(version + 1, timetableSnapshot, transitLayer);
+  }
+}
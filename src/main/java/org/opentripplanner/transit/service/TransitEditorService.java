@@ -1,7 +1,9 @@
 package org.opentripplanner.transit.service;
 
 import java.time.LocalDate;
+import javax.annotation.Nullable;
 import org.opentripplanner.model.FeedInfo;
+import org.opentripplanner.model.TimetableSnapshot;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.TransitLayer;
 import org.opentripplanner.transit.model.basic.TransitMode;
 import org.opentripplanner.transit.model.framework.FeedScopedId;
@@ -40,8 +42,12 @@ public interface TransitEditorService extends TransitService {
   boolean hasRealtimeTransitLayer();
 
   /**
-   * Publish the latest snapshot of the real-time transit layer.
+   * Publish the latest snapshot of the real-time transit layer, together with the timetable
+   * snapshot it was built from.
    * Should be called only when creating a new TransitLayer, from the graph writer thread.
    */
-  void setRealtimeTransitLayer(TransitLayer realtimeTransitLayer);
+  void publishRealtimeTransitData(
+    @Nullable TimetableSnapshot timetableSnapshot,
+    TransitLayer realtimeTransitLayer
+  );
 }
@@ -38,7 +38,6 @@ import org.opentripplanner.routing.algorithm.raptoradapter.transit.TransitLayer;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.mappers.TransitLayerUpdater;
 import org.opentripplanner.routing.impl.DelegatingTransitAlertServiceImpl;
 import org.opentripplanner.routing.services.TransitAlertService;
-import org.opentripplanner.routing.util.ConcurrentPublished;
 import org.opentripplanner.transit.model.basic.Notice;
 import org.opentripplanner.transit.model.basic.TransitMode;
 import org.opentripplanner.transit.model.framework.AbstractTransitEntity;
@@ -117,9 +116,10 @@ public class TransitModel implements Serializable {
 
   /**
    * An optionally present second TransitLayer representing the contents of this TransitModel plus
-   * the results of realtime updates in the latest TimetableSnapshot.
+   * the results of realtime updates in the latest TimetableSnapshot, published together with that
+   * snapshot. Readers only read the volatile reference, writers publish a new instance.
    */
-  private final transient ConcurrentPublished<TransitLayer> realtimeTransitLayer = new ConcurrentPublished<>();
+  private transient volatile RealtimeTransitData realtimeTransitData = RealtimeTransitData.EMPTY;
 
   private final transient Deduplicator deduplicator;
 
@@ -171,6 +171,10 @@ public class TransitModel implements Serializable {
 
   @Nullable
   public TimetableSnapshot getTimetableSnapshot() {
+    var published = realtimeTransitData.timetableSnapshot();
+    if (published != null) {
+      return published;
+    }
     return timetableSnapshotProvider == null
       ? null
       : timetableSnapshotProvider.getTimetableSnapshot();
@@ -198,15 +202,37 @@ public class TransitModel implements Serializable {
 
   /** Data model for Raptor routing, with realtime updates applied (if any). */
   public TransitLayer getRealtimeTransitLayer() {
-    return realtimeTransitLayer.get();
+    return realtimeTransitData.transitLayer();
+  }
+
+  /**
+   * The latest published real-time state. Hold on to the returned instance to get a consistent
+   * view of the timetable snapshot and the real-time transit layer.
+   */
+  public RealtimeTransitData getRealtimeTransitData() {
+    return realtimeTransitData;
+  }
+
+  /**
+   * Publish a new real-time transit layer, keeping the current timetable snapshot.
+   */
+  public synchronized void setRealtimeTransitLayer(TransitLayer realtimeTransitLayer) {
+    publishRealtimeTransitData(realtimeTransitData.timetableSnapshot(), realtimeTransitLayer);
   }
 
-  public void setRealtimeTransitLayer(TransitLayer realtimeTransitLayer) {
-    this.realtimeTransitLayer.publish(realtimeTransitLayer);
+  /**
+   * Publish a committed timetable snapshot together with the real-time transit layer built from
+   * it. Readers see either both or none of them.
+   */
+  public synchronized void publishRealtimeTransitData(
+    @Nullable TimetableSnapshot timetableSnapshot,
+    @Nullable TransitLayer realtimeTransitLayer
+  ) {
+    this.realtimeTransitData = realtimeTransitData.next(timetableSnapshot, realtimeTransitLayer);
   }
 
   public boolean hasRealtimeTransitLayer() {
-    return realtimeTransitLayer != null;
+    return realtimeTransitData.transitLayer() != null;
   }
 
   public DefaultTransferService getTransferService() {
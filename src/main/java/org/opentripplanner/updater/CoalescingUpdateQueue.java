@@ -0,0 +1,219 @@
+package org.opentripplanner.updater;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Tags;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import javax.annotation.Nullable;
+import org.opentripplanner.updater.spi.WriteToGraphCallback;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Collects the updates of a streaming updater until the graph writer thread is ready to apply
+ * them. Instead of submitting one graph writer task per message, at most one task per updater is
+ * waiting in the writer queue at any time, and it applies all updates received so far in one go.
+ * <p>
+ * Only the latest update for each key, typically a trip on a service date, is kept. A burst of
+ * messages, for example after a reconnect, therefore costs at most one update per trip instead
+ * of one graph writer task per message.
+ * <p>
+ * The number of keys waiting is bounded by the capacity. What happens when it is reached is
+ * decided by the {@link OverflowPolicy}. Updates are never dropped while a full dataset is
+ * waiting, since the trips missing from a full dataset are reverted to their scheduled times.
+ * A full dataset is always accepted as a whole, and the following messages are blocked until it
+ * has been applied if the capacity is reached.
+ *
+ * @param <T> the type of the updates
+ */
+public class CoalescingUpdateQueue<T> {
+
+  private static final Logger LOG = LoggerFactory.getLogger(CoalescingUpdateQueue.class);
+
+  private static final String METRICS_PREFIX = "updater.queue";
+  private static final String PENDING_METRIC = METRICS_PREFIX + ".pending";
+  private static final String UPDATER_TAG = "updater";
+
+  public enum OverflowPolicy {
+    /** Drop the updates which have waited the longest to make room for new ones. */
+    DROP_OLDEST,
+    /** Drop updates for new keys, updates for keys already waiting are still replaced. */
+    DROP_NEWEST,
+    /** Block the thread receiving the messages until the writer has caught up. */
+    BLOCK,
+  }
+
+  /**
+   * Applies a list of updates in the graph writer thread.
+   */
+  public interface UpdateApplier<T> {
+    /**
+     * @param fullDataset true if the updates replace all earlier updates of the feed
+     */
+    void apply(List<T> updates, boolean fullDataset, RealTimeUpdateContext context);
+  }
+
+  private final String name;
+  private final int capacity;
+  private final OverflowPolicy overflowPolicy;
+  private final Function<T, Object> keyMapper;
+  private final WriteToGraphCallback writeToGraphCallback;
+  private final UpdateApplier<T> applier;
+
+  private final LinkedHashMap<Object, T> pending = new LinkedHashMap<>();
+  private boolean pendingFullDataset = false;
+  private Future<?> scheduledApply;
+
+  private final AtomicInteger pendingCount = new AtomicInteger();
+  private final Gauge pendingGauge;
+  private final Counter droppedCounter;
+
+  /**
+   * @param name       used in log messages and as the tag of the metrics, typically the config
+   *                   reference of the updater. If null, the name of the updater class is used. If
+   *                   another queue with the same name has metrics, a number is appended to the
+   *                   tag.
+   * @param updaterType the class of the updater, used if the name is null
+   * @param keyMapper  maps an update to the key it is coalesced by. Updates with equal keys replace
+   *                   each other. Updates mapped to null are never replaced.
+   */
+  public CoalescingUpdateQueue(
+    @Nullable String name,
+    Class<?> updaterType,
+    UpdateQueueParameters parameters,
+    Function<T, Object> keyMapper,
+    WriteToGraphCallback writeToGraphCallback,
+    UpdateApplier<T> applier
+  ) {
+    this.name = Objects.requireNonNullElse(name, updaterType.getSimpleName());
+    this.capacity = parameters.maxPendingUpdates();
+    this.overflowPolicy = parameters.overflowPolicy();
+    this.keyMapper = keyMapper;
+    this.writeToGraphCallback = writeToGraphCallback;
+    this.applier = applier;
+
+    // Synchronized so that two queues with the same name do not pick the same metrics tag
+    synchronized (CoalescingUpdateQueue.class) {
+      var tags = Tags.of(UPDATER_TAG, uniqueMetricsTag(this.name));
+      // The gauge only keeps a weak reference to the queue, and is removed when it is closed
+      this.pendingGauge =
+        Gauge
+          .builder(PENDING_METRIC, this, q -> q.pendingCount.get())
+          .description("Updates waiting for the graph writer thread")
+          .tags(tags)
+          .register(Metrics.globalRegistry);
+      this.droppedCounter =
+        Counter
+          .builder(METRICS_PREFIX + ".dropped")
+          .description("Updates dropped because too many were waiting")
+          .tags(tags)
+          .register(Metrics.globalRegistry);
+    }
+  }
+
+  /**
+   * Add the updates of one message. This does not wait for the updates to be applied, unless the
+   * overflow policy is {@link OverflowPolicy#BLOCK} and the queue is full.
+   *
+   * @param fullDataset true if the message replaces all earlier updates of the feed, the updates
+   *                    still waiting are then dropped. The updates of a full dataset are never
+   *                    dropped.
+   * @return a future which is completed when the updates have been applied (or dropped)
+   */
+  public synchronized Future<?> offer(Collection<T> updates, boolean fullDataset)
+    throws InterruptedException {
+    if (fullDataset) {
+      pending.clear();
+      pendingFullDataset = true;
+    }
+    // Block instead of dropping any part of a full dataset which is waiting to be applied
+    while (pending.size() >= capacity && !fullDataset && mustBlock()) {
+      wait();
+    }
+    // The updates are part of the full dataset if one is waiting
+    boolean mayDrop = !pendingFullDataset;
+
+    int dropped = 0;
+    for (T update : updates) {
+      Object key = keyMapper.apply(update);
+      if (key == null) {
+        key = new Object();
+      }
+      // Remove first, so that the key moves to the end of the iteration order
+      boolean replaced = pending.remove(key) != null;
+      if (
+        mayDrop &&
+        !replaced &&
+        pending.size() >= capacity &&
+        overflowPolicy == OverflowPolicy.DROP_NEWEST
+      ) {
+        ++dropped;
+        continue;
+      }
+      pending.put(key, update);
+    }
+    if (mayDrop && overflowPolicy == OverflowPolicy.DROP_OLDEST) {
+      Iterator<T> it = pending.values().iterator();
+      while (pending.size() > capacity) {
+        it.next();
+        it.remove();
+        ++dropped;
+      }
+    }
+    if (dropped > 0) {
+      droppedCounter.increment(dropped);
+      LOG.warn("Too many updates waiting for {}, dropped {} updates.", name, dropped);
+    }
+    pendingCount.set(pending.size());
+
+    if (scheduledApply == null) {
+      scheduledApply = writeToGraphCallback.execute(this::applyPending);
+    }
+    return scheduledApply;
+  }
+
+  /**
+   * Remove the metrics of the queue. This should be called when the updater is torn down.
+   */
+  public void close() {
+    Metrics.globalRegistry.remove(pendingGauge);
+    Metrics.globalRegistry.remove(droppedCounter);
+  }
+
+  private static String uniqueMetricsTag(String name) {
+    String tag = name;
+    int i = 1;
+    while (Metrics.globalRegistry.find(PENDING_METRIC).tag(UPDATER_TAG, tag).gauge() != null) {
+      tag = name + "-" + ++i;
+    }
+    return tag;
+  }
+
+  private boolean mustBlock() {
+    return overflowPolicy == OverflowPolicy.BLOCK || pendingFullDataset;
+  }
+
+  private void applyPending(RealTimeUpdateContext context) {
+    List<T> updates;
+    boolean fullDataset;
+    synchronized (this) {
+      updates = new ArrayList<>(pending.values());
+      fullDataset = pendingFullDataset;
+      pending.clear();
+      pendingFullDataset = false;
+      pendingCount.set(0);
+      scheduledApply = null;
+      notifyAll();
+    }
+    applier.apply(updates, fullDataset, context);
+  }
+}
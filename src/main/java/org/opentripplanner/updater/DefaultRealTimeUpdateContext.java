@@ -13,6 +13,7 @@ public class DefaultRealTimeUpdateContext implements RealTimeUpdateContext {
   private final Graph graph;
   private final TransitService transitService;
   private SiriFuzzyTripMatcher siriFuzzyTripMatcher;
+  private GtfsRealtimeFuzzyTripMatcher gtfsRealtimeFuzzyTripMatcher;
 
   public DefaultRealTimeUpdateContext(
     Graph graph,
@@ -49,8 +50,11 @@ public class DefaultRealTimeUpdateContext implements RealTimeUpdateContext {
   }
 
   @Override
-  public GtfsRealtimeFuzzyTripMatcher gtfsRealtimeFuzzyTripMatcher() {
-    return new GtfsRealtimeFuzzyTripMatcher(transitService);
+  public synchronized GtfsRealtimeFuzzyTripMatcher gtfsRealtimeFuzzyTripMatcher() {
+    if (gtfsRealtimeFuzzyTripMatcher == null) {
+      gtfsRealtimeFuzzyTripMatcher = new GtfsRealtimeFuzzyTripMatcher(transitService);
+    }
+    return gtfsRealtimeFuzzyTripMatcher;
   }
 
   @Override
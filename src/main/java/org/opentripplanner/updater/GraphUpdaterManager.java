@@ -1,17 +1,29 @@
 package org.opentripplanner.updater;
 
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
 import java.util.TreeMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
+import javax.annotation.Nullable;
 import org.opentripplanner.updater.spi.GraphUpdater;
 import org.opentripplanner.updater.spi.PollingGraphUpdater;
 import org.opentripplanner.updater.spi.WriteToGraphCallback;
@@ -61,20 +73,92 @@ public class GraphUpdaterManager implements WriteToGraphCallback, GraphUpdaterSt
    */
   private final List<GraphUpdater> updaterList = new ArrayList<>();
 
+  /**
+   * Timers for the work of each updater.
+   */
+  private final Map<GraphUpdater, GraphUpdaterMetrics> updaterMetrics = new IdentityHashMap<>();
+
   /**
    * The Graph that will be updated.
    */
   private final RealTimeUpdateContext realtimeUpdateContext;
 
+  /**
+   * How long a graph writer task may wait for other tasks to arrive, before the pending tasks are
+   * run together as one batch on the writer thread.
+   */
+  private final Duration graphWriterBatchWindow;
+
+  /**
+   * Graph writer tasks waiting for the next batch.
+   */
+  private final Queue<FutureTask<?>> pendingGraphWriterTasks = new ConcurrentLinkedQueue<>();
+  private final AtomicInteger pendingGraphWriterTaskCount = new AtomicInteger();
+  private final AtomicBoolean graphWriterBatchScheduled = new AtomicBoolean();
+
+  /**
+   * Run on the writer thread after the tasks of each batch, used to commit the timetable snapshot
+   * once per batch.
+   */
+  @Nullable
+  private volatile Runnable graphWriterBatchCommit;
+
+  private final Gauge graphWriterQueueDepth;
+  private final DistributionSummary graphWriterBatchSize;
+  private final Timer graphWriterBatchTimer;
+
   /**
    * Constructor.
    *
    */
   public GraphUpdaterManager(RealTimeUpdateContext context, List<GraphUpdater> updaters) {
+    this(context, updaters, Duration.ZERO);
+  }
+
+  public GraphUpdaterManager(
+    RealTimeUpdateContext context,
+    List<GraphUpdater> updaters,
+    Duration graphWriterBatchWindow
+  ) {
+    this(
+      context,
+      updaters,
+      graphWriterBatchWindow,
+      Executors.newSingleThreadScheduledExecutor(
+        new ThreadFactoryBuilder().setNameFormat("graph-writer").build()
+      )
+    );
+  }
+
+  /**
+   * @param graphWriterScheduler runs the graph writer batches, must use a single thread
+   */
+  GraphUpdaterManager(
+    RealTimeUpdateContext context,
+    List<GraphUpdater> updaters,
+    Duration graphWriterBatchWindow,
+    ScheduledExecutorService graphWriterScheduler
+  ) {
     this.realtimeUpdateContext = context;
+    this.graphWriterBatchWindow = graphWriterBatchWindow;
+    // The gauge only keeps a weak reference to the manager, and is removed when it is stopped
+    this.graphWriterQueueDepth =
+      Gauge
+        .builder("graph_writer.queue_depth", this, m -> m.pendingGraphWriterTaskCount.get())
+        .description("Graph writer tasks waiting to be run")
+        .register(Metrics.globalRegistry);
+    this.graphWriterBatchSize =
+      DistributionSummary
+        .builder("graph_writer.batch_size")
+        .description("Graph writer tasks run together in one batch")
+        .register(Metrics.globalRegistry);
+    this.graphWriterBatchTimer =
+      Timer
+        .builder("graph_writer.batch")
+        .description("Time spent running a batch of graph writer tasks and its commit")
+        .register(Metrics.globalRegistry);
+    this.scheduler = graphWriterScheduler;
     // Thread factories used to create new threads, giving them more human-readable names.
-    var graphWriterThreadFactory = new ThreadFactoryBuilder().setNameFormat("graph-writer").build();
-    this.scheduler = Executors.newSingleThreadScheduledExecutor(graphWriterThreadFactory);
     var updaterThreadFactory = new ThreadFactoryBuilder().setNameFormat("updater-%d").build();
     this.pollingUpdaterPool =
       Executors.newScheduledThreadPool(
@@ -85,7 +169,9 @@ public class GraphUpdaterManager implements WriteToGraphCallback, GraphUpdaterSt
 
     for (GraphUpdater updater : updaters) {
       updaterList.add(updater);
-      updater.setup(this);
+      var metrics = GraphUpdaterMetrics.of(updater);
+      updaterMetrics.put(updater, metrics);
+      updater.setup(runnable -> execute(runnable, metrics));
     }
   }
 
@@ -95,12 +181,17 @@ public class GraphUpdaterManager implements WriteToGraphCallback, GraphUpdaterSt
    */
   public void startUpdaters() {
     for (GraphUpdater updater : updaterList) {
+      var metrics = updaterMetrics.get(updater);
       Runnable runUpdater = () -> {
+        long start = System.nanoTime();
         try {
           updater.run();
         } catch (Exception e) {
           LOG.error("Error while running updater {}:", updater.getClass().getName(), e);
         }
+        if (updater instanceof PollingGraphUpdater) {
+          metrics.recordPoll(System.nanoTime() - start);
+        }
       };
       if (updater instanceof PollingGraphUpdater pollingGraphUpdater) {
         LOG.info("Scheduling polling updater {}", updater);
@@ -177,18 +268,51 @@ public class GraphUpdaterManager implements WriteToGraphCallback, GraphUpdaterSt
       // This should not happen
       LOG.warn("Interrupted while waiting for scheduled task to finish.");
     }
+    Metrics.globalRegistry.remove(graphWriterQueueDepth);
     LOG.info("Stopped updater manager");
   }
 
+  /**
+   * Queue the runnable for the graph writer thread. All runnables submitted within the batch
+   * window are run one after the other in a single batch, in the order they were submitted.
+   *
+   * @see #commitAfterEachGraphWriterBatch(Runnable)
+   */
   @Override
   public Future<?> execute(GraphWriterRunnable runnable) {
-    return scheduler.submit(() -> {
-      try {
-        runnable.run(realtimeUpdateContext);
-      } catch (Exception e) {
-        LOG.error("Error while running graph writer {}:", runnable.getClass().getName(), e);
-      }
-    });
+    return execute(runnable, null);
+  }
+
+  /**
+   * Queue the runnable, and record the time it waits in the queue and the time it takes to run
+   * with the timers of the updater which submitted it.
+   */
+  private Future<?> execute(GraphWriterRunnable runnable, @Nullable GraphUpdaterMetrics metrics) {
+    long submitted = System.nanoTime();
+    var task = new FutureTask<Void>(
+      () -> {
+        long started = System.nanoTime();
+        try {
+          runnable.run(realtimeUpdateContext);
+        } catch (Exception e) {
+          LOG.error("Error while running graph writer {}:", runnable.getClass().getName(), e);
+        }
+        if (metrics != null) {
+          metrics.recordGraphWrite(started - submitted, System.nanoTime() - started);
+        }
+      },
+      null
+    );
+    pendingGraphWriterTasks.add(task);
+    pendingGraphWriterTaskCount.incrementAndGet();
+    if (graphWriterBatchScheduled.compareAndSet(false, true)) {
+      scheduler.schedule(
+        this::runGraphWriterBatch,
+        graphWriterBatchWindow.toMillis(),
+        TimeUnit.MILLISECONDS
+      );
+    }
+    return task;
   }
 
   @Override
@@ -256,6 +380,40 @@ public class GraphUpdaterManager implements WriteToGraphCallback, GraphUpdaterSt
     return scheduler;
   }
 
+  public Duration getGraphWriterBatchWindow() {
+    return graphWriterBatchWindow;
+  }
+
+  /**
+   * Run the given commit on the writer thread at the end of each batch of graph writer tasks, so
+   * the changes made by all tasks of the batch are published together.
+   */
+  public void commitAfterEachGraphWriterBatch(Runnable commit) {
+    this.graphWriterBatchCommit = commit;
+  }
+
+  /**
+   * Run all pending graph writer tasks, then the batch commit. Tasks submitted while the batch is
+   * running are left for the next batch, which is scheduled by the first of them.
+   */
+  private void runGraphWriterBatch() {
+    graphWriterBatchScheduled.set(false);
+    int size = pendingGraphWriterTaskCount.get();
+    if (size == 0) {
+      return;
+    }
+    var sample = Timer.start();
+    for (int i = 0; i < size; ++i) {
+      pendingGraphWriterTaskCount.decrementAndGet();
+      pendingGraphWriterTasks.remove().run();
+    }
+    if (graphWriterBatchCommit != null) {
+      graphWriterBatchCommit.run();
+    }
+    sample.stop(graphWriterBatchTimer);
+    graphWriterBatchSize.record(size);
+  }
+
   /**
    * This method start a task during startup and log a message when all updaters are initialized.
    * When all updaters are ready, then OTP is ready for processing routing requests.
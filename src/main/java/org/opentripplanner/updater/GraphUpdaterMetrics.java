@@ -0,0 +1,127 @@
+package org.opentripplanner.updater;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nullable;
+import org.opentripplanner.updater.spi.GraphUpdater;
+
+/**
+ * Timers for the work done by one updater, tagged with the config reference of the updater. They
+ * make it possible to see which updater spends the most time in the single graph writer thread.
+ * <p>
+ * The {@link GraphUpdaterManager} records the polling and graph writer timers. The update sources
+ * record the fetch, parse, payload size and receive lag of the data they receive, since only they
+ * see the response and the feed timestamp. Meters with the same name and tags are shared, so the
+ * sources can create their own instance with {@link #of(String, Class)}.
+ */
+public class GraphUpdaterMetrics {
+
+  private static final String METRICS_PREFIX = "updater";
+
+  private final Timer pollTimer;
+  private final Timer queueWaitTimer;
+  private final Timer applyTimer;
+  private final Timer fetchTimer;
+  private final Timer parseTimer;
+  private final DistributionSummary payloadSize;
+  private final Timer receiveLagTimer;
+
+  private GraphUpdaterMetrics(String updater) {
+    var tags = Tags.of("updater", updater);
+    this.pollTimer =
+      Timer
+        .builder(METRICS_PREFIX + ".poll")
+        .description("Time spent fetching and parsing data in each polling run")
+        .tags(tags)
+        .register(Metrics.globalRegistry);
+    this.queueWaitTimer =
+      Timer
+        .builder(METRICS_PREFIX + ".queue_wait")
+        .description("Time graph writer tasks wait before the writer thread runs them")
+        .tags(tags)
+        .register(Metrics.globalRegistry);
+    this.applyTimer =
+      Timer
+        .builder(METRICS_PREFIX + ".apply")
+        .description("Time spent applying updates in the graph writer thread")
+        .tags(tags)
+        .register(Metrics.globalRegistry);
+    this.fetchTimer =
+      Timer
+        .builder(METRICS_PREFIX + ".fetch")
+        .description("Time from sending a request until the response body can be read")
+        .tags(tags)
+        .register(Metrics.globalRegistry);
+    this.parseTimer =
+      Timer
+        .builder(METRICS_PREFIX + ".parse")
+        .description("Time spent reading and parsing the response body")
+        .tags(tags)
+        .register(Metrics.globalRegistry);
+    this.payloadSize =
+      DistributionSummary
+        .builder(METRICS_PREFIX + ".payload")
+        .description("Size of the response body")
+        .baseUnit("bytes")
+        .tags(tags)
+        .register(Metrics.globalRegistry);
+    this.receiveLagTimer =
+      Timer
+        .builder(METRICS_PREFIX + ".receive_lag")
+        .description("Age of the data when it is received, from the timestamp of the feed")
+        .tags(tags)
+        .register(Metrics.globalRegistry);
+  }
+
+  static GraphUpdaterMetrics of(GraphUpdater updater) {
+    return of(updater.getConfigRef(), updater.getClass());
+  }
+
+  /**
+   * The metrics of the updater with the given config reference, or of the updater type if the
+   * updater has no config reference.
+   */
+  public static GraphUpdaterMetrics of(@Nullable String configRef, Class<?> updaterType) {
+    return new GraphUpdaterMetrics(
+      Objects.requireNonNullElse(configRef, updaterType.getSimpleName())
+    );
+  }
+
+  public void recordFetch(long nanos) {
+    fetchTimer.record(nanos, TimeUnit.NANOSECONDS);
+  }
+
+  public void recordParse(long nanos) {
+    parseTimer.record(nanos, TimeUnit.NANOSECONDS);
+  }
+
+  public void recordPayload(long bytes) {
+    payloadSize.record(bytes);
+  }
+
+  /**
+   * Record the time since the given feed timestamp, when the data is received. This does not
+   * include the time waiting for the graph writer and for the next timetable snapshot. Clocks of
+   * the producer and of OTP are not always in sync, a timestamp in the future is recorded as no
+   * lag.
+   */
+  public void recordReceiveLag(Instant feedTimestamp) {
+    var lag = Duration.between(feedTimestamp, Instant.now());
+    receiveLagTimer.record(lag.isNegative() ? Duration.ZERO : lag);
+  }
+
+  void recordPoll(long nanos) {
+    pollTimer.record(nanos, TimeUnit.NANOSECONDS);
+  }
+
+  void recordGraphWrite(long queueWaitNanos, long applyNanos) {
+    queueWaitTimer.record(queueWaitNanos, TimeUnit.NANOSECONDS);
+    applyTimer.record(applyNanos, TimeUnit.NANOSECONDS);
+  }
+}
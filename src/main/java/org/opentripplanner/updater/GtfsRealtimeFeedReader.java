@@ -0,0 +1,93 @@
+package org.opentripplanner.updater;
+
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.ExtensionRegistryLite;
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.MessageLite;
+import com.google.protobuf.UninitializedMessageException;
+import com.google.protobuf.WireFormat;
+import com.google.transit.realtime.GtfsRealtime.FeedEntity;
+import com.google.transit.realtime.GtfsRealtime.FeedHeader;
+import com.google.transit.realtime.GtfsRealtime.FeedMessage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.function.Consumer;
+
+/**
+ * Reads a GTFS-RT FeedMessage one entity at a time, instead of parsing the whole message first.
+ * Each entity is passed on as soon as it is read, so the caller can keep only the entities it
+ * needs, for example the trip updates of a feed that also contains vehicle positions. The
+ * FeedMessage itself is never built, which keeps the peak memory usage for large feeds down.
+ * <p>
+ * Like {@link FeedMessage#parseFrom(InputStream)}, the message is rejected if the header or an
+ * entity is missing a required field. Extensions of the FeedMessage itself are skipped.
+ */
+public final class GtfsRealtimeFeedReader {
+
+  private static final int HEADER_TAG = tag(FeedMessage.HEADER_FIELD_NUMBER);
+  private static final int ENTITY_TAG = tag(FeedMessage.ENTITY_FIELD_NUMBER);
+
+  private GtfsRealtimeFeedReader() {}
+
+  /**
+   * Read the feed message from the stream and pass each entity to the consumer, in the order
+   * they appear in the message.
+   *
+   * @return the header of the feed message
+   */
+  public static FeedHeader read(
+    InputStream is,
+    ExtensionRegistryLite registry,
+    Consumer<FeedEntity> entityConsumer
+  ) throws IOException {
+    return read(CodedInputStream.newInstance(is), registry, entityConsumer);
+  }
+
+  /**
+   * Same as {@link #read(InputStream, ExtensionRegistryLite, Consumer)}, for a message which is
+   * already in memory.
+   */
+  public static FeedHeader read(
+    byte[] bytes,
+    ExtensionRegistryLite registry,
+    Consumer<FeedEntity> entityConsumer
+  ) throws IOException {
+    return read(CodedInputStream.newInstance(bytes), registry, entityConsumer);
+  }
+
+  private static FeedHeader read(
+    CodedInputStream input,
+    ExtensionRegistryLite registry,
+    Consumer<FeedEntity> entityConsumer
+  ) throws IOException {
+    FeedHeader header = null;
+    int tag;
+    while ((tag = input.readTag()) != 0) {
+      if (tag == HEADER_TAG) {
+        header = checkInitialized(input.readMessage(FeedHeader.parser(), registry));
+      } else if (tag == ENTITY_TAG) {
+        entityConsumer.accept(checkInitialized(input.readMessage(FeedEntity.parser(), registry)));
+      } else {
+        input.skipField(tag);
+      }
+      // Apply the size limit of the stream to each entity instead of to the whole feed
+      input.resetSizeCounter();
+    }
+    if (header == null) {
+      throw new InvalidProtocolBufferException("GTFS-RT feed message has no header.");
+    }
+    return header;
+  }
+
+  private static <T extends MessageLite> T checkInitialized(T message)
+    throws InvalidProtocolBufferException {
+    if (!message.isInitialized()) {
+      throw new UninitializedMessageException(message).asInvalidProtocolBufferException();
+    }
+    return message;
+  }
+
+  private static int tag(int fieldNumber) {
+    return (fieldNumber << 3) | WireFormat.WIRETYPE_LENGTH_DELIMITED;
+  }
+}
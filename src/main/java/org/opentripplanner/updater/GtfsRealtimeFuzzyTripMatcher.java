@@ -1,13 +1,20 @@
 package org.opentripplanner.updater;
 
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
 import com.google.transit.realtime.GtfsRealtime.TripDescriptor;
 import gnu.trove.set.TIntSet;
 import java.text.ParseException;
 import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 import org.opentripplanner.framework.time.ServiceDateUtils;
 import org.opentripplanner.framework.time.TimeUtils;
 import org.opentripplanner.graph_builder.issue.api.DataImportIssueStore;
 import org.opentripplanner.gtfs.mapping.DirectionMapper;
+import org.opentripplanner.model.Timetable;
 import org.opentripplanner.transit.model.framework.FeedScopedId;
 import org.opentripplanner.transit.model.network.Route;
 import org.opentripplanner.transit.model.network.TripPattern;
@@ -22,6 +29,11 @@ import org.opentripplanner.transit.service.TransitService;
  * <p>
  * The class should only be used if we know that the feed producer is unable to produce trip_ids in
  * the GTFS-RT feed.
+ * <p>
+ * The trips of each scheduled timetable are indexed by their first departure time the first time
+ * the timetable is searched. Timetables are immutable, so an index stays valid as long as its
+ * timetable is in use. Patterns added by real-time updates come with new timetables, which are
+ * indexed when they are first seen. The index is safe to use from several threads at once.
  */
 public class GtfsRealtimeFuzzyTripMatcher {
 
@@ -30,6 +42,11 @@ public class GtfsRealtimeFuzzyTripMatcher {
   // TODO: replace this with a runtime solution
   private final DirectionMapper directionMapper = new DirectionMapper(DataImportIssueStore.NOOP);
 
+  private final LoadingCache<Timetable, Map<Integer, List<TripTimes>>> tripTimesByDepartureTime = CacheBuilder
+    .newBuilder()
+    .weakKeys()
+    .build(CacheLoader.from(GtfsRealtimeFuzzyTripMatcher::indexByDepartureTime));
+
   public GtfsRealtimeFuzzyTripMatcher(TransitService transitService) {
     this.transitService = transitService;
   }
@@ -78,24 +95,24 @@ public class GtfsRealtimeFuzzyTripMatcher {
     return trip.toBuilder().setTripId(matchedTrip.getId().getId()).build();
   }
 
-  public synchronized Trip getTrip(
-    Route route,
-    Direction direction,
-    int startTime,
-    LocalDate date
-  ) {
+  public Trip getTrip(Route route, Direction direction, int startTime, LocalDate date) {
     TIntSet servicesRunningForDate = transitService.getServiceCodesRunningForDate(date);
     for (TripPattern pattern : transitService.getPatternsForRoute(route)) {
       if (pattern.getDirection() != direction) continue;
-      for (TripTimes times : pattern.getScheduledTimetable().getTripTimes()) {
-        if (
-          times.getScheduledDepartureTime(0) == startTime &&
-          servicesRunningForDate.contains(times.getServiceCode())
-        ) {
+      var departures = tripTimesByDepartureTime.getUnchecked(pattern.getScheduledTimetable());
+      for (TripTimes times : departures.getOrDefault(startTime, List.of())) {
+        if (servicesRunningForDate.contains(times.getServiceCode())) {
           return times.getTrip();
         }
       }
     }
     return null;
   }
+
+  private static Map<Integer, List<TripTimes>> indexByDepartureTime(Timetable timetable) {
+    return timetable
+      .getTripTimes()
+      .stream()
+      .collect(Collectors.groupingBy(times -> times.getScheduledDepartureTime(0)));
+  }
 }
@@ -8,20 +8,47 @@ import java.time.Duration;
  */
 public record TimetableSnapshotSourceParameters(
   Duration maxSnapshotFrequency,
-  boolean purgeExpiredData
+  boolean purgeExpiredData,
+  Duration graphWriterBatchWindow
 ) {
   public static final TimetableSnapshotSourceParameters DEFAULT = new TimetableSnapshotSourceParameters(
     Duration.ofSeconds(1),
-    true
+    true,
+    Duration.ZERO
   );
 
+  public TimetableSnapshotSourceParameters(
+    Duration maxSnapshotFrequency,
+    boolean purgeExpiredData
+  ) {
+    this(maxSnapshotFrequency, purgeExpiredData, DEFAULT.graphWriterBatchWindow);
+  }
+
   /* Factory functions, used instead of a builder - useful in tests. */
 
   public TimetableSnapshotSourceParameters withMaxSnapshotFrequency(Duration maxSnapshotFrequency) {
-    return new TimetableSnapshotSourceParameters(maxSnapshotFrequency, this.purgeExpiredData);
+    return new TimetableSnapshotSourceParameters(
+      maxSnapshotFrequency,
+      this.purgeExpiredData,
+      this.graphWriterBatchWindow
+    );
   }
 
   public TimetableSnapshotSourceParameters withPurgeExpiredData(boolean purgeExpiredData) {
-    return new TimetableSnapshotSourceParameters(this.maxSnapshotFrequency, purgeExpiredData);
+    return new TimetableSnapshotSourceParameters(
+      this.maxSnapshotFrequency,
+      purgeExpiredData,
+      this.graphWriterBatchWindow
+    );
+  }
+
+  public TimetableSnapshotSourceParameters withGraphWriterBatchWindow(
+    Duration graphWriterBatchWindow
+  ) {
+    return new TimetableSnapshotSourceParameters(
+      this.maxSnapshotFrequency,
+      this.purgeExpiredData,
+      graphWriterBatchWindow
+    );
   }
 }
@@ -0,0 +1,26 @@
+package org.opentripplanner.updater;
+
+import java.util.Objects;
+import org.opentripplanner.updater.CoalescingUpdateQueue.OverflowPolicy;
+
+/**
+ * The limits of the {@link CoalescingUpdateQueue} of a streaming updater.
+ *
+ * @param maxPendingUpdates the number of trips which may wait for the graph writer thread
+ * @param overflowPolicy    what to do with new updates when the limit is reached
+ */
+public record UpdateQueueParameters(int maxPendingUpdates, OverflowPolicy overflowPolicy) {
+  public static final UpdateQueueParameters DEFAULT = new UpdateQueueParameters(
+    100_000,
+    OverflowPolicy.DROP_OLDEST
+  );
+
+  public UpdateQueueParameters {
+    if (maxPendingUpdates < 1) {
+      throw new IllegalArgumentException(
+        "maxPendingUpdates must be positive: " + maxPendingUpdates
+      );
+    }
+    Objects.requireNonNull(overflowPolicy);
+  }
+}
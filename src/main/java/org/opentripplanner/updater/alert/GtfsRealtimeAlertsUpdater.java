@@ -2,6 +2,7 @@ package org.opentripplanner.updater.alert;
 
 import com.google.transit.realtime.GtfsRealtime.FeedMessage;
 import java.net.URI;
+import java.util.Optional;
 import org.opentripplanner.framework.io.OtpHttpClient;
 import org.opentripplanner.framework.io.OtpHttpClientFactory;
 import org.opentripplanner.framework.tostring.ToStringBuilder;
@@ -65,11 +66,16 @@ public class GtfsRealtimeAlertsUpdater extends PollingGraphUpdater implements Tr
   @Override
   protected void runPolling() {
     try {
-      final FeedMessage feed = otpHttpClient.getAndMap(
+      final Optional<FeedMessage> feedMessage = otpHttpClient.getAndMapIfModified(
         URI.create(url),
         this.headers.asMap(),
         FeedMessage.PARSER::parseFrom
       );
+      if (feedMessage.isEmpty()) {
+        LOG.debug("Ignoring feed which has not been modified from {}", url);
+        return;
+      }
+      final FeedMessage feed = feedMessage.get();
 
       long feedTimestamp = feed.getHeader().getTimestamp();
       if (feedTimestamp == lastTimestamp) {
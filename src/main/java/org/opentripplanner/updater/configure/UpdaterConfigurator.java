@@ -103,7 +103,8 @@ public class UpdaterConfigurator {
     }
     GraphUpdaterManager updaterManager = new GraphUpdaterManager(
       new DefaultRealTimeUpdateContext(graph, transitModel, timetableSnapshotBuffer),
-      updaters
+      updaters,
+      updatersParameters.timetableSnapshotParameters().graphWriterBatchWindow()
     );
 
     configureTimetableSnapshotFlush(updaterManager);
@@ -246,15 +247,25 @@ public class UpdaterConfigurator {
   }
 
   /**
-   * If SIRI or GTFS real-time updaters are in use, configure a periodic flush of the timetable
-   * snapshot.
+   * If SIRI or GTFS real-time updaters are in use, configure a flush of the timetable snapshot.
+   * With a graph writer batch window the snapshot is flushed once at the end of each batch,
+   * otherwise it is flushed periodically.
    */
   private void configureTimetableSnapshotFlush(GraphUpdaterManager updaterManager) {
-    if (siriTimetableSnapshotSource != null || gtfsTimetableSnapshotSource != null) {
+    if (siriTimetableSnapshotSource == null && gtfsTimetableSnapshotSource == null) {
+      return;
+    }
+    var flush = new TimetableSnapshotFlush(
+      siriTimetableSnapshotSource,
+      gtfsTimetableSnapshotSource
+    );
+    if (updaterManager.getGraphWriterBatchWindow().isPositive()) {
+      updaterManager.commitAfterEachGraphWriterBatch(flush);
+    } else {
       updaterManager
         .getScheduler()
         .scheduleWithFixedDelay(
-          new TimetableSnapshotFlush(siriTimetableSnapshotSource, gtfsTimetableSnapshotSource),
+          flush,
           0,
           updatersParameters.timetableSnapshotParameters().maxSnapshotFrequency().toSeconds(),
           TimeUnit.SECONDS
@@ -2,8 +2,10 @@ package org.opentripplanner.updater.spi;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import java.util.List;
+import java.util.Optional;
 import org.opentripplanner.framework.io.JsonDataListDownloader;
 import org.opentripplanner.framework.io.OtpHttpClient;
+import org.opentripplanner.framework.io.OtpHttpClientException;
 import org.opentripplanner.framework.io.OtpHttpClientFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -36,17 +38,29 @@ public abstract class GenericJsonDataSource<T> implements DataSource<T> {
       );
   }
 
+  /**
+   * Download the entities, unless they have not been modified since the last update.
+   *
+   * @return true if there are new entities
+   */
   @Override
   public boolean update() {
-    List<T> updates = jsonDataListDownloader.download();
-    if (updates != null) {
-      synchronized (this) {
-        this.updates = updates;
-      }
-      return true;
+    Optional<List<T>> updates;
+    try {
+      updates = jsonDataListDownloader.downloadIfModified();
+    } catch (OtpHttpClientException e) {
+      LOG.warn("Failed to get data from url {}", url, e);
+      LOG.info("Can't update entities from: {}, keeping current list.", url);
+      return false;
     }
-    LOG.info("Can't update entities from: {}, keeping current list.", url);
-    return false;
+    if (updates.isEmpty()) {
+      LOG.debug("Entities from {} have not been modified", url);
+      return false;
+    }
+    synchronized (this) {
+      this.updates = updates.get();
+    }
+    return true;
   }
 
   @Override
@@ -1,5 +1,7 @@
 package org.opentripplanner.updater.spi;
 
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
 import org.opentripplanner.ext.siri.SiriTimetableSnapshotSource;
 import org.opentripplanner.updater.trip.TimetableSnapshotSource;
 import org.slf4j.Logger;
@@ -16,6 +18,10 @@ public class TimetableSnapshotFlush implements Runnable {
 
   private final SiriTimetableSnapshotSource siriTimetableSnapshotSource;
   private final TimetableSnapshotSource gtfsTimetableSnapshotSource;
+  private final Timer commitTimer = Timer
+    .builder("timetable_snapshot.commit")
+    .description("Time spent committing the timetable snapshot and updating the transit layer")
+    .register(Metrics.globalRegistry);
 
   public TimetableSnapshotFlush(
     SiriTimetableSnapshotSource siriTimetableSnapshotSource,
@@ -29,12 +35,14 @@ public class TimetableSnapshotFlush implements Runnable {
   public void run() {
     try {
       LOG.debug("Flushing timetable snapshot buffer");
-      if (siriTimetableSnapshotSource != null) {
-        siriTimetableSnapshotSource.flushBuffer();
-      }
-      if (gtfsTimetableSnapshotSource != null) {
-        gtfsTimetableSnapshotSource.flushBuffer();
-      }
+      commitTimer.record(() -> {
+        if (siriTimetableSnapshotSource != null) {
+          siriTimetableSnapshotSource.flushBuffer();
+        }
+        if (gtfsTimetableSnapshotSource != null) {
+          gtfsTimetableSnapshotSource.flushBuffer();
+        }
+      });
       LOG.debug("Flushed timetable snapshot buffer");
     } catch (Throwable t) {
       LOG.error("Error flushing timetable snapshot buffer", t);
@@ -0,0 +1,54 @@
+package org.opentripplanner.updater.trip;
+
+import com.google.transit.realtime.GtfsRealtime.TripDescriptor.ScheduleRelationship;
+import com.google.transit.realtime.GtfsRealtime.TripUpdate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiConsumer;
+import org.opentripplanner.transit.model.framework.Result;
+import org.opentripplanner.updater.spi.UpdateError;
+import org.opentripplanner.updater.spi.UpdateSuccess;
+
+/**
+ * The trip updates for one trip on one service date in the last full dataset applied for a feed,
+ * with the result of applying each of them. If the next full dataset contains the same updates
+ * for the trip, they are not applied again and the results are reused.
+ * <p>
+ * The updates are compared without the timestamp, since many producers set it to the time the
+ * feed was created, even if nothing else changed.
+ */
+class AppliedTripUpdates {
+
+  private final List<TripUpdate> fingerprints = new ArrayList<>();
+  private final List<ScheduleRelationship> scheduleRelationships = new ArrayList<>();
+  private final List<Result<UpdateSuccess, UpdateError>> results = new ArrayList<>();
+
+  void add(
+    TripUpdate tripUpdate,
+    ScheduleRelationship scheduleRelationship,
+    Result<UpdateSuccess, UpdateError> result
+  ) {
+    fingerprints.add(fingerprint(tripUpdate));
+    scheduleRelationships.add(scheduleRelationship);
+    results.add(result);
+  }
+
+  /**
+   * @param fingerprints the fingerprints of the updates for the trip in the new dataset, in order
+   */
+  boolean isUnchanged(List<TripUpdate> fingerprints) {
+    return this.fingerprints.equals(fingerprints);
+  }
+
+  void forEachResult(
+    BiConsumer<ScheduleRelationship, Result<UpdateSuccess, UpdateError>> consumer
+  ) {
+    for (int i = 0; i < results.size(); ++i) {
+      consumer.accept(scheduleRelationships.get(i), results.get(i));
+    }
+  }
+
+  static TripUpdate fingerprint(TripUpdate tripUpdate) {
+    return tripUpdate.hasTimestamp() ? tripUpdate.toBuilder().clearTimestamp().build() : tripUpdate;
+  }
+}
@@ -3,18 +3,22 @@ package org.opentripplanner.updater.trip;
 import static org.opentripplanner.updater.trip.UpdateIncrementality.DIFFERENTIAL;
 import static org.opentripplanner.updater.trip.UpdateIncrementality.FULL_DATASET;
 
+import com.google.common.io.CountingInputStream;
 import com.google.protobuf.ExtensionRegistry;
 import com.google.transit.realtime.GtfsRealtime;
-import com.google.transit.realtime.GtfsRealtime.FeedEntity;
-import com.google.transit.realtime.GtfsRealtime.FeedMessage;
+import com.google.transit.realtime.GtfsRealtime.FeedHeader;
 import com.google.transit.realtime.GtfsRealtime.TripUpdate;
 import de.mfdz.MfdzRealtimeExtensions;
 import java.net.URI;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 import org.opentripplanner.framework.io.OtpHttpClient;
 import org.opentripplanner.framework.io.OtpHttpClientFactory;
 import org.opentripplanner.framework.tostring.ToStringBuilder;
+import org.opentripplanner.updater.GraphUpdaterMetrics;
+import org.opentripplanner.updater.GtfsRealtimeFeedReader;
 import org.opentripplanner.updater.spi.HttpHeaders;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -31,6 +35,7 @@ public class GtfsRealtimeTripUpdateSource {
   private UpdateIncrementality updateIncrementality = FULL_DATASET;
   private final ExtensionRegistry registry = ExtensionRegistry.newInstance();
   private final OtpHttpClient otpHttpClient;
+  private final GraphUpdaterMetrics metrics;
 
   public GtfsRealtimeTripUpdateSource(PollingTripUpdaterParameters config) {
     this.feedId = config.feedId();
@@ -38,40 +43,58 @@ public class GtfsRealtimeTripUpdateSource {
     this.headers = HttpHeaders.of().acceptProtobuf().add(config.headers()).build();
     MfdzRealtimeExtensions.registerAllExtensions(registry);
     otpHttpClient = new OtpHttpClientFactory().create(LOG);
+    this.metrics = GraphUpdaterMetrics.of(config.configRef(), PollingTripUpdater.class);
   }
 
+  /**
+   * @return the trip updates of the feed, or null if the feed could not be read or has not been
+   * modified since the last call
+   */
   public List<TripUpdate> getUpdates() {
-    FeedMessage feedMessage;
-    List<FeedEntity> feedEntityList;
     List<TripUpdate> updates = null;
     updateIncrementality = FULL_DATASET;
     try {
-      // Decode message
-      feedMessage =
-        otpHttpClient.getAndMap(
-          URI.create(url),
-          this.headers.asMap(),
-          is -> FeedMessage.parseFrom(is, registry)
-        );
-      feedEntityList = feedMessage.getEntityList();
+      // Decode message, keeping only the trip updates
+      List<TripUpdate> tripUpdates = new ArrayList<>();
+      long requested = System.nanoTime();
+      Optional<FeedHeader> feedHeader = otpHttpClient.getAndMapIfModified(
+        URI.create(url),
+        this.headers.asMap(),
+        is -> {
+          long fetched = System.nanoTime();
+          var countingStream = new CountingInputStream(is);
+          var result = GtfsRealtimeFeedReader.read(
+            countingStream,
+            registry,
+            entity -> {
+              if (entity.hasTripUpdate()) {
+                tripUpdates.add(entity.getTripUpdate());
+              }
+            }
+          );
+          metrics.recordFetch(fetched - requested);
+          metrics.recordParse(System.nanoTime() - fetched);
+          metrics.recordPayload(countingStream.getCount());
+          return result;
+        }
+      );
+      if (feedHeader.isEmpty()) {
+        LOG.debug("GTFS-RT feed from {} has not been modified", url);
+        return null;
+      }
+      var header = feedHeader.get();
+      if (header.hasTimestamp()) {
+        metrics.recordReceiveLag(Instant.ofEpochSecond(header.getTimestamp()));
+      }
 
       // Change fullDataset value if this is an incremental update
       if (
-        feedMessage.hasHeader() &&
-        feedMessage.getHeader().hasIncrementality() &&
-        feedMessage
-          .getHeader()
-          .getIncrementality()
-          .equals(GtfsRealtime.FeedHeader.Incrementality.DIFFERENTIAL)
+        header.hasIncrementality() &&
+        header.getIncrementality().equals(GtfsRealtime.FeedHeader.Incrementality.DIFFERENTIAL)
       ) {
         updateIncrementality = DIFFERENTIAL;
       }
-
-      // Create List of TripUpdates
-      updates = new ArrayList<>(feedEntityList.size());
-      for (FeedEntity feedEntity : feedEntityList) {
-        if (feedEntity.hasTripUpdate()) updates.add(feedEntity.getTripUpdate());
-      }
+      updates = tripUpdates;
     } catch (Exception e) {
       LOG.error("Failed to parse GTFS-RT feed from {}", url, e);
     }
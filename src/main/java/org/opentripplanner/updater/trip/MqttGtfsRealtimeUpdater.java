@@ -3,9 +3,11 @@ package org.opentripplanner.updater.trip;
 import static org.opentripplanner.updater.trip.UpdateIncrementality.DIFFERENTIAL;
 import static org.opentripplanner.updater.trip.UpdateIncrementality.FULL_DATASET;
 
-import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.ExtensionRegistryLite;
 import com.google.transit.realtime.GtfsRealtime;
+import java.io.IOException;
 import java.net.URI;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.function.Consumer;
@@ -17,6 +19,10 @@ import org.eclipse.paho.client.mqttv3.MqttException;
 import org.eclipse.paho.client.mqttv3.MqttMessage;
 import org.eclipse.paho.client.mqttv3.persist.MemoryPersistence;
 import org.opentripplanner.framework.tostring.ToStringBuilder;
+import org.opentripplanner.updater.CoalescingUpdateQueue;
+import org.opentripplanner.updater.GraphUpdaterMetrics;
+import org.opentripplanner.updater.GtfsRealtimeFeedReader;
+import org.opentripplanner.updater.UpdateQueueParameters;
 import org.opentripplanner.updater.spi.GraphUpdater;
 import org.opentripplanner.updater.spi.UpdateResult;
 import org.opentripplanner.updater.spi.WriteToGraphCallback;
@@ -55,7 +61,9 @@ public class MqttGtfsRealtimeUpdater implements GraphUpdater {
   private final MemoryPersistence persistence = new MemoryPersistence();
   private final TimetableSnapshotSource snapshotSource;
   private final Consumer<UpdateResult> recordMetrics;
-  private WriteToGraphCallback saveResultOnGraph;
+  private final UpdateQueueParameters updateQueueParameters;
+  private final GraphUpdaterMetrics metrics;
+  private CoalescingUpdateQueue<GtfsRealtime.TripUpdate> updateQueue;
 
   private final boolean fuzzyTripMatching;
 
@@ -75,12 +83,33 @@ public class MqttGtfsRealtimeUpdater implements GraphUpdater {
     // Set properties of realtime data snapshot source
     this.fuzzyTripMatching = parameters.getFuzzyTripMatching();
     this.recordMetrics = TripUpdateMetrics.streaming(parameters);
+    this.updateQueueParameters = parameters.updateQueue();
+    this.metrics = GraphUpdaterMetrics.of(configRef, MqttGtfsRealtimeUpdater.class);
     LOG.info("Creating streaming GTFS-RT TripUpdate updater subscribing to MQTT broker at {}", url);
   }
 
   @Override
   public void setup(WriteToGraphCallback writeToGraphCallback) {
-    this.saveResultOnGraph = writeToGraphCallback;
+    // Keep only the latest update for each trip while the graph writer is busy
+    this.updateQueue =
+      new CoalescingUpdateQueue<>(
+        configRef,
+        MqttGtfsRealtimeUpdater.class,
+        updateQueueParameters,
+        update -> update.hasTrip() ? update.getTrip() : update,
+        writeToGraphCallback,
+        (updates, fullDataset, context) ->
+          new TripUpdateGraphWriterRunnable(
+            snapshotSource,
+            fuzzyTripMatching,
+            backwardsDelayPropagationType,
+            fullDataset ? FULL_DATASET : DIFFERENTIAL,
+            updates,
+            feedId,
+            recordMetrics
+          )
+            .run(context)
+      );
   }
 
   @Override
@@ -108,6 +137,9 @@ public class MqttGtfsRealtimeUpdater implements GraphUpdater {
     } catch (MqttException e) {
       LOG.error("Error disconnecting", e);
     }
+    if (updateQueue != null) {
+      updateQueue.close();
+    }
   }
 
   @Override
@@ -137,48 +169,43 @@ public class MqttGtfsRealtimeUpdater implements GraphUpdater {
       List<GtfsRealtime.TripUpdate> updates = null;
       UpdateIncrementality updateIncrementality = FULL_DATASET;
       try {
-        // Decode message
-        GtfsRealtime.FeedMessage feedMessage = GtfsRealtime.FeedMessage.PARSER.parseFrom(
-          message.getPayload()
+        // Decode message, keeping only the trip updates
+        List<GtfsRealtime.TripUpdate> tripUpdates = new ArrayList<>();
+        long received = System.nanoTime();
+        GtfsRealtime.FeedHeader header = GtfsRealtimeFeedReader.read(
+          message.getPayload(),
+          ExtensionRegistryLite.getEmptyRegistry(),
+          entity -> {
+            if (entity.hasTripUpdate()) {
+              tripUpdates.add(entity.getTripUpdate());
+            }
+          }
         );
-        List<GtfsRealtime.FeedEntity> feedEntityList = feedMessage.getEntityList();
+        metrics.recordParse(System.nanoTime() - received);
+        metrics.recordPayload(message.getPayload().length);
+        if (header.hasTimestamp()) {
+          metrics.recordReceiveLag(Instant.ofEpochSecond(header.getTimestamp()));
+        }
 
         // Change fullDataset value if this is an incremental update
         if (
-          feedMessage.hasHeader() &&
-          feedMessage.getHeader().hasIncrementality() &&
-          feedMessage
-            .getHeader()
-            .getIncrementality()
-            .equals(GtfsRealtime.FeedHeader.Incrementality.DIFFERENTIAL)
+          header.hasIncrementality() &&
+          header.getIncrementality().equals(GtfsRealtime.FeedHeader.Incrementality.DIFFERENTIAL)
         ) {
           updateIncrementality = DIFFERENTIAL;
         }
-
-        // Create List of TripUpdates
-        updates = new ArrayList<>(feedEntityList.size());
-        for (GtfsRealtime.FeedEntity feedEntity : feedEntityList) {
-          if (feedEntity.hasTripUpdate()) {
-            updates.add(feedEntity.getTripUpdate());
-          }
-        }
-      } catch (InvalidProtocolBufferException e) {
+        updates = tripUpdates;
+      } catch (IOException e) {
         LOG.error("Could not decode gtfs-rt message:", e);
       }
 
       if (updates != null) {
         // Handle trip updates via graph writer runnable
-        saveResultOnGraph.execute(
-          new TripUpdateGraphWriterRunnable(
-            snapshotSource,
-            fuzzyTripMatching,
-            backwardsDelayPropagationType,
-            updateIncrementality,
-            updates,
-            feedId,
-            recordMetrics
-          )
-        );
+        try {
+          updateQueue.offer(updates, updateIncrementality == FULL_DATASET);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
       }
     }
 
@@ -1,5 +1,7 @@
 package org.opentripplanner.updater.trip;
 
+import org.opentripplanner.updater.UpdateQueueParameters;
+
 public class MqttGtfsRealtimeUpdaterParameters implements UrlUpdaterParameters {
 
   private final String configRef;
@@ -9,6 +11,7 @@ public class MqttGtfsRealtimeUpdaterParameters implements UrlUpdaterParameters {
   private final int qos;
   private final boolean fuzzyTripMatching;
   private final BackwardsDelayPropagationType backwardsDelayPropagationType;
+  private final UpdateQueueParameters updateQueue;
 
   public MqttGtfsRealtimeUpdaterParameters(
     String configRef,
@@ -17,7 +20,8 @@ public class MqttGtfsRealtimeUpdaterParameters implements UrlUpdaterParameters {
     String topic,
     int qos,
     boolean fuzzyTripMatching,
-    BackwardsDelayPropagationType backwardsDelayPropagationType
+    BackwardsDelayPropagationType backwardsDelayPropagationType,
+    UpdateQueueParameters updateQueue
   ) {
     this.configRef = configRef;
     this.feedId = feedId;
@@ -26,6 +30,7 @@ public class MqttGtfsRealtimeUpdaterParameters implements UrlUpdaterParameters {
     this.qos = qos;
     this.fuzzyTripMatching = fuzzyTripMatching;
     this.backwardsDelayPropagationType = backwardsDelayPropagationType;
+    this.updateQueue = updateQueue;
   }
 
   public String url() {
@@ -52,6 +57,10 @@ public class MqttGtfsRealtimeUpdaterParameters implements UrlUpdaterParameters {
     return backwardsDelayPropagationType;
   }
 
+  UpdateQueueParameters updateQueue() {
+    return updateQueue;
+  }
+
   /** The config name/type for the updater. Used to reference the configuration element. */
   public String configRef() {
     return configRef;
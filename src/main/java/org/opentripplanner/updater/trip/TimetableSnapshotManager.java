@@ -38,7 +38,8 @@ public final class TimetableSnapshotManager {
 
   /**
    * The last committed snapshot that was handed off to a routing thread. This snapshot may be given
-   * to more than one routing thread.
+   * to more than one routing thread. When there is a real-time transit layer, routing threads read
+   * the same snapshot from the TransitModel, where it is published together with the layer.
    */
   private final ConcurrentPublished<TimetableSnapshot> snapshot = new ConcurrentPublished<>();
 
@@ -30,12 +30,15 @@ import java.time.LocalDate;
 import java.time.ZoneId;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.function.Supplier;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import org.opentripplanner.framework.i18n.I18NString;
 import org.opentripplanner.framework.i18n.NonLocalizedString;
 import org.opentripplanner.framework.lang.StringUtils;
@@ -46,6 +49,7 @@ import org.opentripplanner.model.StopTime;
 import org.opentripplanner.model.Timetable;
 import org.opentripplanner.model.TimetableSnapshot;
 import org.opentripplanner.model.TimetableSnapshotProvider;
+import org.opentripplanner.model.TripTimesPatch;
 import org.opentripplanner.transit.model.basic.TransitMode;
 import org.opentripplanner.transit.model.framework.DataValidationException;
 import org.opentripplanner.transit.model.framework.Deduplicator;
@@ -59,6 +63,7 @@ import org.opentripplanner.transit.model.site.StopLocation;
 import org.opentripplanner.transit.model.timetable.RealTimeState;
 import org.opentripplanner.transit.model.timetable.RealTimeTripTimes;
 import org.opentripplanner.transit.model.timetable.Trip;
+import org.opentripplanner.transit.model.timetable.TripIdAndServiceDate;
 import org.opentripplanner.transit.model.timetable.TripTimesFactory;
 import org.opentripplanner.transit.service.DefaultTransitService;
 import org.opentripplanner.transit.service.TransitEditorService;
@@ -107,6 +112,15 @@ public class TimetableSnapshotSource implements TimetableSnapshotProvider {
   private final TimetableSnapshotManager snapshotManager;
   private final Supplier<LocalDate> localDateNow;
 
+  /**
+   * The trip updates of the last full dataset applied for each feed, by trip and service date.
+   * Trips which are unchanged in the next full dataset of the feed are not applied again. The
+   * entry is removed when a differential update is applied for the feed, since the buffer then
+   * no longer reflects only the last full dataset.
+   */
+  private final Map<String, Map<TripIdAndServiceDate, AppliedTripUpdates>> lastFullDatasets =
+    new HashMap<>();
+
   public TimetableSnapshotSource(
     TimetableSnapshotSourceParameters parameters,
     TransitModel transitModel
@@ -146,7 +160,9 @@ public class TimetableSnapshotSource implements TimetableSnapshotProvider {
    * @param backwardsDelayPropagationType Defines when delays are propagated to previous stops and
    *                                      if these stops are given the NO_DATA flag.
    * @param updateIncrementality          Determines the incrementality of the updates. FULL updates clear the buffer
-   *                                      of all previous updates for the given feed id.
+   *                                      of all previous updates for the given feed id. Trips
+   *                                      with the same updates as in the last FULL update of the
+   *                                      feed are not applied again.
    * @param updates                       GTFS-RT TripUpdate's that should be applied atomically
    */
   public UpdateResult applyTripUpdates(
@@ -164,11 +180,60 @@ public class TimetableSnapshotSource implements TimetableSnapshotProvider {
     Map<ScheduleRelationship, Integer> failuresByRelationship = new HashMap<>();
     List<Result<UpdateSuccess, UpdateError>> results = new ArrayList<>();
 
+    if (fuzzyTripMatcher != null) {
+      // The matcher only reads the transit data, so the updates can be matched in parallel
+      updates =
+        updates
+          .parallelStream()
+          .map(it ->
+            it.hasTrip()
+              ? it.toBuilder().setTrip(fuzzyTripMatcher.match(feedId, it.getTrip())).build()
+              : it
+          )
+          .toList();
+    }
+
+    // Use the same date for all updates without a start date
+    LocalDate today = localDateNow.get();
+    var lastFullDataset = lastFullDatasets.remove(feedId);
+    Map<TripIdAndServiceDate, AppliedTripUpdates> fullDataset = null;
+
     if (updateIncrementality == FULL_DATASET) {
-      // Remove all updates from the buffer
-      snapshotManager.clearBuffer(feedId);
+      fullDataset = new HashMap<>();
+      if (lastFullDataset == null) {
+        // Remove all updates from the buffer
+        snapshotManager.clearBuffer(feedId);
+      } else {
+        // Only apply the trips which changed since the last full dataset
+        var unchangedTrips = unchangedTrips(lastFullDataset, updates, feedId, today);
+        for (var it : lastFullDataset.entrySet()) {
+          if (unchangedTrips.contains(it.getKey())) {
+            fullDataset.put(it.getKey(), it.getValue());
+            it
+              .getValue()
+              .forEachResult((scheduleRelationship, result) ->
+                addResult(results, failuresByRelationship, scheduleRelationship, result)
+              );
+          } else {
+            revertTrip(it.getKey());
+          }
+        }
+        updates =
+          updates
+            .stream()
+            .filter(it -> !unchangedTrips.contains(tripKey(it, feedId, today)))
+            .toList();
+        LOG.debug("[feedId: {}] {} trips are unchanged", feedId, unchangedTrips.size());
+      }
     }
 
+    var precomputedTripTimes = precomputeScheduledTripTimes(
+      updates,
+      feedId,
+      today,
+      backwardsDelayPropagationType
+    );
+
     LOG.debug("message contains {} trip updates", updates.size());
     int uIndex = 0;
     for (TripUpdate tripUpdate : updates) {
@@ -177,11 +242,6 @@ public class TimetableSnapshotSource implements TimetableSnapshotProvider {
         continue;
       }
 
-      if (fuzzyTripMatcher != null) {
-        final TripDescriptor trip = fuzzyTripMatcher.match(feedId, tripUpdate.getTrip());
-        tripUpdate = tripUpdate.toBuilder().setTrip(trip).build();
-      }
-
       final TripDescriptor tripDescriptor = tripUpdate.getTrip();
 
       if (!tripDescriptor.hasTripId() || tripDescriptor.getTripId().isBlank()) {
@@ -193,21 +253,15 @@ public class TimetableSnapshotSource implements TimetableSnapshotProvider {
       FeedScopedId tripId = new FeedScopedId(feedId, tripUpdate.getTrip().getTripId());
 
       LocalDate serviceDate;
-      if (tripDescriptor.hasStartDate()) {
-        try {
-          serviceDate = ServiceDateUtils.parseString(tripDescriptor.getStartDate());
-        } catch (final ParseException e) {
-          debug(
-            tripId,
-            "Failed to parse start date in gtfs-rt trip update: {}",
-            tripDescriptor.getStartDate()
-          );
-          continue;
-        }
-      } else {
-        // TODO: figure out the correct service date. For the special case that a trip
-        // starts for example at 40:00, yesterday would probably be a better guess.
-        serviceDate = localDateNow.get();
+      try {
+        serviceDate = serviceDate(tripDescriptor, today);
+      } catch (final ParseException e) {
+        debug(
+          tripId,
+          "Failed to parse start date in gtfs-rt trip update: {}",
+          tripDescriptor.getStartDate()
+        );
+        continue;
       }
       // Determine what kind of trip update this is
       var scheduleRelationship = Objects.requireNonNullElse(
@@ -230,7 +284,8 @@ public class TimetableSnapshotSource implements TimetableSnapshotProvider {
               tripUpdate,
               tripId,
               serviceDate,
-              backwardsDelayPropagationType
+              backwardsDelayPropagationType,
+              precomputedTripTimes.get(tripUpdate)
             );
             case ADDED -> validateAndHandleAddedTrip(
               tripUpdate,
@@ -263,17 +318,23 @@ public class TimetableSnapshotSource implements TimetableSnapshotProvider {
         result = DataValidationExceptionMapper.toResult(e);
       }
 
-      results.add(result);
+      addResult(results, failuresByRelationship, scheduleRelationship, result);
       if (result.isFailure()) {
         debug(tripId, "Failed to apply TripUpdate.");
         LOG.trace(" Contents: {}", tripUpdate);
-        if (failuresByRelationship.containsKey(scheduleRelationship)) {
-          var c = failuresByRelationship.get(scheduleRelationship);
-          failuresByRelationship.put(scheduleRelationship, ++c);
-        } else {
-          failuresByRelationship.put(scheduleRelationship, 1);
-        }
       }
+      if (fullDataset != null) {
+        fullDataset
+          .computeIfAbsent(
+            new TripIdAndServiceDate(tripId, serviceDate),
+            it -> new AppliedTripUpdates()
+          )
+          .add(tripUpdate, scheduleRelationship, result);
+      }
+    }
+
+    if (fullDataset != null) {
+      lastFullDatasets.put(feedId, fullDataset);
     }
 
     var updateResult = UpdateResult.ofResults(results);
@@ -284,6 +345,156 @@ public class TimetableSnapshotSource implements TimetableSnapshotProvider {
     return updateResult;
   }
 
+  private static void addResult(
+    List<Result<UpdateSuccess, UpdateError>> results,
+    Map<ScheduleRelationship, Integer> failuresByRelationship,
+    ScheduleRelationship scheduleRelationship,
+    Result<UpdateSuccess, UpdateError> result
+  ) {
+    results.add(result);
+    if (result.isFailure()) {
+      failuresByRelationship.merge(scheduleRelationship, 1, Integer::sum);
+    }
+  }
+
+  private static LocalDate serviceDate(TripDescriptor tripDescriptor, LocalDate today)
+    throws ParseException {
+    if (tripDescriptor.hasStartDate()) {
+      return ServiceDateUtils.parseString(tripDescriptor.getStartDate());
+    }
+    // TODO: figure out the correct service date. For the special case that a trip
+    // starts for example at 40:00, yesterday would probably be a better guess.
+    return today;
+  }
+
+  /**
+   * The trip and service date of the update, or null if the update has no valid trip id or start
+   * date.
+   */
+  @Nullable
+  private static TripIdAndServiceDate tripKey(
+    TripUpdate tripUpdate,
+    String feedId,
+    LocalDate today
+  ) {
+    var tripDescriptor = tripUpdate.getTrip();
+    if (
+      !tripUpdate.hasTrip() || !tripDescriptor.hasTripId() || tripDescriptor.getTripId().isBlank()
+    ) {
+      return null;
+    }
+    try {
+      return new TripIdAndServiceDate(
+        new FeedScopedId(feedId, tripDescriptor.getTripId()),
+        serviceDate(tripDescriptor, today)
+      );
+    } catch (ParseException e) {
+      return null;
+    }
+  }
+
+  /**
+   * Find the trips for which the updates are the same as in the last full dataset.
+   */
+  private static Set<TripIdAndServiceDate> unchangedTrips(
+    Map<TripIdAndServiceDate, AppliedTripUpdates> lastFullDataset,
+    List<TripUpdate> updates,
+    String feedId,
+    LocalDate today
+  ) {
+    Map<TripIdAndServiceDate, List<TripUpdate>> fingerprints = new HashMap<>();
+    for (TripUpdate tripUpdate : updates) {
+      var key = tripKey(tripUpdate, feedId, today);
+      if (key != null) {
+        fingerprints
+          .computeIfAbsent(key, it -> new ArrayList<>())
+          .add(AppliedTripUpdates.fingerprint(tripUpdate));
+      }
+    }
+    Set<TripIdAndServiceDate> result = new HashSet<>();
+    fingerprints.forEach((key, tripFingerprints) -> {
+      var applied = lastFullDataset.get(key);
+      if (applied != null && applied.isUnchanged(tripFingerprints)) {
+        result.add(key);
+      }
+    });
+    return result;
+  }
+
+  /**
+   * Undo the updates applied to the trip on the service date in the buffer. For the trip, this
+   * has the same effect as clearing the buffer: it is removed from any pattern created in
+   * real-time, and a scheduled trip gets its scheduled trip times back.
+   */
+  private void revertTrip(TripIdAndServiceDate trip) {
+    snapshotManager.revertTripToScheduledTripPattern(trip.tripId(), trip.serviceDate());
+
+    var scheduledTrip = transitEditorService.getScheduledTripForId(trip.tripId());
+    if (scheduledTrip == null) {
+      return;
+    }
+    var pattern = transitEditorService.getPatternForTrip(scheduledTrip);
+    if (pattern == null) {
+      return;
+    }
+    var scheduledTripTimes = pattern.getScheduledTimetable().getTripTimes(trip.tripId());
+    var timetable = snapshotManager.resolve(pattern, trip.serviceDate());
+    if (
+      scheduledTripTimes != null &&
+      timetable.isCreatedByRealTimeUpdater() &&
+      timetable.getTripTimes(trip.tripId()) != scheduledTripTimes
+    ) {
+      snapshotManager.updateBuffer(
+        new RealTimeTripUpdate(pattern, scheduledTripTimes, trip.serviceDate())
+      );
+    }
+  }
+
+  /**
+   * Compute the updated trip times of the SCHEDULED trip updates in parallel. This is the most
+   * expensive part of applying a large feed, and it only reads the scheduled timetable of the
+   * pattern, so it can be done before the updates are applied to the buffer one by one.
+   * <p>
+   * Updates which fail before the trip times are computed are left out, they are handled when
+   * the update is applied. The result is keyed by the trip update instance.
+   */
+  private Map<TripUpdate, PrecomputedTripTimes> precomputeScheduledTripTimes(
+    List<TripUpdate> updates,
+    String feedId,
+    LocalDate today,
+    BackwardsDelayPropagationType backwardsDelayPropagationType
+  ) {
+    List<PrecomputedTripTimes> tasks = new ArrayList<>();
+    for (TripUpdate tripUpdate : updates) {
+      var tripDescriptor = tripUpdate.getTrip();
+      if (
+        !tripUpdate.hasTrip() ||
+        tripDescriptor.getScheduleRelationship() != SCHEDULED ||
+        !tripDescriptor.hasTripId() ||
+        tripDescriptor.getTripId().isBlank() ||
+        tripUpdate.getStopTimeUpdateCount() < 1
+      ) {
+        continue;
+      }
+      LocalDate serviceDate;
+      try {
+        serviceDate = serviceDate(tripDescriptor, today);
+      } catch (ParseException e) {
+        continue;
+      }
+      var pattern = getPatternForTripId(new FeedScopedId(feedId, tripDescriptor.getTripId()));
+      if (pattern != null) {
+        tasks.add(new PrecomputedTripTimes(tripUpdate, pattern, serviceDate));
+      }
+    }
+
+    tasks.parallelStream().forEach(it -> it.compute(timeZone, backwardsDelayPropagationType));
+
+    Map<TripUpdate, PrecomputedTripTimes> result = new IdentityHashMap<>();
+    tasks.forEach(it -> result.put(it.tripUpdate, it));
+    return result;
+  }
+
   /**
    * Remove previous realtime updates for this trip. This is necessary to avoid previous stop
    * pattern modifications from persisting. If a trip was previously added with the
@@ -367,7 +578,8 @@ public class TimetableSnapshotSource implements TimetableSnapshotProvider {
     TripUpdate tripUpdate,
     FeedScopedId tripId,
     LocalDate serviceDate,
-    BackwardsDelayPropagationType backwardsDelayPropagationType
+    BackwardsDelayPropagationType backwardsDelayPropagationType,
+    @Nullable PrecomputedTripTimes precomputedTripTimes
   ) {
     final TripPattern pattern = getPatternForTripId(tripId);
 
@@ -394,15 +606,19 @@ public class TimetableSnapshotSource implements TimetableSnapshotProvider {
       return UpdateError.result(tripId, NO_SERVICE_ON_DATE);
     }
 
-    // Get new TripTimes based on scheduled timetable
-    var result = pattern
-      .getScheduledTimetable()
-      .createUpdatedTripTimesFromGTFSRT(
-        tripUpdate,
-        timeZone,
-        serviceDate,
-        backwardsDelayPropagationType
-      );
+    // Get new TripTimes based on scheduled timetable, unless an earlier update in the same
+    // message changed the pattern of the trip after they were precomputed
+    var result = precomputedTripTimes != null &&
+      precomputedTripTimes.isComputedFor(pattern, serviceDate)
+      ? precomputedTripTimes.result()
+      : pattern
+        .getScheduledTimetable()
+        .createUpdatedTripTimesFromGTFSRT(
+          tripUpdate,
+          timeZone,
+          serviceDate,
+          backwardsDelayPropagationType
+        );
 
     if (result.isFailure()) {
       // necessary so the success type is correct
@@ -1122,6 +1338,61 @@ public class TimetableSnapshotSource implements TimetableSnapshotProvider {
     LOG.debug(m, params);
   }
 
+  /**
+   * The updated trip times of a SCHEDULED trip update, computed before the update is applied.
+   */
+  private static final class PrecomputedTripTimes {
+
+    private final TripUpdate tripUpdate;
+    private final TripPattern pattern;
+    private final LocalDate serviceDate;
+    private Result<TripTimesPatch, UpdateError> result;
+    private DataValidationException exception;
+
+    private PrecomputedTripTimes(
+      TripUpdate tripUpdate,
+      TripPattern pattern,
+      LocalDate serviceDate
+    ) {
+      this.tripUpdate = tripUpdate;
+      this.pattern = pattern;
+      this.serviceDate = serviceDate;
+    }
+
+    private void compute(
+      ZoneId timeZone,
+      BackwardsDelayPropagationType backwardsDelayPropagationType
+    ) {
+      try {
+        result =
+          pattern
+            .getScheduledTimetable()
+            .createUpdatedTripTimesFromGTFSRT(
+              tripUpdate,
+              timeZone,
+              serviceDate,
+              backwardsDelayPropagationType
+            );
+      } catch (DataValidationException e) {
+        exception = e;
+      }
+    }
+
+    private boolean isComputedFor(TripPattern pattern, LocalDate serviceDate) {
+      return this.pattern == pattern && this.serviceDate.equals(serviceDate);
+    }
+
+    /**
+     * Return the result, or throw the exception thrown when it was computed.
+     */
+    private Result<TripTimesPatch, UpdateError> result() {
+      if (exception != null) {
+        throw exception;
+      }
+      return result;
+    }
+  }
+
   private enum CancelationType {
     CANCEL,
     DELETE,
@@ -1,6 +1,6 @@
 package org.opentripplanner.updater.vehicle_position;
 
-import com.google.transit.realtime.GtfsRealtime;
+import com.google.protobuf.ExtensionRegistryLite;
 import com.google.transit.realtime.GtfsRealtime.VehiclePosition;
 import java.io.IOException;
 import java.io.InputStream;
@@ -11,6 +11,7 @@ import org.opentripplanner.framework.io.OtpHttpClient;
 import org.opentripplanner.framework.io.OtpHttpClientException;
 import org.opentripplanner.framework.io.OtpHttpClientFactory;
 import org.opentripplanner.framework.tostring.ToStringBuilder;
+import org.opentripplanner.updater.GtfsRealtimeFeedReader;
 import org.opentripplanner.updater.spi.HttpHeaders;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -38,11 +39,14 @@ public class GtfsRealtimeHttpVehiclePositionSource {
   }
 
   /**
-   * Parses raw GTFS-RT data into vehicle positions
+   * Parses raw GTFS-RT data into vehicle positions. Returns null if the feed has not been modified
+   * since the last call.
    */
   public List<VehiclePosition> getPositions() {
     try {
-      return otpHttpClient.getAndMap(url, headers.asMap(), this::getPositions);
+      return otpHttpClient
+        .getAndMapIfModified(url, headers.asMap(), this::getPositions)
+        .orElse(null);
     } catch (OtpHttpClientException e) {
       LOG.warn("Error reading vehicle positions from {}", url, e);
     }
@@ -58,24 +62,21 @@ public class GtfsRealtimeHttpVehiclePositionSource {
   }
 
   public List<VehiclePosition> getPositions(InputStream is) throws IOException {
-    List<VehiclePosition> positions = null;
-    List<GtfsRealtime.FeedEntity> feedEntityList;
-    GtfsRealtime.FeedMessage feedMessage;
-
-    if (is != null) {
-      // Decode message
-      feedMessage = GtfsRealtime.FeedMessage.parseFrom(is);
-      feedEntityList = feedMessage.getEntityList();
+    if (is == null) {
+      return null;
+    }
 
-      // Create List of TripUpdates
-      positions = new ArrayList<>(feedEntityList.size());
-      for (GtfsRealtime.FeedEntity feedEntity : feedEntityList) {
-        if (feedEntity.hasVehicle()) {
-          positions.add(feedEntity.getVehicle());
+    // Decode message, keeping only the vehicle positions
+    List<VehiclePosition> positions = new ArrayList<>();
+    GtfsRealtimeFeedReader.read(
+      is,
+      ExtensionRegistryLite.getEmptyRegistry(),
+      entity -> {
+        if (entity.hasVehicle()) {
+          positions.add(entity.getVehicle());
         }
       }
-    }
-
+    );
     return positions;
   }
 }
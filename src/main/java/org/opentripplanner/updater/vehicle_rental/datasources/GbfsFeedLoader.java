@@ -7,6 +7,7 @@ import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
 import org.mobilitydata.gbfs.v2_3.gbfs.GBFS;
 import org.mobilitydata.gbfs.v2_3.gbfs.GBFSFeed;
 import org.mobilitydata.gbfs.v2_3.gbfs.GBFSFeedName;
@@ -104,18 +105,20 @@ public class GbfsFeedLoader {
 
   /**
    * Checks if any of the feeds should be updated base on the TTL and fetches. Returns true, if any
-   * feeds were updated.
+   * feeds were updated. Feeds which have not been modified on the server are not counted.
    */
   public boolean update() {
     boolean didUpdate = false;
 
     for (GBFSFeedUpdater<?> updater : feedUpdaters.values()) {
       if (updater.shouldUpdate()) {
-        boolean success = updater.fetchData();
-        if (!success) {
+        FetchResult result = updater.fetchData();
+        if (result == FetchResult.FAILED) {
           return false;
         }
-        didUpdate = true;
+        if (result == FetchResult.UPDATED) {
+          didUpdate = true;
+        }
       }
     }
 
@@ -144,8 +147,31 @@ public class GbfsFeedLoader {
     }
   }
 
+  /**
+   * Returns an empty result if the feed has not been modified since it was last fetched, and null
+   * if it could not be fetched.
+   */
+  private <T> Optional<T> fetchFeedIfModified(URI uri, HttpHeaders httpHeaders, Class<T> clazz) {
+    try {
+      return otpHttpClient.getAndMapIfModified(
+        uri,
+        httpHeaders.asMap(),
+        is -> objectMapper.readValue(is, clazz)
+      );
+    } catch (OtpHttpClientException e) {
+      LOG.warn("Error parsing vehicle rental feed from {}. Details: {}.", uri, e.getMessage(), e);
+      return null;
+    }
+  }
+
   /* private static classes */
 
+  private enum FetchResult {
+    UPDATED,
+    NOT_MODIFIED,
+    FAILED,
+  }
+
   private class GBFSFeedUpdater<T> {
 
     /** URL for the individual GBFS file */
@@ -166,13 +192,18 @@ public class GbfsFeedLoader {
       return data;
     }
 
-    private boolean fetchData() {
-      T newData = fetchFeed(url, httpHeaders, implementingClass);
-      if (newData == null) {
+    private FetchResult fetchData() {
+      Optional<T> fetched = fetchFeedIfModified(url, httpHeaders, implementingClass);
+      if (fetched == null) {
         LOG.warn("Could not fetch GBFS data for {}. Retrying.", url);
         nextUpdate = getCurrentTimeSeconds();
-        return false;
+        return FetchResult.FAILED;
+      }
+      if (fetched.isEmpty()) {
+        // Keep the data and check again at the next update
+        return FetchResult.NOT_MODIFIED;
       }
+      T newData = fetched.get();
       data = newData;
 
       try {
@@ -196,7 +227,7 @@ public class GbfsFeedLoader {
         LOG.error("Invalid lastUpdated or ttl for {}", url);
         nextUpdate = getCurrentTimeSeconds();
       }
-      return true;
+      return FetchResult.UPDATED;
     }
 
     private boolean shouldUpdate() {
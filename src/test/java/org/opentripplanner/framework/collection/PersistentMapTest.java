@@ -0,0 +1,101 @@
+package org.opentripplanner.framework.collection;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class PersistentMapTest {
+
+  @Test
+  void empty() {
+    PersistentMap<String, String> map = PersistentMap.of();
+
+    assertTrue(map.isEmpty());
+    assertNull(map.get("a"));
+    assertSame(map, map.without("a"));
+    assertEquals(Map.of(), map);
+  }
+
+  @Test
+  void withAndWithout() {
+    PersistentMap<String, String> empty = PersistentMap.of();
+    var map = empty.with("a", "1").with("b", "2");
+
+    assertEquals(Map.of("a", "1", "b", "2"), map);
+    assertEquals(Map.of("a", "3", "b", "2"), map.with("a", "3"));
+    assertEquals(Map.of("b", "2"), map.without("a"));
+    assertSame(map, map.without("c"));
+    assertSame(map, map.with("a", map.get("a")));
+
+    // The original maps are not changed
+    assertTrue(empty.isEmpty());
+    assertEquals(Map.of("a", "1", "b", "2"), map);
+  }
+
+  @Test
+  void withoutKeys() {
+    var map = PersistentMap.<String, String>of().with("a1", "1").with("a2", "2").with("b", "3");
+
+    assertEquals(Map.of("b", "3"), map.withoutKeys(key -> key.startsWith("a")));
+    assertSame(map, map.withoutKeys(key -> key.startsWith("c")));
+  }
+
+  @Test
+  void readOnly() {
+    var map = PersistentMap.<String, String>of().with("a", "1");
+
+    assertThrows(UnsupportedOperationException.class, () -> map.put("b", "2"));
+    assertThrows(UnsupportedOperationException.class, () -> map.remove("a"));
+  }
+
+  @Test
+  void hashCollisions() {
+    var a = new SameHash("a");
+    var b = new SameHash("b");
+    var c = new SameHash("c");
+    var map = PersistentMap.<SameHash, String>of().with(a, "1").with(b, "2").with(c, "3");
+
+    assertEquals(Map.of(a, "1", b, "2", c, "3"), map);
+    assertEquals(Map.of(a, "1", c, "3"), map.without(b));
+    assertEquals(Map.of(), map.without(a).without(b).without(c));
+    assertFalse(map.containsKey(new SameHash("d")));
+  }
+
+  @Test
+  void sameContentAsHashMap() {
+    var random = new Random(42);
+    var expected = new HashMap<Integer, Integer>();
+    PersistentMap<Integer, Integer> map = PersistentMap.of();
+
+    for (int i = 0; i < 20_000; ++i) {
+      // Use a small range, so that some keys are replaced and removed
+      int key = random.nextInt(5_000) * (random.nextBoolean() ? 1 : -1);
+      if (random.nextInt(3) == 0) {
+        expected.remove(key);
+        map = map.without(key);
+      } else {
+        expected.put(key, i);
+        map = map.with(key, i);
+      }
+    }
+
+    assertEquals(expected.size(), map.size());
+    assertEquals(expected, map);
+    assertEquals(map, expected);
+  }
+
+  private record SameHash(String name) {
+    @Override
+    public int hashCode() {
+      return 7;
+    }
+  }
+}
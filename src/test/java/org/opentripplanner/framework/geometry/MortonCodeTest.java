@@ -0,0 +1,45 @@
+package org.opentripplanner.framework.geometry;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class MortonCodeTest {
+
+  @Test
+  void corners() {
+    assertEquals(0L, MortonCode.of(-180, -90));
+    assertEquals(0L, MortonCode.of(-200, -100));
+    assertEquals((1L << 62) - 1, MortonCode.of(180, 90));
+  }
+
+  @Test
+  void longitudeInEvenAndLatitudeInOddBits() {
+    long lon = MortonCode.of(180, -90);
+    long lat = MortonCode.of(-180, 90);
+    assertEquals(0x1555555555555555L, lon);
+    assertEquals(0x2AAAAAAAAAAAAAAAL, lat);
+  }
+
+  @Test
+  void quadrantsAreOrderedAlongTheCurve() {
+    long southWest = MortonCode.of(-90, -45);
+    long southEast = MortonCode.of(90, -45);
+    long northWest = MortonCode.of(-90, 45);
+    long northEast = MortonCode.of(90, 45);
+
+    assertTrue(southWest < southEast);
+    assertTrue(southEast < northWest);
+    assertTrue(northWest < northEast);
+  }
+
+  @Test
+  void nearbyPointsShareThePrefix() {
+    long a = MortonCode.of(10.7522, 59.9139);
+    long b = MortonCode.of(10.7523, 59.9140);
+    long far = MortonCode.of(-74.006, 40.7128);
+
+    assertTrue(Long.numberOfLeadingZeros(a ^ b) > Long.numberOfLeadingZeros(a ^ far));
+  }
+}
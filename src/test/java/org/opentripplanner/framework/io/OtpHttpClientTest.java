@@ -0,0 +1,94 @@
+package org.opentripplanner.framework.io;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+
+class OtpHttpClientTest {
+
+  private static final String ETAG = "\"v1\"";
+  private static final byte[] BODY = "content".getBytes(StandardCharsets.UTF_8);
+
+  private final List<String> ifNoneMatchHeaders = new CopyOnWriteArrayList<>();
+  private final OtpHttpClientFactory clientFactory = new OtpHttpClientFactory();
+  private HttpServer server;
+  private URI uri;
+
+  @BeforeEach
+  void startServer() throws IOException {
+    server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    server.createContext(
+      "/feed",
+      exchange -> {
+        var ifNoneMatch = exchange.getRequestHeaders().getFirst("If-None-Match");
+        ifNoneMatchHeaders.add(ifNoneMatch);
+        if (ETAG.equals(ifNoneMatch)) {
+          exchange.sendResponseHeaders(304, -1);
+        } else {
+          exchange.getResponseHeaders().add("ETag", ETAG);
+          exchange.sendResponseHeaders(200, BODY.length);
+          exchange.getResponseBody().write(BODY);
+        }
+        exchange.close();
+      }
+    );
+    server.start();
+    uri = URI.create("http://localhost:" + server.getAddress().getPort() + "/feed");
+  }
+
+  @AfterEach
+  void stopServer() {
+    server.stop(0);
+    clientFactory.close();
+  }
+
+  @Test
+  void getAndMapIfModified() {
+    var client = clientFactory.create(LoggerFactory.getLogger(OtpHttpClientTest.class));
+
+    assertEquals(Optional.of("content"), client.getAndMapIfModified(uri, Map.of(), this::read));
+    assertEquals(Optional.empty(), client.getAndMapIfModified(uri, Map.of(), this::read));
+
+    assertNull(ifNoneMatchHeaders.get(0));
+    assertEquals(ETAG, ifNoneMatchHeaders.get(1));
+  }
+
+  @Test
+  void fetchAgainIfMappingFailed() {
+    var client = clientFactory.create(LoggerFactory.getLogger(OtpHttpClientTest.class));
+
+    assertThrows(
+      OtpHttpClientException.class,
+      () ->
+        client.getAndMapIfModified(
+          uri,
+          Map.of(),
+          is -> {
+            throw new IOException("Failed");
+          }
+        )
+    );
+
+    assertEquals(Optional.of("content"), client.getAndMapIfModified(uri, Map.of(), this::read));
+    assertNull(ifNoneMatchHeaders.get(1));
+  }
+
+  private String read(InputStream is) throws IOException {
+    return new String(is.readAllBytes(), StandardCharsets.UTF_8);
+  }
+}
@@ -0,0 +1,59 @@
+package org.opentripplanner.graph_builder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.graph_builder.model.GraphBuilderModule;
+
+class GraphBuilderProfilerTest {
+
+  private final GraphBuilderProfiler subject = new GraphBuilderProfiler();
+
+  @Test
+  void recordOneProfilePerModule() {
+    subject.buildGraph(new AllocatingModule());
+    subject.buildGraph(new AllocatingModule());
+
+    var profiles = subject.profiles();
+    assertEquals(2, profiles.size());
+    for (var it : profiles) {
+      assertEquals("AllocatingModule", it.module());
+      assertTrue(it.wallTimeMs() >= 0);
+      assertTrue(it.gcCount() >= 0);
+    }
+  }
+
+  @Test
+  void recordFailingModule() {
+    GraphBuilderModule failing = () -> {
+      throw new IllegalStateException("Failed");
+    };
+    assertThrows(IllegalStateException.class, () -> subject.buildGraph(failing));
+    assertEquals(1, subject.profiles().size());
+  }
+
+  @Test
+  void toJson() {
+    subject.buildGraph(new AllocatingModule());
+
+    var json = subject.toJson();
+    for (var field : List.of("module", "wallTimeMs", "cpuTimeMs", "allocatedBytes", "gcTimeMs")) {
+      assertTrue(json.contains("\"" + field + "\""), json);
+    }
+    assertTrue(json.contains("\"AllocatingModule\""), json);
+  }
+
+  private static class AllocatingModule implements GraphBuilderModule {
+
+    @Override
+    public void buildGraph() {
+      int[][] data = new int[100][];
+      for (int i = 0; i < data.length; ++i) {
+        data[i] = new int[1000];
+      }
+    }
+  }
+}
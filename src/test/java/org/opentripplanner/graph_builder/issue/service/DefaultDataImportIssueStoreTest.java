@@ -0,0 +1,46 @@
+package org.opentripplanner.graph_builder.issue.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Map;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+class DefaultDataImportIssueStoreTest {
+
+  @Test
+  void keepAllIssuesByDefault() {
+    var subject = new DefaultDataImportIssueStore();
+    for (int i = 0; i < 5; ++i) {
+      subject.add("A", "Issue %d", i);
+    }
+
+    assertEquals(5, subject.listIssues().size());
+    assertEquals(Map.of("A", 5L), subject.summary().asMap());
+  }
+
+  @Test
+  void countAllIssuesButKeepOnlyASample() {
+    var subject = new DefaultDataImportIssueStore(2);
+    for (int i = 0; i < 5; ++i) {
+      subject.add("A", "Issue %d", i);
+    }
+    subject.add("B", "Issue");
+
+    assertEquals(3, subject.listIssues().size());
+    assertEquals("Issue 1", subject.listIssues().get(1).getMessage());
+    assertEquals(Map.of("A", 5L, "B", 1L), subject.summary().asMap());
+  }
+
+  @Test
+  void addIssuesFromSeveralThreads() {
+    var subject = new DefaultDataImportIssueStore(100);
+    IntStream
+      .range(0, 10_000)
+      .parallel()
+      .forEach(i -> subject.add(i % 2 == 0 ? "A" : "B", "Issue %d", i));
+
+    assertEquals(200, subject.listIssues().size());
+    assertEquals(Map.of("A", 5_000L, "B", 5_000L), subject.summary().asMap());
+  }
+}
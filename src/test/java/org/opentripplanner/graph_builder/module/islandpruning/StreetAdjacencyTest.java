@@ -0,0 +1,96 @@
+package org.opentripplanner.graph_builder.module.islandpruning;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.opentripplanner.street.model._data.StreetModelForTest.intersectionVertex;
+import static org.opentripplanner.street.model._data.StreetModelForTest.streetEdge;
+import static org.opentripplanner.street.model._data.StreetModelForTest.streetEdgeBuilder;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.street.model.StreetTraversalPermission;
+import org.opentripplanner.street.model.vertex.StreetVertex;
+import org.opentripplanner.street.model.vertex.Vertex;
+import org.opentripplanner.street.search.TraverseMode;
+
+class StreetAdjacencyTest {
+
+  private static final StreetVertex A = intersectionVertex("A", 0, 0);
+  private static final StreetVertex B = intersectionVertex("B", 0, 0.001);
+  private static final StreetVertex C = intersectionVertex("C", 0, 0.002);
+  private static final StreetVertex D = intersectionVertex("D", 0, 0.003);
+  private static final StreetVertex E = intersectionVertex("E", 0.01, 0);
+  private static final StreetVertex F = intersectionVertex("F", 0.01, 0.001);
+  private static final StreetVertex G = intersectionVertex("G", 0.02, 0);
+  private static final StreetVertex H = intersectionVertex("H", 0.001, 0.001);
+  private static final StreetVertex I = intersectionVertex("I", 0.03, 0);
+  private static final StreetVertex J = intersectionVertex("J", 0.03, 0.001);
+
+  private static final Vertex[] VERTICES = { A, B, C, D, E, F, G, H, I, J };
+
+  static {
+    streetEdge(A, B);
+    noThruEdge(B, C);
+    streetEdge(C, D);
+    streetEdge(E, F);
+    noThruEdge(B, H);
+    noThruEdge(I, J);
+  }
+
+  private final StreetAdjacency subject = StreetAdjacency.of(VERTICES, index(), TraverseMode.WALK);
+
+  @Test
+  void connectedComponentsWithoutNoThruEdges() {
+    assertEquals(
+      List.of(Set.of(A, B), Set.of(C, D), Set.of(E, F)),
+      toVertexSets(subject.connectedComponents(false))
+    );
+  }
+
+  @Test
+  void connectedComponentsWithNoThruEdges() {
+    assertEquals(
+      List.of(Set.of(A, B, C, D, H), Set.of(E, F), Set.of(I, J)),
+      toVertexSets(subject.connectedComponents(true))
+    );
+  }
+
+  @Test
+  void expandIslandsDoesNotJumpToOtherIslands() {
+    var anchors = subject.labelIslands(subject.connectedComponents(false));
+    assertEquals(
+      List.of(Set.of(A, B, H), Set.of(C, D), Set.of(E, F), Set.of(I, J)),
+      toVertexSets(subject.expandIslands(anchors))
+    );
+  }
+
+  @Test
+  void streetSize() {
+    assertEquals(2, subject.streetSize(subject.connectedComponents(false).get(0)));
+  }
+
+  private static void noThruEdge(StreetVertex from, StreetVertex to) {
+    streetEdgeBuilder(from, to, 100, StreetTraversalPermission.ALL)
+      .withWalkNoThruTraffic(true)
+      .buildAndConnect();
+  }
+
+  private static Map<Vertex, Integer> index() {
+    Map<Vertex, Integer> index = new HashMap<>();
+    for (int i = 0; i < VERTICES.length; ++i) {
+      index.put(VERTICES[i], i);
+    }
+    return index;
+  }
+
+  private static List<Set<Vertex>> toVertexSets(List<int[]> islands) {
+    return islands
+      .stream()
+      .map(island -> Arrays.stream(island).mapToObj(i -> VERTICES[i]).collect(Collectors.toSet()))
+      .toList();
+  }
+}
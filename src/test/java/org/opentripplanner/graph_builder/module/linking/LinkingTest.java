@@ -6,6 +6,7 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.opentripplanner.graph_builder.module.linking.TestGraph.addExtraStops;
 import static org.opentripplanner.graph_builder.module.linking.TestGraph.addRegularStopGrid;
 import static org.opentripplanner.graph_builder.module.linking.TestGraph.link;
+import static org.opentripplanner.graph_builder.module.linking.TestGraph.linkInParallel;
 
 import java.io.File;
 import java.util.Comparator;
@@ -147,6 +148,39 @@ public class LinkingTest {
     }
   }
 
+  /**
+   * Searching for the edges to link to in parallel must give exactly the same links as linking
+   * the stops one by one, including the stops added on top of each other.
+   */
+  @Test
+  public void testParallelLinkingIsIdenticalToSequentialLinking() {
+    TestOtpModel model1 = buildGraphNoTransit();
+    Graph g1 = model1.graph();
+    addExtraStops(g1);
+    addRegularStopGrid(g1);
+    link(g1, model1.transitModel());
+
+    TestOtpModel model2 = buildGraphNoTransit();
+    Graph g2 = model2.graph();
+    addExtraStops(g2);
+    addRegularStopGrid(g2);
+    linkInParallel(g2, model2.transitModel());
+
+    assertEquals(g1.getVertices().size(), g2.getVertices().size());
+    assertEquals(g1.getEdges().size(), g2.getEdges().size());
+
+    for (TransitStopVertex ts : g1.getVerticesOfType(TransitStopVertex.class)) {
+      List<StreetTransitStopLink> stls1 = outgoingStls(ts);
+      TransitStopVertex other = (TransitStopVertex) g2.getVertex(ts.getLabel());
+      List<StreetTransitStopLink> stls2 = outgoingStls(other);
+
+      assertEquals(stls1.size(), stls2.size(), "Unequal number of links from stop " + ts);
+      for (int i = 0; i < stls1.size(); i++) {
+        assertEquals(stls1.get(i).getToVertex().getLabel(), stls2.get(i).getToVertex().getLabel());
+      }
+    }
+  }
+
   /** Build a graph in Columbus, OH with no transit */
   public static TestOtpModel buildGraphNoTransit() {
     var deduplicator = new Deduplicator();
@@ -4,8 +4,11 @@ import java.util.List;
 import org.opentripplanner.routing.graph.Graph;
 import org.opentripplanner.routing.linking.LinkingDirection;
 import org.opentripplanner.routing.linking.VertexLinker;
+import org.opentripplanner.street.model.edge.Edge;
 import org.opentripplanner.street.model.edge.StreetTransitStopLink;
+import org.opentripplanner.street.model.vertex.StreetVertex;
 import org.opentripplanner.street.model.vertex.TransitStopVertex;
+import org.opentripplanner.street.model.vertex.Vertex;
 import org.opentripplanner.street.search.TraverseMode;
 import org.opentripplanner.street.search.TraverseModeSet;
 import org.opentripplanner.transit.model._data.TransitModelForTest;
@@ -71,18 +74,31 @@ class TestGraph {
         tStop,
         new TraverseModeSet(TraverseMode.WALK),
         LinkingDirection.BOTH_WAYS,
-        (vertex, streetVertex) ->
-          List.of(
-            StreetTransitStopLink.createStreetTransitStopLink(
-              (TransitStopVertex) vertex,
-              streetVertex
-            ),
-            StreetTransitStopLink.createStreetTransitStopLink(
-              streetVertex,
-              (TransitStopVertex) vertex
-            )
-          )
+        TestGraph::createLinks
       );
     }
   }
+
+  /** link the stops in the graph, searching for the edges to link to in parallel */
+  public static void linkInParallel(Graph graph, TransitModel transitModel) {
+    transitModel.index();
+    graph.index(transitModel.getStopModel());
+
+    graph
+      .getLinker()
+      .linkVerticesPermanently(
+        graph.getVerticesOfType(TransitStopVertex.class),
+        new TraverseModeSet(TraverseMode.WALK),
+        LinkingDirection.BOTH_WAYS,
+        TestGraph::createLinks,
+        v -> {}
+      );
+  }
+
+  private static List<Edge> createLinks(Vertex vertex, StreetVertex streetVertex) {
+    return List.of(
+      StreetTransitStopLink.createStreetTransitStopLink((TransitStopVertex) vertex, streetVertex),
+      StreetTransitStopLink.createStreetTransitStopLink(streetVertex, (TransitStopVertex) vertex)
+    );
+  }
 }
@@ -0,0 +1,41 @@
+package org.opentripplanner.graph_builder.module.ned;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.opentripplanner.street.model._data.StreetModelForTest.intersectionVertex;
+import static org.opentripplanner.street.model._data.StreetModelForTest.streetEdge;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.framework.geometry.GeometryUtils;
+
+class ElevationModuleTest {
+
+  @Test
+  void geometryKeyIgnoresRoundingNoise() {
+    var a = GeometryUtils.makeLineString(10.0, 59.0, 10.001, 59.001);
+    var b = GeometryUtils.makeLineString(10.0000001, 59.0, 10.001, 59.0010001);
+    assertEquals(ElevationModule.geometryKey(a), ElevationModule.geometryKey(b));
+  }
+
+  @Test
+  void geometryKeyDependsOnDirection() {
+    var a = GeometryUtils.makeLineString(10.0, 59.0, 10.001, 59.001);
+    var reversed = GeometryUtils.makeLineString(10.001, 59.001, 10.0, 59.0);
+    assertNotEquals(ElevationModule.geometryKey(a), ElevationModule.geometryKey(reversed));
+  }
+
+  @Test
+  void groupByTile() {
+    var v1 = intersectionVertex(59.01, 10.01);
+    var v2 = intersectionVertex(59.011, 10.011);
+    var v3 = intersectionVertex(59.51, 10.51);
+    var e1 = streetEdge(v1, v2);
+    var e2 = streetEdge(v3, v1);
+    var e3 = streetEdge(v2, v3);
+
+    var tiles = List.copyOf(ElevationModule.groupByTile(List.of(e1, e2, e3)));
+
+    assertEquals(List.of(List.of(e1, e3), List.of(e2)), tiles);
+  }
+}
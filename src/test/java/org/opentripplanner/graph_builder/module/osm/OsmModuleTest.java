@@ -3,6 +3,7 @@ package org.opentripplanner.graph_builder.module.osm;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 import static org.opentripplanner.openstreetmap.wayproperty.WayPropertiesBuilder.withModes;
@@ -10,14 +11,17 @@ import static org.opentripplanner.street.model.StreetTraversalPermission.ALL;
 import static org.opentripplanner.street.model.StreetTraversalPermission.PEDESTRIAN;
 
 import java.io.File;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
 import java.util.stream.Stream;
 import javax.annotation.Nonnull;
 import org.junit.jupiter.api.Test;
 import org.opentripplanner.astar.model.GraphPath;
+import org.opentripplanner.framework.i18n.I18NString;
 import org.opentripplanner.framework.i18n.LocalizedString;
 import org.opentripplanner.framework.i18n.NonLocalizedString;
 import org.opentripplanner.openstreetmap.OsmProvider;
@@ -33,6 +37,7 @@ import org.opentripplanner.openstreetmap.wayproperty.specifier.OsmSpecifier;
 import org.opentripplanner.routing.api.request.RouteRequest;
 import org.opentripplanner.routing.graph.Graph;
 import org.opentripplanner.routing.impl.GraphPathFinder;
+import org.opentripplanner.street.model.edge.AreaEdge;
 import org.opentripplanner.street.model.edge.Edge;
 import org.opentripplanner.street.model.edge.StreetEdge;
 import org.opentripplanner.street.model.vertex.BarrierVertex;
@@ -103,6 +108,22 @@ public class OsmModuleTest {
     );
   }
 
+  @Test
+  public void streetEdgesWithEqualNamesShareTheNameInstance() {
+    var gg = new Graph(new Deduplicator());
+    File file = RESOURCE_LOADER.file("NYC_small.osm.pbf");
+    OsmModule.of(new OsmProvider(file, true), gg).build().buildGraph();
+
+    Map<I18NString, I18NString> names = new HashMap<>();
+    for (StreetEdge se : gg.getStreetEdges()) {
+      if (se instanceof AreaEdge) {
+        continue;
+      }
+      assertSame(names.computeIfAbsent(se.getName(), it -> it), se.getName());
+    }
+    assertTrue(names.size() < gg.getStreetEdges().size());
+  }
+
   /**
    * Detailed testing of OSM graph building using a very small chunk of NYC (SOHO-ish).
    */
@@ -4,13 +4,11 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertInstanceOf;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
 import static org.junit.jupiter.api.Assertions.assertNull;
-import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.util.Arrays;
-import java.util.Collection;
-import java.util.Collections;
 import java.util.List;
 import org.geojson.LngLatAlt;
 import org.geojson.Polygon;
@@ -143,13 +141,6 @@ public class StopTimeMapperTest {
     return stopTime;
   }
 
-  @Test
-  public void testMapCollection() {
-    assertNull(subject.map((Collection<StopTime>) null));
-    assertTrue(subject.map(Collections.emptyList()).isEmpty());
-    assertEquals(1, subject.map(Collections.singleton(buildDefaultStopTime())).size());
-  }
-
   @Test
   public void testMap() {
     var result = subject.map(buildDefaultStopTime());
@@ -187,13 +178,15 @@ public class StopTimeMapperTest {
     assertFalse(result.isTimepointSet());
   }
 
-  /** Mapping the same object twice, should return the same instance. */
+  /** The mapped stop times are not cached. */
   @Test
-  public void testMapCache() {
+  public void testMapAll() {
     var st = buildDefaultStopTime();
-    var result1 = subject.map(st);
-    var result2 = subject.map(st);
-    assertSame(result1, result2);
+    var result = subject.mapAll(List.of(st, st));
+    assertEquals(2, result.size());
+    assertNotSame(result.get(0), result.get(1));
+    assertNotSame(subject.map(st), subject.map(st));
+    assertTrue(subject.mapAll(List.of()).isEmpty());
   }
 
   @Test
@@ -119,7 +119,7 @@ public class TransferMapperTest {
 
   @Test
   public void testEmptyMapCollection() {
-    tripStopTimes.addAll(STOP_TIME_MAPPER.map(createStopTimes()));
+    tripStopTimes.addAll(STOP_TIME_MAPPER.mapAll(createStopTimes()));
 
     TransferMapper transferMapper = new TransferMapper(
       ROUTE_MAPPER,
@@ -135,7 +135,7 @@ public class TransferMapperTest {
 
   @Test
   public void testMapCollection() throws Exception {
-    tripStopTimes.addAll(STOP_TIME_MAPPER.map(createStopTimes()));
+    tripStopTimes.addAll(STOP_TIME_MAPPER.mapAll(createStopTimes()));
 
     TransferMapper transferMapper = new TransferMapper(
       ROUTE_MAPPER,
@@ -154,7 +154,7 @@ public class TransferMapperTest {
 
   @Test
   public void testMapStopTransfer() {
-    tripStopTimes.addAll(STOP_TIME_MAPPER.map(createStopTimes()));
+    tripStopTimes.addAll(STOP_TIME_MAPPER.mapAll(createStopTimes()));
     transfer.setFromTrip(null);
     transfer.setToTrip(null);
     transfer.setFromRoute(null);
@@ -179,7 +179,7 @@ public class TransferMapperTest {
 
   @Test
   public void testMap() throws Exception {
-    tripStopTimes.addAll(STOP_TIME_MAPPER.map(createStopTimes()));
+    tripStopTimes.addAll(STOP_TIME_MAPPER.mapAll(createStopTimes()));
 
     TransferMapper transferMapper = new TransferMapper(
       ROUTE_MAPPER,
@@ -219,7 +219,7 @@ public class TransferMapperTest {
       createStopTime(stop_1, 7, 3, TO_TRIP)
     );
 
-    tripStopTimes.addAll(STOP_TIME_MAPPER.map(stopTimes));
+    tripStopTimes.addAll(STOP_TIME_MAPPER.mapAll(stopTimes));
 
     transfer.setId(ID);
     transfer.setFromRoute(FROM_ROUTE);
@@ -0,0 +1,57 @@
+package org.opentripplanner.netex.loader;
+
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.math.BigInteger;
+import java.time.LocalTime;
+import org.junit.jupiter.api.Test;
+import org.rutebanken.netex.model.ScheduledStopPointRefStructure;
+import org.rutebanken.netex.model.TimetabledPassingTime;
+
+class CanonicalValueListenerTest {
+
+  private final CanonicalValueListener subject = new CanonicalValueListener();
+
+  @Test
+  void passingTimesShareEqualValues() {
+    var a = passingTime(LocalTime.of(10, 15), new BigInteger("1"));
+    var b = passingTime(LocalTime.of(10, 15), new BigInteger("1"));
+
+    subject.afterUnmarshal(a, null);
+    subject.afterUnmarshal(b, null);
+
+    assertSame(a.getDepartureTime(), b.getDepartureTime());
+    assertSame(a.getDepartureDayOffset(), b.getDepartureDayOffset());
+  }
+
+  @Test
+  void refsShareEqualValues() {
+    var a = new ScheduledStopPointRefStructure().withRef(new String("NSR:1")).withVersion("1");
+    var b = new ScheduledStopPointRefStructure().withRef(new String("NSR:1")).withVersion("1");
+
+    subject.afterUnmarshal(a, null);
+    subject.afterUnmarshal(b, null);
+
+    assertSame(a.getRef(), b.getRef());
+  }
+
+  @Test
+  void valuesAreNotSharedAfterReset() {
+    var a = passingTime(LocalTime.of(10, 15), null);
+    var b = passingTime(LocalTime.of(10, 15), null);
+
+    subject.afterUnmarshal(a, null);
+    subject.reset();
+    subject.afterUnmarshal(b, null);
+
+    assertNotSame(a.getDepartureTime(), b.getDepartureTime());
+  }
+
+  private static TimetabledPassingTime passingTime(LocalTime time, BigInteger dayOffset) {
+    var passingTime = new TimetabledPassingTime();
+    passingTime.setDepartureTime(time);
+    passingTime.setDepartureDayOffset(dayOffset);
+    return passingTime;
+  }
+}
@@ -0,0 +1,62 @@
+package org.opentripplanner.netex.loader;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.opentripplanner.datastore.api.DataSource;
+import org.opentripplanner.datastore.api.FileType;
+import org.opentripplanner.datastore.base.ByteArrayDataSource;
+
+class NetexXmlParserTest {
+
+  private static final String DOC =
+    """
+    <?xml version="1.0" encoding="UTF-8"?>
+    <PublicationDelivery xmlns="http://www.netex.org.uk/netex" version="1.0">
+      <PublicationTimestamp>2024-01-01T00:00:00</PublicationTimestamp>
+      <ParticipantRef>%s</ParticipantRef>
+    </PublicationDelivery>
+    """;
+
+  @ParameterizedTest
+  @ValueSource(ints = { 1, 4 })
+  void parseInOrder(int nThreads) {
+    var entries = IntStream.range(0, 20).mapToObj(i -> entry("P" + i)).toList();
+    var result = new ArrayList<String>();
+
+    try (var subject = new NetexXmlParser(nThreads)) {
+      subject.parseInOrder(
+        entries,
+        (entry, doc) -> result.add(entry.name() + ":" + doc.getParticipantRef())
+      );
+    }
+
+    assertEquals(IntStream.range(0, 20).mapToObj(i -> "P" + i + ":P" + i).toList(), result);
+  }
+
+  @ParameterizedTest
+  @ValueSource(ints = { 1, 4 })
+  void parseErrorIsRethrown(int nThreads) {
+    var entries = List.of(entry("P1"), invalidEntry());
+
+    try (var subject = new NetexXmlParser(nThreads)) {
+      assertThrows(RuntimeException.class, () -> subject.parseInOrder(entries, (e, doc) -> {}));
+    }
+  }
+
+  private static DataSource entry(String participant) {
+    return new ByteArrayDataSource(participant, participant, FileType.NETEX, 0, 0, false)
+      .withBytes(DOC.formatted(participant).getBytes(StandardCharsets.UTF_8));
+  }
+
+  private static DataSource invalidEntry() {
+    return new ByteArrayDataSource("invalid", "invalid", FileType.NETEX, 0, 0, false)
+      .withBytes("<PublicationDelivery".getBytes(StandardCharsets.UTF_8));
+  }
+}
@@ -1,10 +1,14 @@
 package org.opentripplanner.openstreetmap.model;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -36,6 +40,46 @@ public class OSMWithTagsTest {
     assertEquals("bar", o.getTag("FOO"));
   }
 
+  @Test
+  void testAddTagReplacesValue() {
+    OSMWithTags o = new OSMWithTags();
+    o.addTag("foo", "bar");
+    o.addTag("FOO", "baz");
+    o.addTag("abc", "def");
+
+    assertEquals("baz", o.getTag("foo"));
+    assertEquals(Map.of("foo", "baz", "abc", "def"), o.getTags());
+  }
+
+  @Test
+  void testGetTagIds() {
+    var dictionary = new OSMTagDictionary();
+    OSMWithTags a = new OSMWithTags();
+    a.setTagDictionary(dictionary);
+    a.addTag("highway", "residential");
+    a.addTag("name", "A street");
+    OSMWithTags b = new OSMWithTags();
+    b.setTagDictionary(dictionary);
+    b.addTag("name", "B street");
+    b.addTag("highway", "residential");
+
+    assertFalse(Arrays.equals(a.getTagIds(k -> true), b.getTagIds(k -> true)));
+
+    assertArrayEquals(a.getTagIds(k -> !k.equals("name")), b.getTagIds(k -> !k.equals("name")));
+    assertEquals(2, a.getTagIds(k -> !k.equals("name")).length);
+    assertEquals(0, new OSMWithTags().getTagIds(k -> true).length);
+  }
+
+  @Test
+  void testTagDictionaryMustBeSetBeforeAddingTags() {
+    OSMWithTags o = new OSMWithTags();
+    o.addTag("foo", "bar");
+
+    assertNotNull(o.getTagDictionary());
+    assertThrows(IllegalStateException.class, () -> o.setTagDictionary(new OSMTagDictionary()));
+    assertNull(new OSMWithTags().getTagDictionary());
+  }
+
   @Test
   void testIsFalse() {
     assertTrue(OSMWithTags.isFalse("no"));
@@ -84,6 +84,38 @@ class WayPropertySetTest {
       assertEquals(expected, wps.getDataForWay(cycleway).bicycleSafety());
     }
 
+    @Test
+    void matchIsSharedByWaysWithSameRelevantTags() {
+      WayPropertySet wps = wps();
+      var first = new OSMWithTags();
+      first.addTag("highway", "primary");
+      first.addTag("name", "First street");
+      var second = new OSMWithTags();
+      second.addTag("highway", "primary");
+      second.addTag("name", "Second street");
+      second.addTag("cycleway", "lane");
+
+      assertEquals(CAR, wps.getDataForWay(first).getPermission());
+      assertEquals(CAR, wps.getDataForWay(second).getPermission());
+      assertEquals(new SafetyFeatures(1, 1), wps.getDataForWay(first).bicycleSafety());
+      assertEquals(new SafetyFeatures(5, 5), wps.getDataForWay(second).bicycleSafety());
+    }
+
+    @Test
+    void addingPropertiesInvalidatesMatches() {
+      WayPropertySet wps = wps();
+      var way = new OSMWithTags();
+      way.addTag("highway", "primary");
+      way.addTag("access", "customers");
+      assertEquals(CAR, wps.getDataForWay(way).getPermission());
+
+      wps.setProperties(
+        new ExactMatchSpecifier("highway=primary;access=customers"),
+        withModes(NONE)
+      );
+      assertEquals(NONE, wps.getDataForWay(way).getPermission());
+    }
+
     @Nonnull
     private static WayPropertySet wps() {
       var wps = new WayPropertySet();
@@ -0,0 +1,59 @@
+package org.opentripplanner.routing.graph;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.opentripplanner.street.model._data.StreetModelForTest.intersectionVertex;
+import static org.opentripplanner.street.model._data.StreetModelForTest.streetEdge;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.street.model.edge.Edge;
+import org.opentripplanner.street.model.vertex.StreetVertex;
+import org.opentripplanner.street.model.vertex.Vertex;
+
+class SerializedGraphObjectTest {
+
+  private static final StreetVertex SOUTH_WEST = intersectionVertex("SW", -45, -90);
+  private static final StreetVertex SOUTH_EAST = intersectionVertex("SE", -45, 90);
+  private static final StreetVertex NORTH_WEST = intersectionVertex("NW", 45, -90);
+  private static final StreetVertex NORTH_EAST = intersectionVertex("NE", 45, 90);
+  private static final StreetVertex SOUTH_WEST_A = intersectionVertex("A", -45, -90);
+
+  @Test
+  void sortVerticesAlongTheCurveAndThenByLabel() {
+    List<Vertex> vertices = List.of(NORTH_EAST, SOUTH_WEST, NORTH_WEST, SOUTH_WEST_A, SOUTH_EAST);
+
+    assertEquals(
+      List.of(SOUTH_WEST_A, SOUTH_WEST, SOUTH_EAST, NORTH_WEST, NORTH_EAST),
+      SerializedGraphObject.sortVerticesInSpatialOrder(vertices)
+    );
+  }
+
+  @Test
+  void sortEdgesByFromAndThenToVertex() {
+    var swToNe = streetEdge(SOUTH_WEST, NORTH_EAST);
+    var neToSw = streetEdge(NORTH_EAST, SOUTH_WEST);
+    var swToSe = streetEdge(SOUTH_WEST, SOUTH_EAST);
+    var seToNw = streetEdge(SOUTH_EAST, NORTH_WEST);
+    List<Edge> edges = List.of(neToSw, swToNe, seToNw, swToSe);
+
+    assertEquals(
+      List.of(swToSe, swToNe, seToNw, neToSw),
+      SerializedGraphObject.sortEdgesInSpatialOrder(edges)
+    );
+  }
+
+  @Test
+  void sortEdgesAtTheSamePositionByLabelAndType() {
+    var fromSw = streetEdge(SOUTH_WEST, NORTH_EAST);
+    var fromA = streetEdge(SOUTH_WEST_A, NORTH_EAST);
+    var simpleFromA = SimpleConcreteEdge.createSimpleConcreteEdge(SOUTH_WEST_A, NORTH_EAST);
+    List<Edge> edges = List.of(fromSw, fromA, simpleFromA);
+
+    // SimpleConcreteEdge is in the routing.graph package, which is ordered before the street
+    // edges of the street.model.edge package
+    assertEquals(
+      List.of(simpleFromA, fromA, fromSw),
+      SerializedGraphObject.sortEdgesInSpatialOrder(edges)
+    );
+  }
+}
@@ -10,6 +10,7 @@ import java.time.LocalTime;
 import java.util.Arrays;
 import java.util.BitSet;
 import java.util.List;
+import java.util.stream.IntStream;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.opentripplanner.transit.model.framework.Deduplicator;
@@ -197,6 +198,52 @@ public class DeduplicatorTest {
     assertNotSame(dateList, subject.deduplicateImmutableList(DATE_CL, DATE_LIST));
   }
 
+  @Test
+  public void statisticsReport() {
+    subject.deduplicateIntArray(INT_ARRAY);
+    subject.deduplicateIntArray(INT_ARRAY_2);
+    subject.deduplicateStringArray(STRING_ARRAY);
+    subject.deduplicateStringArray(STRING_ARRAY_2);
+
+    assertEquals(
+      """
+      String: 1 requests, 0.0% hits, 0 kB saved
+      String[]: 2 requests, 50.0% hits, 0 kB saved
+      int[]: 2 requests, 50.0% hits, 0 kB saved""",
+      subject.statisticsReport()
+    );
+  }
+
+  @Test
+  public void statistics() {
+    subject.deduplicateIntArray(INT_ARRAY);
+    subject.deduplicateIntArray(INT_ARRAY_2);
+
+    var statistics = subject.statistics();
+
+    assertEquals(1, statistics.size());
+    var it = statistics.getFirst();
+    assertEquals("int[]", it.type());
+    assertEquals(2, it.requests());
+    assertEquals(1, it.hits());
+    assertEquals(50.0, it.hitRate());
+    assertTrue(it.savedBytes() > 0);
+  }
+
+  @Test
+  public void deduplicateConcurrently() {
+    var results = IntStream
+      .range(0, 10_000)
+      .parallel()
+      .mapToObj(i -> subject.deduplicateIntArray(new int[] { i % 10, 1, 2 }))
+      .toList();
+
+    for (int[] result : results) {
+      assertSame(result, subject.deduplicateIntArray(Arrays.copyOf(result, result.length)));
+    }
+    assertEquals("Deduplicator{int[]: 10(20000)}", subject.toString());
+  }
+
   @Test
   public void testToStringForEmptyDeduplicator() {
     assertEquals("Deduplicator{}", subject.toString());
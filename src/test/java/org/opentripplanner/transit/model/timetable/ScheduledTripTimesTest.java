@@ -14,6 +14,7 @@ import org.opentripplanner.framework.time.TimeUtils;
 import org.opentripplanner.transit.model._data.TransitModelForTest;
 import org.opentripplanner.transit.model.basic.Accessibility;
 import org.opentripplanner.transit.model.framework.DataValidationException;
+import org.opentripplanner.transit.model.framework.Deduplicator;
 import org.opentripplanner.transit.model.framework.FeedScopedId;
 
 class ScheduledTripTimesTest {
@@ -177,4 +178,26 @@ class ScheduledTripTimesTest {
   void copyDepartureTimes() {
     assertArrayEquals(new int[] { T10_01, T11_02, T12_03 }, subject.copyDepartureTimes());
   }
+
+  @Test
+  void tripsWithTheSameRunningTimesShareTheTimeArrays() {
+    var deduplicator = new Deduplicator();
+    var early = ScheduledTripTimes
+      .of(deduplicator)
+      .withArrivalTimes("10:00 11:00 12:00")
+      .withDepartureTimes("10:01 11:02 12:03")
+      .withTrip(TRIP)
+      .build();
+    var late = ScheduledTripTimes
+      .of(deduplicator)
+      .withArrivalTimes("14:00 15:00 16:00")
+      .withDepartureTimes("14:01 15:02 16:03")
+      .withTrip(TRIP)
+      .build();
+
+    // One arrival and one departure array shared by both trips
+    assertTrue(deduplicator.toString().contains("int[]: 2(4)"), deduplicator.toString());
+    assertArrayEquals(new int[] { T10_00, T11_00, T12_00 }, early.copyArrivalTimes());
+    assertEquals(TimeUtils.time("16:03"), late.getScheduledDepartureTime(STOP_POS_2));
+  }
 }
@@ -1,6 +1,7 @@
 package org.opentripplanner.transit.service;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.opentripplanner.framework.application.OtpFileNames.BUILD_CONFIG_FILENAME;
 
@@ -10,6 +11,7 @@ import org.opentripplanner._support.time.ZoneIds;
 import org.opentripplanner.ext.fares.impl.DefaultFareServiceFactory;
 import org.opentripplanner.graph_builder.module.TimeZoneAdjusterModule;
 import org.opentripplanner.model.Timetable;
+import org.opentripplanner.model.TimetableSnapshot;
 import org.opentripplanner.routing.graph.Graph;
 import org.opentripplanner.test.support.ResourceLoader;
 import org.opentripplanner.transit.model.framework.Deduplicator;
@@ -105,4 +107,18 @@ class TransitModelTest {
     Timetable timetable = transitModelIndex.getPatternForTrip().get(trip).getScheduledTimetable();
     assertEquals(20 * 60 - 60 * 60, timetable.getTripTimes(trip).getDepartureTime(0));
   }
+
+  @Test
+  void publishRealtimeTransitData() {
+    var transitModel = new TransitModel(new StopModel(), new Deduplicator());
+    var initial = transitModel.getRealtimeTransitData();
+    var snapshot = new TimetableSnapshot().commit(null, true);
+
+    transitModel.publishRealtimeTransitData(snapshot, null);
+
+    var published = transitModel.getRealtimeTransitData();
+    assertEquals(initial.version() + 1, published.version());
+    assertSame(snapshot, published.timetableSnapshot());
+    assertSame(snapshot, transitModel.getTimetableSnapshot());
+  }
 }
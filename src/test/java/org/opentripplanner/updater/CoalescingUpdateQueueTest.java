@@ -0,0 +1,211 @@
+package org.opentripplanner.updater;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.opentripplanner.updater.CoalescingUpdateQueue.OverflowPolicy.DROP_NEWEST;
+import static org.opentripplanner.updater.CoalescingUpdateQueue.OverflowPolicy.DROP_OLDEST;
+
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.updater.CoalescingUpdateQueue.OverflowPolicy;
+
+class CoalescingUpdateQueueTest {
+
+  private final List<GraphWriterRunnable> submitted = new ArrayList<>();
+  private final List<List<String>> applied = new ArrayList<>();
+  private final List<Boolean> appliedAsFullDataset = new ArrayList<>();
+  private final List<CoalescingUpdateQueue<String>> queues = new ArrayList<>();
+  private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+  @BeforeEach
+  void addRegistry() {
+    Metrics.addRegistry(registry);
+  }
+
+  @AfterEach
+  void close() {
+    queues.forEach(CoalescingUpdateQueue::close);
+    Metrics.removeRegistry(registry);
+  }
+
+  @Test
+  void keepLatestUpdateForEachKey() throws InterruptedException {
+    var queue = queue(10, DROP_OLDEST);
+
+    queue.offer(List.of("a1", "b1"), false);
+    queue.offer(List.of("a2"), false);
+    applySubmitted();
+
+    assertEquals(List.of(List.of("b1", "a2")), applied);
+    assertEquals(List.of(false), appliedAsFullDataset);
+  }
+
+  @Test
+  void submitAgainAfterApply() throws InterruptedException {
+    var queue = queue(10, DROP_OLDEST);
+
+    queue.offer(List.of("a1"), false);
+    applySubmitted();
+    queue.offer(List.of("a2"), false);
+    applySubmitted();
+
+    assertEquals(List.of(List.of("a1"), List.of("a2")), applied);
+  }
+
+  @Test
+  void fullDatasetReplacesPendingUpdates() throws InterruptedException {
+    var queue = queue(10, DROP_OLDEST);
+
+    queue.offer(List.of("a1"), false);
+    queue.offer(List.of("b1"), true);
+    queue.offer(List.of("c1"), false);
+    applySubmitted();
+
+    assertEquals(List.of(List.of("b1", "c1")), applied);
+    assertEquals(List.of(true), appliedAsFullDataset);
+  }
+
+  @Test
+  void dropOldest() throws InterruptedException {
+    var queue = queue(2, DROP_OLDEST);
+
+    queue.offer(List.of("a1", "b1", "c1"), false);
+    applySubmitted();
+
+    assertEquals(List.of(List.of("b1", "c1")), applied);
+  }
+
+  @Test
+  void dropNewest() throws InterruptedException {
+    var queue = queue(2, DROP_NEWEST);
+
+    queue.offer(List.of("a1", "b1", "c1"), false);
+    queue.offer(List.of("a2"), false);
+    applySubmitted();
+
+    assertEquals(List.of(List.of("b1", "a2")), applied);
+  }
+
+  @Test
+  void neverDropFullDataset() throws InterruptedException {
+    var queue = queue(2, DROP_OLDEST);
+
+    queue.offer(List.of("a1", "b1", "c1"), true);
+    applySubmitted();
+
+    assertEquals(List.of(List.of("a1", "b1", "c1")), applied);
+    assertEquals(List.of(true), appliedAsFullDataset);
+  }
+
+  @Test
+  void blockInsteadOfDroppingPendingFullDataset() throws Exception {
+    var queue = queue(2, DROP_OLDEST);
+    queue.offer(List.of("a1", "b1"), true);
+
+    var offered = new CompletableFuture<Void>();
+    var thread = new Thread(() -> {
+      try {
+        queue.offer(List.of("c1"), false);
+        offered.complete(null);
+      } catch (InterruptedException e) {
+        offered.completeExceptionally(e);
+      }
+    });
+    thread.start();
+    while (thread.getState() != Thread.State.WAITING) {
+      Thread.onSpinWait();
+    }
+    assertFalse(offered.isDone());
+
+    applySubmitted();
+    offered.get(10, TimeUnit.SECONDS);
+    applySubmitted();
+
+    assertEquals(List.of(List.of("a1", "b1"), List.of("c1")), applied);
+    assertEquals(List.of(true, false), appliedAsFullDataset);
+  }
+
+  @Test
+  void useUpdaterTypeIfNameIsMissing() throws InterruptedException {
+    var queue = new CoalescingUpdateQueue<String>(
+      null,
+      CoalescingUpdateQueueTest.class,
+      UpdateQueueParameters.DEFAULT,
+      update -> update,
+      runnable -> CompletableFuture.completedFuture(null),
+      (updates, fullDataset, context) -> {}
+    );
+    queues.add(queue);
+
+    assertNotNull(queue.offer(List.of("a"), false));
+    assertEquals(
+      1,
+      registry
+        .get("updater.queue.pending")
+        .tag("updater", "CoalescingUpdateQueueTest")
+        .gauge()
+        .value()
+    );
+  }
+
+  @Test
+  void reportPendingUpdatesOfEachQueue() throws InterruptedException {
+    var first = queue(10, DROP_OLDEST);
+    var second = queue(10, DROP_OLDEST);
+
+    first.offer(List.of("a1"), false);
+    second.offer(List.of("a1", "b1"), false);
+
+    assertEquals(1, pending("test"));
+    assertEquals(2, pending("test-2"));
+  }
+
+  @Test
+  void removeMetricsWhenClosed() {
+    var queue = queue(10, DROP_OLDEST);
+
+    queue.close();
+
+    assertNull(registry.find("updater.queue.pending").gauge());
+    assertNull(registry.find("updater.queue.dropped").counter());
+  }
+
+  private double pending(String updater) {
+    return registry.get("updater.queue.pending").tag("updater", updater).gauge().value();
+  }
+
+  private CoalescingUpdateQueue<String> queue(int capacity, OverflowPolicy overflowPolicy) {
+    var queue = new CoalescingUpdateQueue<String>(
+      "test",
+      CoalescingUpdateQueueTest.class,
+      new UpdateQueueParameters(capacity, overflowPolicy),
+      update -> update.charAt(0),
+      runnable -> {
+        submitted.add(runnable);
+        return CompletableFuture.completedFuture(null);
+      },
+      (updates, fullDataset, context) -> {
+        applied.add(updates);
+        appliedAsFullDataset.add(fullDataset);
+      }
+    );
+    queues.add(queue);
+    return queue;
+  }
+
+  private void applySubmitted() {
+    assertEquals(1, submitted.size());
+    submitted.removeFirst().run(null);
+    assertTrue(submitted.isEmpty());
+  }
+}
@@ -0,0 +1,172 @@
+package org.opentripplanner.updater;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.updater.spi.GraphUpdater;
+import org.opentripplanner.updater.spi.WriteToGraphCallback;
+
+class GraphUpdaterManagerTest {
+
+  private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+  private final ManualScheduler scheduler = new ManualScheduler();
+  private final GraphUpdaterManager manager = new GraphUpdaterManager(
+    null,
+    List.of(),
+    Duration.ofMillis(200),
+    scheduler
+  );
+
+  @BeforeEach
+  void addRegistry() {
+    Metrics.addRegistry(registry);
+  }
+
+  @AfterEach
+  void stop() {
+    manager.stop();
+    Metrics.removeRegistry(registry);
+  }
+
+  @Test
+  void runTasksWithinBatchWindowTogether() {
+    List<Integer> executed = new ArrayList<>();
+
+    var first = manager.execute(context -> executed.add(1));
+    var second = manager.execute(context -> executed.add(2));
+
+    assertFalse(first.isDone());
+    assertEquals(1, scheduler.scheduled.size());
+
+    scheduler.runScheduled();
+
+    assertTrue(first.isDone());
+    assertTrue(second.isDone());
+    assertEquals(List.of(1, 2), executed);
+  }
+
+  @Test
+  void failingTaskDoesNotStopBatch() {
+    List<Integer> executed = new ArrayList<>();
+
+    manager.execute(context -> {
+      throw new IllegalStateException("Failed");
+    });
+    manager.execute(context -> executed.add(1));
+    scheduler.runScheduled();
+
+    assertEquals(List.of(1), executed);
+  }
+
+  @Test
+  void commitOnceAfterEachBatch() {
+    List<String> executed = new ArrayList<>();
+    manager.commitAfterEachGraphWriterBatch(() -> executed.add("commit"));
+
+    manager.execute(context -> executed.add("1"));
+    manager.execute(context -> executed.add("2"));
+    scheduler.runScheduled();
+    manager.execute(context -> executed.add("3"));
+    scheduler.runScheduled();
+
+    assertEquals(List.of("1", "2", "commit", "3", "commit"), executed);
+  }
+
+  @Test
+  void reportQueueDepth() {
+    manager.execute(context -> {});
+    manager.execute(context -> {});
+    assertEquals(2, queueDepth());
+
+    scheduler.runScheduled();
+    assertEquals(0, queueDepth());
+
+    // The gauge is removed with the manager
+    manager.stop();
+    assertNull(registry.find("graph_writer.queue_depth").gauge());
+  }
+
+  @Test
+  void recordTimersOfTheUpdaterWhichSubmittedTheTask() throws Exception {
+    var updater = new CallbackUpdater("timers-test");
+    var managerWithUpdater = new GraphUpdaterManager(null, List.of(updater));
+    try {
+      updater.writeToGraphCallback.execute(context -> {}).get(5, TimeUnit.SECONDS);
+
+      assertEquals(1, timerCount("updater.queue_wait"));
+      assertEquals(1, timerCount("updater.apply"));
+      assertEquals(0, timerCount("updater.poll"));
+    } finally {
+      managerWithUpdater.stop();
+    }
+  }
+
+  private double queueDepth() {
+    return registry.get("graph_writer.queue_depth").gauge().value();
+  }
+
+  private long timerCount(String name) {
+    return registry.get(name).tag("updater", "timers-test").timer().count();
+  }
+
+  /**
+   * Keeps the graph writer batches instead of running them after the batch window, so the test
+   * decides when they run.
+   */
+  private static class ManualScheduler extends ScheduledThreadPoolExecutor {
+
+    private final List<Runnable> scheduled = new ArrayList<>();
+
+    private ManualScheduler() {
+      super(1);
+    }
+
+    @Override
+    public ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit) {
+      scheduled.add(command);
+      return null;
+    }
+
+    private void runScheduled() {
+      var batches = List.copyOf(scheduled);
+      scheduled.clear();
+      batches.forEach(Runnable::run);
+    }
+  }
+
+  private static class CallbackUpdater implements GraphUpdater {
+
+    private final String configRef;
+    private WriteToGraphCallback writeToGraphCallback;
+
+    private CallbackUpdater(String configRef) {
+      this.configRef = configRef;
+    }
+
+    @Override
+    public void setup(WriteToGraphCallback writeToGraphCallback) {
+      this.writeToGraphCallback = writeToGraphCallback;
+    }
+
+    @Override
+    public void run() {}
+
+    @Override
+    public String getConfigRef() {
+      return configRef;
+    }
+  }
+}
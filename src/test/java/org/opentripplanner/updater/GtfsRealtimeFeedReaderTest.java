@@ -0,0 +1,101 @@
+package org.opentripplanner.updater;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.google.protobuf.ExtensionRegistryLite;
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.transit.realtime.GtfsRealtime.FeedEntity;
+import com.google.transit.realtime.GtfsRealtime.FeedHeader;
+import com.google.transit.realtime.GtfsRealtime.FeedMessage;
+import com.google.transit.realtime.GtfsRealtime.TripDescriptor;
+import com.google.transit.realtime.GtfsRealtime.TripUpdate;
+import com.google.transit.realtime.GtfsRealtime.VehiclePosition;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class GtfsRealtimeFeedReaderTest {
+
+  private static final ExtensionRegistryLite REGISTRY = ExtensionRegistryLite.getEmptyRegistry();
+
+  private static final FeedHeader HEADER = FeedHeader
+    .newBuilder()
+    .setGtfsRealtimeVersion("2.0")
+    .setIncrementality(FeedHeader.Incrementality.DIFFERENTIAL)
+    .setTimestamp(1_700_000_000L)
+    .build();
+
+  private static final FeedEntity TRIP_UPDATE = FeedEntity
+    .newBuilder()
+    .setId("1")
+    .setTripUpdate(
+      TripUpdate.newBuilder().setTrip(TripDescriptor.newBuilder().setTripId("trip1"))
+    )
+    .build();
+
+  private static final FeedEntity VEHICLE = FeedEntity
+    .newBuilder()
+    .setId("2")
+    .setVehicle(VehiclePosition.newBuilder().setTrip(TripDescriptor.newBuilder().setTripId("t2")))
+    .build();
+
+  @Test
+  void readEntitiesInOrder() throws IOException {
+    var message = FeedMessage
+      .newBuilder()
+      .setHeader(HEADER)
+      .addEntity(TRIP_UPDATE)
+      .addEntity(VEHICLE)
+      .addEntity(TRIP_UPDATE)
+      .build();
+
+    List<FeedEntity> entities = new ArrayList<>();
+    var header = GtfsRealtimeFeedReader.read(
+      new ByteArrayInputStream(message.toByteArray()),
+      REGISTRY,
+      entities::add
+    );
+
+    assertEquals(HEADER, header);
+    assertEquals(message.getEntityList(), entities);
+  }
+
+  @Test
+  void readFromBytes() throws IOException {
+    var message = FeedMessage.newBuilder().setHeader(HEADER).addEntity(VEHICLE).build();
+
+    List<FeedEntity> entities = new ArrayList<>();
+    var header = GtfsRealtimeFeedReader.read(message.toByteArray(), REGISTRY, entities::add);
+
+    assertEquals(HEADER, header);
+    assertEquals(List.of(VEHICLE), entities);
+  }
+
+  @Test
+  void rejectMessageWithoutHeader() {
+    var message = FeedMessage.newBuilder().addEntity(TRIP_UPDATE).buildPartial().toByteArray();
+
+    assertThrows(
+      InvalidProtocolBufferException.class,
+      () -> GtfsRealtimeFeedReader.read(message, REGISTRY, entity -> {})
+    );
+  }
+
+  @Test
+  void rejectEntityWithoutId() {
+    var message = FeedMessage
+      .newBuilder()
+      .setHeader(HEADER)
+      .addEntity(FeedEntity.newBuilder().setVehicle(VehiclePosition.getDefaultInstance()))
+      .buildPartial()
+      .toByteArray();
+
+    assertThrows(
+      InvalidProtocolBufferException.class,
+      () -> GtfsRealtimeFeedReader.read(message, REGISTRY, entity -> {})
+    );
+  }
+}
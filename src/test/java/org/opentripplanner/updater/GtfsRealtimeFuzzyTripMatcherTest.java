@@ -4,6 +4,8 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 
 import com.google.transit.realtime.GtfsRealtime.TripDescriptor;
+import java.util.List;
+import java.util.stream.IntStream;
 import org.junit.jupiter.api.Test;
 import org.opentripplanner.GtfsTest;
 import org.opentripplanner.transit.service.DefaultTransitService;
@@ -56,6 +58,31 @@ public class GtfsRealtimeFuzzyTripMatcherTest extends GtfsTest {
     assertFalse(trip1.hasTripId());
   }
 
+  @Test
+  public void testMatchInParallel() {
+    String feedId = transitModel.getFeedIds().iterator().next();
+
+    GtfsRealtimeFuzzyTripMatcher matcher = new GtfsRealtimeFuzzyTripMatcher(
+      new DefaultTransitService(transitModel)
+    );
+    TripDescriptor trip = TripDescriptor
+      .newBuilder()
+      .setRouteId("1")
+      .setDirectionId(0)
+      .setStartTime("06:47:00")
+      .setStartDate("20090915")
+      .build();
+
+    var tripIds = IntStream
+      .range(0, 100)
+      .parallel()
+      .mapToObj(i -> matcher.match(feedId, trip).getTripId())
+      .distinct()
+      .toList();
+
+    assertEquals(List.of("10W1020"), tripIds);
+  }
+
   @Override
   public String getFeedName() {
     return "portland/portland.gtfs.zip";
@@ -7,7 +7,9 @@ import static org.junit.jupiter.api.Assertions.assertNotSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.opentripplanner.transit.model._data.TransitModelForTest.id;
 import static org.opentripplanner.updater.spi.UpdateResultAssertions.assertSuccess;
+import static org.opentripplanner.updater.trip.UpdateIncrementality.FULL_DATASET;
 
+import java.util.List;
 import org.junit.jupiter.api.Test;
 import org.opentripplanner.transit.model.timetable.RealTimeState;
 import org.opentripplanner.updater.trip.RealtimeTestConstants;
@@ -127,4 +129,53 @@ class DelayedTest implements RealtimeTestConstants {
       env.getRealtimeTimetable(TRIP_2_ID)
     );
   }
+
+  /**
+   * The trip times of the updates in a message are computed up front, but the updates must still
+   * be applied in order: the last update of a trip wins.
+   */
+  @Test
+  void delaysOfSeveralTripsInOneMessage() {
+    var env = RealtimeTestEnvironment
+      .gtfs()
+      .addTrip(
+        TripInput
+          .of(TRIP_1_ID)
+          .addStop(STOP_A1, "0:00:10", "0:00:11")
+          .addStop(STOP_B1, "0:00:20", "0:00:21")
+          .build()
+      )
+      .addTrip(
+        TripInput
+          .of(TRIP_2_ID)
+          .addStop(STOP_A1, "0:01:00", "0:01:01")
+          .addStop(STOP_B1, "0:01:10", "0:01:11")
+          .build()
+      )
+      .build();
+
+    var updates = List.of(
+      new TripUpdateBuilder(TRIP_1_ID, SERVICE_DATE, SCHEDULED, TIME_ZONE)
+        .addDelayedStopTime(STOP_SEQUENCE, DELAY)
+        .build(),
+      new TripUpdateBuilder(TRIP_2_ID, SERVICE_DATE, SCHEDULED, TIME_ZONE)
+        .addDelayedStopTime(STOP_SEQUENCE, DELAY)
+        .build(),
+      new TripUpdateBuilder(TRIP_1_ID, SERVICE_DATE, SCHEDULED, TIME_ZONE)
+        .addDelayedStopTime(STOP_SEQUENCE, 2 * DELAY)
+        .build()
+    );
+
+    var result = env.applyTripUpdates(updates, FULL_DATASET);
+
+    assertEquals(3, result.successful());
+    assertEquals(
+      "UPDATED | A1 [ND] 0:00:10 0:00:11 | B1 0:00:22 0:00:23",
+      env.getRealtimeTimetable(TRIP_1_ID)
+    );
+    assertEquals(
+      "UPDATED | A1 [ND] 0:01 0:01:01 | B1 0:01:11 0:01:12",
+      env.getRealtimeTimetable(TRIP_2_ID)
+    );
+  }
 }
@@ -0,0 +1,87 @@
+package org.opentripplanner.updater.trip.moduletests.delay;
+
+import static com.google.transit.realtime.GtfsRealtime.TripDescriptor.ScheduleRelationship.SCHEDULED;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.opentripplanner.transit.model._data.TransitModelForTest.id;
+import static org.opentripplanner.updater.trip.UpdateIncrementality.FULL_DATASET;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.updater.trip.RealtimeTestConstants;
+import org.opentripplanner.updater.trip.RealtimeTestEnvironment;
+import org.opentripplanner.updater.trip.TripInput;
+import org.opentripplanner.updater.trip.TripUpdateBuilder;
+
+/**
+ * Only the trips which changed since the last full dataset should be applied, trips which are
+ * no longer part of the dataset should get their scheduled times back.
+ */
+class RepeatedFullDatasetTest implements RealtimeTestConstants {
+
+  private static final TripInput TRIP_1_INPUT = TripInput
+    .of(TRIP_1_ID)
+    .addStop(STOP_A1, "0:00:10", "0:00:11")
+    .addStop(STOP_B1, "0:00:20", "0:00:21")
+    .addStop(STOP_C1, "0:00:30", "0:00:31")
+    .build();
+
+  private static final TripInput TRIP_2_INPUT = TripInput
+    .of(TRIP_2_ID)
+    .addStop(STOP_A1, "0:01:00", "0:01:01")
+    .addStop(STOP_B1, "0:01:10", "0:01:11")
+    .addStop(STOP_C1, "0:01:20", "0:01:21")
+    .build();
+
+  @Test
+  void unchangedTripsAreNotAppliedAgain() {
+    var env = RealtimeTestEnvironment.gtfs().addTrip(TRIP_1_INPUT).build();
+
+    var tripUpdate = new TripUpdateBuilder(TRIP_1_ID, SERVICE_DATE, SCHEDULED, TIME_ZONE)
+      .addDelayedStopTime(1, 1)
+      .build();
+
+    assertEquals(1, env.applyTripUpdates(List.of(tripUpdate), FULL_DATASET).successful());
+    var snapshot = env.getTimetableSnapshot();
+
+    var result = env.applyTripUpdates(List.of(tripUpdate), FULL_DATASET);
+
+    assertEquals(1, result.successful());
+    assertSame(snapshot, env.getTimetableSnapshot());
+    assertEquals(
+      "UPDATED | A1 [ND] 0:00:10 0:00:11 | B1 0:00:21 0:00:22 | C1 0:00:31 0:00:32",
+      env.getRealtimeTimetable(TRIP_1_ID)
+    );
+  }
+
+  @Test
+  void changedAndRemovedTripsAreReverted() {
+    var env = RealtimeTestEnvironment.gtfs().addTrip(TRIP_1_INPUT).addTrip(TRIP_2_INPUT).build();
+
+    var skipped = new TripUpdateBuilder(TRIP_1_ID, SERVICE_DATE, SCHEDULED, TIME_ZONE)
+      .addDelayedStopTime(0, 0)
+      .addSkippedStop(1)
+      .addDelayedStopTime(2, 90)
+      .build();
+    var delayed = new TripUpdateBuilder(TRIP_2_ID, SERVICE_DATE, SCHEDULED, TIME_ZONE)
+      .addDelayedStopTime(1, 1)
+      .build();
+
+    assertEquals(2, env.applyTripUpdates(List.of(skipped, delayed), FULL_DATASET).successful());
+
+    var delayedAgain = new TripUpdateBuilder(TRIP_2_ID, SERVICE_DATE, SCHEDULED, TIME_ZONE)
+      .addDelayedStopTime(1, 2)
+      .build();
+
+    assertEquals(1, env.applyTripUpdates(List.of(delayedAgain), FULL_DATASET).successful());
+
+    var snapshot = env.getTimetableSnapshot();
+    assertNull(snapshot.getRealtimeAddedTripPattern(id(TRIP_1_ID), SERVICE_DATE));
+    assertEquals(env.getScheduledTimetable(TRIP_1_ID), env.getRealtimeTimetable(TRIP_1_ID));
+    assertEquals(
+      "UPDATED | A1 [ND] 0:01 0:01:01 | B1 0:01:12 0:01:13 | C1 0:01:22 0:01:23",
+      env.getRealtimeTimetable(TRIP_2_ID)
+    );
+  }
+}